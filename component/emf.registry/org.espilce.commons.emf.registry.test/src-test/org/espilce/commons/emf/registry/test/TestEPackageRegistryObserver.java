@@ -9,31 +9,42 @@
  ******************************************************************************/
 package org.espilce.commons.emf.registry.test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EcorePackage;
 import org.espilce.commons.emf.registry.EPackageRegistryObserver;
+import org.espilce.commons.emf.registry.NotifyingEPackageRegistry;
 import org.junit.jupiter.api.Test;
 
 public class TestEPackageRegistryObserver implements EPackageRegistryObserver {
 	private static final Logger LOGGER = Logger.getLogger(TestEPackageRegistryObserver.class.getName());
 	private static List<String> registeredPackages = new LinkedList<>();
 	private static List<String> unregisteredPackages = new LinkedList<>();
+	private static Set<EPackageRegistryObserver> notifiedObservers = Collections
+			.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
 
 	@Override
 	public void ePackageRegistered(String uri, EPackage ePackage) {
 		registeredPackages.add(uri);
+		notifiedObservers.add(this);
 	}
 
 	@Override
 	public void ePackageUnregistered(String uri, EPackage ePackage) {
 		unregisteredPackages.add(uri);
+		notifiedObservers.add(this);
 	}
 
 	@Test
@@ -57,4 +68,41 @@ public class TestEPackageRegistryObserver implements EPackageRegistryObserver {
 			LOGGER.warning("testEPackageUnregistration disabled: Eclipse platform not running");
 		}
 	}
+
+	@Test
+	public void testObserverReused() throws Exception {
+		if (Platform.isRunning()) {
+			notifiedObservers.clear();
+			EPackage.Registry.INSTANCE.remove(EcorePackage.eNS_URI);
+			EPackage.Registry.INSTANCE.put(EcorePackage.eNS_URI, EcorePackage.eINSTANCE);
+			EPackage.Registry.INSTANCE.remove(EcorePackage.eNS_URI);
+			EPackage.Registry.INSTANCE.put(EcorePackage.eNS_URI, EcorePackage.eINSTANCE);
+			assertEquals(1, notifiedObservers.size());
+		} else {
+			// TODO: How to test extension points without platform?
+			LOGGER.warning("testObserverReused disabled: Eclipse platform not running");
+		}
+	}
+
+	@Test
+	public void testAsyncNotification() throws Exception {
+		if (Platform.isRunning()) {
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			try {
+				NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry(executor);
+				registeredPackages.clear();
+				unregisteredPackages.clear();
+				registry.put(EcorePackage.eNS_URI, EcorePackage.eINSTANCE);
+				registry.remove(EcorePackage.eNS_URI);
+				registry.flush();
+				assertTrue(registeredPackages.contains(EcorePackage.eNS_URI));
+				assertTrue(unregisteredPackages.contains(EcorePackage.eNS_URI));
+			} finally {
+				executor.shutdown();
+			}
+		} else {
+			// TODO: How to test extension points without platform?
+			LOGGER.warning("testAsyncNotification disabled: Eclipse platform not running");
+		}
+	}
 }
@@ -0,0 +1,488 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.registry.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.eclipse.emf.ecore.EFactory;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.espilce.commons.emf.registry.EPackageRegistryMetrics;
+import org.espilce.commons.emf.registry.JmxEPackageRegistryMetrics;
+import org.espilce.commons.emf.registry.NotifyingEPackageRegistry;
+import org.junit.jupiter.api.Test;
+
+public class TestNotifyingEPackageRegistry {
+	private static final int THREADS = 8;
+
+	@Test
+	public void testPutAndRemove() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		EPackage ePackage = createEPackage("http://a");
+
+		assertNull(registry.put("http://a", ePackage));
+		assertSame(ePackage, registry.getEPackage("http://a"));
+		assertSame(ePackage.getEFactoryInstance(), registry.getEFactory("http://a"));
+		assertSame(ePackage, registry.remove("http://a"));
+		assertNull(registry.getEPackage("http://a"));
+		assertTrue(registry.isEmpty());
+	}
+
+	@Test
+	public void testViewsAreUnmodifiable() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		registry.put("http://a", createEPackage("http://a"));
+
+		assertThrows(UnsupportedOperationException.class, () -> registry.keySet().clear());
+		assertThrows(UnsupportedOperationException.class, () -> registry.values().clear());
+		assertThrows(UnsupportedOperationException.class, () -> registry.entrySet().clear());
+		assertEquals(1, registry.size());
+	}
+
+	@Test
+	public void testNullKeysAndValues() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		EPackage ePackage = createEPackage(null);
+
+		assertNull(registry.getEPackage(null));
+		assertNull(registry.put(null, ePackage));
+		assertNull(registry.put("http://a", null));
+		assertSame(ePackage, registry.getEPackage(null));
+		assertTrue(registry.containsKey("http://a"));
+		assertTrue(registry.containsValue(null));
+		assertTrue(registry.keySet().contains(null));
+		assertTrue(registry.values().contains(ePackage));
+		assertEquals(2, registry.entrySet().size());
+		assertSame(ePackage, registry.remove(null));
+		assertNull(registry.remove("http://a"));
+		assertTrue(registry.isEmpty());
+	}
+
+	@Test
+	public void testConcurrentPuts() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				String prefix = "http://t" + i + "/";
+				writers.add(executor.submit(() -> {
+					for (int j = 0; j < 1000; j++) {
+						registry.put(prefix + j, createEPackage(prefix + j));
+					}
+					for (int j = 0; j < 1000; j += 2) {
+						registry.remove(prefix + j);
+					}
+				}));
+			}
+			for (Future<?> writer : writers) {
+				writer.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(THREADS * 500, registry.size());
+		assertEquals("http://t3/999", registry.getEPackage("http://t3/999").getNsURI());
+		assertNull(registry.getEPackage("http://t3/998"));
+	}
+
+	@Test
+	public void testDescriptorResolvedOnce() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		EPackage ePackage = createEPackage("http://a");
+		AtomicInteger resolutions = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		registry.put("http://a", new EPackage.Descriptor() {
+			@Override
+			public EPackage getEPackage() {
+				resolutions.incrementAndGet();
+				try {
+					// Give the other threads time to ask for the package as well
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return ePackage;
+			}
+
+			@Override
+			public EFactory getEFactory() {
+				return ePackage.getEFactoryInstance();
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<EPackage>> results = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return registry.getEPackage("http://a");
+				}));
+			}
+			start.countDown();
+			for (Future<EPackage> result : results) {
+				assertSame(ePackage, result.get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, resolutions.get());
+		assertSame(ePackage, registry.get("http://a"));
+	}
+
+	@Test
+	public void testNestedLookupWaitsForResolution() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		EPackage a = createEPackage("http://a");
+		EPackage b = createEPackage("http://b");
+		AtomicInteger bResolutions = new AtomicInteger();
+		CountDownLatch bResolving = new CountDownLatch(1);
+		registry.put("http://b", new EPackage.Descriptor() {
+			@Override
+			public EPackage getEPackage() {
+				bResolutions.incrementAndGet();
+				bResolving.countDown();
+				try {
+					// Give the resolution of a time to ask for b
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return b;
+			}
+
+			@Override
+			public EFactory getEFactory() {
+				return b.getEFactoryInstance();
+			}
+		});
+		registry.put("http://a", new EPackage.Descriptor() {
+			@Override
+			public EPackage getEPackage() {
+				try {
+					bResolving.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				assertSame(b, registry.getEPackage("http://b"));
+				return a;
+			}
+
+			@Override
+			public EFactory getEFactory() {
+				return a.getEFactoryInstance();
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<EPackage> resolvingB = executor.submit(() -> registry.getEPackage("http://b"));
+			Future<EPackage> resolvingA = executor.submit(() -> registry.getEPackage("http://a"));
+			assertSame(a, resolvingA.get(10, TimeUnit.SECONDS));
+			assertSame(b, resolvingB.get(10, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, bResolutions.get());
+	}
+
+	@Test
+	public void testPackagesAskingForEachOther() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		CountDownLatch bothResolving = new CountDownLatch(2);
+		registry.put("http://a", createDependentDescriptor(registry, "http://a", "http://b", bothResolving));
+		registry.put("http://b", createDependentDescriptor(registry, "http://b", "http://a", bothResolving));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// Waiting for each other would deadlock
+			registry.warmUp(executor).get(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals("http://a", registry.getEPackage("http://a").getNsURI());
+		assertEquals("http://b", registry.getEPackage("http://b").getNsURI());
+	}
+
+	@Test
+	public void testPutAllAndClearAreAtomic() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		Map<String, Object> packages = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			packages.put("http://p" + i, createEPackage("http://p" + i));
+		}
+
+		AtomicBoolean done = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> readers = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				readers.add(executor.submit(() -> {
+					while (!done.get()) {
+						int size = registry.size();
+						assertTrue(size == 0 || size == packages.size(), "Partial registry of size " + size);
+					}
+				}));
+			}
+			for (int i = 0; i < 1000; i++) {
+				registry.putAll(packages);
+				registry.clear();
+			}
+			done.set(true);
+			for (Future<?> reader : readers) {
+				reader.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertTrue(registry.isEmpty());
+	}
+
+	@Test
+	public void testWarmUp() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		Map<String, AtomicInteger> resolutions = new HashMap<>();
+		for (int i = 0; i < 4 * THREADS; i++) {
+			String nsURI = "http://p" + i;
+			AtomicInteger counter = new AtomicInteger();
+			resolutions.put(nsURI, counter);
+			registry.put(nsURI, createDescriptor(nsURI, counter));
+		}
+		registry.put("http://resolved", createEPackage("http://resolved"));
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CompletableFuture<Void> warmUp = registry.warmUp(executor);
+			// Lookups during the warm-up wait for it instead of resolving again
+			assertEquals("http://p0", registry.getEPackage("http://p0").getNsURI());
+			warmUp.get(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		resolutions.forEach((nsURI, counter) -> {
+			assertEquals(1, counter.get(), nsURI);
+			assertTrue(registry.get(nsURI) instanceof EPackage, nsURI);
+		});
+	}
+
+	@Test
+	public void testWarmUpFailure() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		registry.put("http://a", createDescriptor("http://a", new AtomicInteger()));
+		registry.put("http://b", new EPackage.Descriptor() {
+			@Override
+			public EPackage getEPackage() {
+				throw new IllegalStateException("Broken package");
+			}
+
+			@Override
+			public EFactory getEFactory() {
+				return null;
+			}
+		});
+
+		ExecutionException exception = assertThrows(ExecutionException.class,
+				() -> registry.warmUp(Arrays.asList("http://a", "http://b", "http://missing"), Runnable::run).get());
+		assertTrue(exception.getCause() instanceof IllegalStateException);
+		assertTrue(registry.get("http://a") instanceof EPackage);
+		assertTrue(registry.get("http://b") instanceof EPackage.Descriptor);
+	}
+
+	@Test
+	public void testMetrics() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		JmxEPackageRegistryMetrics metrics = new JmxEPackageRegistryMetrics();
+		registry.setMetrics(metrics);
+		registry.put("http://a", createDescriptor("http://a", new AtomicInteger()));
+		registry.getEPackage("http://a");
+		registry.getEPackage("http://a");
+		registry.getEFactory("http://a");
+		registry.getEPackage("http://missing");
+
+		assertEquals(3L, metrics.getLookupCounts().get("http://a"));
+		assertEquals(1L, metrics.getLookupCounts().get("http://missing"));
+		assertEquals(1L, metrics.getMissCounts().get("http://missing"));
+		assertNull(metrics.getMissCounts().get("http://a"));
+		assertTrue(metrics.getResolutionMicros().get("http://a") > 0);
+
+		ObjectName name = metrics.register(new ObjectName(JmxEPackageRegistryMetrics.DOMAIN,
+				"type", "TestNotifyingEPackageRegistry"));
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertTrue(server.getAttribute(name, "LookupCounts") instanceof TabularData);
+			server.invoke(name, "reset", new Object[0], new String[0]);
+			assertTrue(metrics.getLookupCounts().isEmpty());
+		} finally {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		}
+
+		registry.setMetrics(null);
+		registry.getEPackage("http://a");
+		assertTrue(metrics.getLookupCounts().isEmpty());
+	}
+
+	@Test
+	public void testDeliveryContinuesAfterError() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		List<Integer> depths = new ArrayList<>();
+		AtomicBoolean fail = new AtomicBoolean(true);
+		registry.setMetrics(new EPackageRegistryMetrics() {
+			@Override
+			public void notificationQueueDepthChanged(int depth) {
+				depths.add(depth);
+				// Fails while delivering, like an observer that cannot be loaded
+				if (depth == 0 && fail.getAndSet(false)) {
+					throw new NoClassDefFoundError("Observer");
+				}
+			}
+		});
+
+		assertThrows(NoClassDefFoundError.class, () -> registry.put("http://a", createEPackage("http://a")));
+		registry.put("http://b", createEPackage("http://b"));
+
+		// Each change is queued and delivered on the thread making it
+		assertEquals(Arrays.asList(1, 0, 1, 0), depths);
+	}
+
+	@Test
+	public void testMetricsKeysLimited() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		JmxEPackageRegistryMetrics metrics = new JmxEPackageRegistryMetrics(10);
+		registry.setMetrics(metrics);
+		for (int i = 0; i < 100; i++) {
+			registry.getEPackage("http://missing" + i);
+		}
+		registry.getEPackage("http://missing0");
+
+		assertEquals(11, metrics.getLookupCounts().size());
+		assertEquals(2L, metrics.getLookupCounts().get("http://missing0"));
+		assertEquals(90L, metrics.getMissCounts().get(JmxEPackageRegistryMetrics.OTHER_KEY));
+		assertThrows(IllegalArgumentException.class, () -> new JmxEPackageRegistryMetrics(0));
+	}
+
+	@Test
+	public void testMetricsRegisteredOnce() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName pattern = new ObjectName(JmxEPackageRegistryMetrics.DOMAIN + ":type=EPackageRegistryMetrics,*");
+		System.setProperty(NotifyingEPackageRegistry.METRICS_PROPERTY, "true");
+		try {
+			NotifyingEPackageRegistry first = new NotifyingEPackageRegistry();
+			NotifyingEPackageRegistry second = new NotifyingEPackageRegistry();
+
+			assertEquals(1, server.queryNames(pattern, null).size());
+			assertTrue(first.getMetrics() instanceof JmxEPackageRegistryMetrics);
+			assertSame(EPackageRegistryMetrics.NONE, second.getMetrics());
+			((JmxEPackageRegistryMetrics) first.getMetrics()).unregister();
+			assertTrue(server.queryNames(pattern, null).isEmpty());
+		} finally {
+			System.clearProperty(NotifyingEPackageRegistry.METRICS_PROPERTY);
+		}
+	}
+
+	@Test
+	public void testLookupSampling() throws Exception {
+		NotifyingEPackageRegistry registry = new NotifyingEPackageRegistry();
+		JmxEPackageRegistryMetrics metrics = new JmxEPackageRegistryMetrics();
+		registry.setMetrics(metrics);
+		registry.setLookupSampling(10);
+		registry.put("http://a", createEPackage("http://a"));
+		for (int i = 0; i < 10000; i++) {
+			registry.getEPackage("http://a");
+		}
+
+		long lookups = metrics.getLookupCounts().get("http://a");
+		assertEquals(0, lookups % 10);
+		assertTrue(lookups > 5000 && lookups < 15000, "Estimated lookups: " + lookups);
+		assertThrows(IllegalArgumentException.class, () -> registry.setLookupSampling(0));
+	}
+
+	private static EPackage.Descriptor createDescriptor(String nsURI, AtomicInteger resolutions) {
+		EPackage ePackage = createEPackage(nsURI);
+		return new EPackage.Descriptor() {
+			@Override
+			public EPackage getEPackage() {
+				resolutions.incrementAndGet();
+				try {
+					// Simulate package initialization
+					Thread.sleep(20);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return ePackage;
+			}
+
+			@Override
+			public EFactory getEFactory() {
+				return ePackage.getEFactoryInstance();
+			}
+		};
+	}
+
+	private static EPackage.Descriptor createDependentDescriptor(NotifyingEPackageRegistry registry, String nsURI,
+			String dependency, CountDownLatch bothResolving) {
+		EPackage ePackage = createEPackage(nsURI);
+		return new EPackage.Descriptor() {
+			private volatile boolean inited;
+
+			@Override
+			public EPackage getEPackage() {
+				// Like generated packages, return the package while initializing it
+				if (inited) {
+					return ePackage;
+				}
+				inited = true;
+				bothResolving.countDown();
+				try {
+					bothResolving.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				registry.getEPackage(dependency);
+				return ePackage;
+			}
+
+			@Override
+			public EFactory getEFactory() {
+				return ePackage.getEFactoryInstance();
+			}
+		};
+	}
+
+	private static EPackage createEPackage(String nsURI) {
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setNsURI(nsURI);
+		return ePackage;
+	}
+}
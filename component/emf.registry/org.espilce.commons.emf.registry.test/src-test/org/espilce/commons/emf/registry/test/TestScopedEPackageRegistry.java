@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.registry.test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.eclipse.emf.ecore.EFactory;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
+import org.espilce.commons.emf.registry.NotifyingEPackageRegistry;
+import org.espilce.commons.emf.registry.ScopedEPackageRegistry;
+import org.junit.jupiter.api.Test;
+
+public class TestScopedEPackageRegistry {
+	@Test
+	public void testDelegation() throws Exception {
+		NotifyingEPackageRegistry parent = new NotifyingEPackageRegistry();
+		ScopedEPackageRegistry scope = new ScopedEPackageRegistry(parent);
+		EPackage global = createEPackage("http://a");
+		EPackage local = createEPackage("http://a");
+		parent.put("http://a", global);
+		parent.put("http://b", createEPackage("http://b"));
+
+		assertSame(parent, scope.getParent());
+		assertSame(global, scope.getEPackage("http://a"));
+		assertSame(global.getEFactoryInstance(), scope.getEFactory("http://a"));
+		assertTrue(scope.isEmpty());
+
+		scope.put("http://a", local);
+		assertSame(local, scope.getEPackage("http://a"));
+		assertSame(global, parent.getEPackage("http://a"));
+		assertFalse(scope.containsKey("http://b"));
+		assertSame(parent.getEPackage("http://b"), scope.getEPackage("http://b"));
+		assertNull(scope.getEPackage("http://missing"));
+	}
+
+	@Test
+	public void testParentChangesInvalidateCache() throws Exception {
+		NotifyingEPackageRegistry parent = new NotifyingEPackageRegistry();
+		ScopedEPackageRegistry scope = new ScopedEPackageRegistry(parent);
+		ScopedEPackageRegistry nestedScope = new ScopedEPackageRegistry(scope);
+		EPackage first = createEPackage("http://a");
+		EPackage second = createEPackage("http://a");
+
+		parent.put("http://a", first);
+		assertSame(first, scope.getEPackage("http://a"));
+		assertSame(first, nestedScope.getEPackage("http://a"));
+
+		parent.put("http://a", second);
+		assertSame(second, scope.getEPackage("http://a"));
+		assertSame(second, nestedScope.getEPackage("http://a"));
+
+		parent.remove("http://a");
+		assertNull(scope.getEPackage("http://a"));
+		assertNull(nestedScope.getEPackage("http://a"));
+
+		parent.put("http://a", first);
+		parent.clear();
+		assertNull(nestedScope.getEPackage("http://a"));
+	}
+
+	@Test
+	public void testParentDescriptorChangesInvalidateCache() throws Exception {
+		NotifyingEPackageRegistry parent = new NotifyingEPackageRegistry();
+		ScopedEPackageRegistry scope = new ScopedEPackageRegistry(parent);
+		ScopedEPackageRegistry nestedScope = new ScopedEPackageRegistry(scope);
+		// Packages without nsURI are not registered in place of their descriptor
+		EPackage first = createEPackage(null);
+		EPackage second = createEPackage(null);
+
+		parent.put("http://a", createDescriptor(first));
+		assertSame(first, scope.getEPackage("http://a"));
+		assertSame(first, nestedScope.getEPackage("http://a"));
+		assertTrue(parent.get("http://a") instanceof EPackage.Descriptor);
+
+		parent.put("http://a", createDescriptor(second));
+		assertSame(second, scope.getEPackage("http://a"));
+		assertSame(second, nestedScope.getEPackage("http://a"));
+
+		parent.remove("http://a");
+		assertNull(scope.getEPackage("http://a"));
+		assertNull(nestedScope.getEPackage("http://a"));
+	}
+
+	@Test
+	public void testNonNotifyingParent() throws Exception {
+		EPackage.Registry parent = new EPackageRegistryImpl();
+		ScopedEPackageRegistry scope = new ScopedEPackageRegistry(parent);
+		EPackage ePackage = createEPackage("http://a");
+
+		parent.put("http://a", ePackage);
+		assertSame(ePackage, scope.getEPackage("http://a"));
+		parent.remove("http://a");
+		assertNull(scope.getEPackage("http://a"));
+	}
+
+	private static EPackage.Descriptor createDescriptor(EPackage ePackage) {
+		return new EPackage.Descriptor() {
+			@Override
+			public EPackage getEPackage() {
+				return ePackage;
+			}
+
+			@Override
+			public EFactory getEFactory() {
+				return ePackage.getEFactoryInstance();
+			}
+		};
+	}
+
+	private static EPackage createEPackage(String nsURI) {
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setNsURI(nsURI);
+		return ePackage;
+	}
+}
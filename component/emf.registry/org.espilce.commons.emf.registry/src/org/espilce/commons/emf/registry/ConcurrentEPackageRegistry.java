@@ -0,0 +1,617 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.registry;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.emf.ecore.EFactory;
+import org.eclipse.emf.ecore.EPackage;
+
+/**
+ * EPackage registry with lock-free reads.
+ * 
+ * <p>
+ * The registry contents are kept in a {@link ConcurrentHashMap}.
+ * {@link #put(String, Object)} and {@link #remove(Object)} change it in place,
+ * while {@link #putAll(Map)} and {@link #clear()} replace it by a changed copy,
+ * so readers never block and see either all or none of the entries changed by
+ * one of them. Views like {@link #keySet()} are unmodifiable and weakly
+ * consistent.
+ * </p>
+ * 
+ * <p>
+ * Changes are serialized by a lock. The notifications of each change are
+ * queued while holding it, and passed to {@link #notifyObservers(List)} after
+ * releasing it, one change at a time in the order the changes were applied.
+ * Without notification executor, the thread changing the registry passes them,
+ * along with those of concurrent changes by other threads still queued; if an
+ * observer changes the registry, the observers are notified of that change once
+ * they have been notified of the current one.
+ * </p>
+ * 
+ * <p>
+ * An {@link EPackage.Descriptor} is resolved once: the first lookup resolves
+ * it and replaces it by the resolved EPackage; concurrent lookups of the same
+ * nsURI wait for that, also while resolving another descriptor. Only if
+ * waiting would deadlock, i.e. the package is being resolved by the current
+ * thread or by a thread waiting for it, directly or through other threads,
+ * the lookup asks the descriptor itself, like EMF does. A descriptor can then
+ * be asked by two threads at once, so packages depending on each other may be
+ * initialized twice if resolved in parallel.
+ * </p>
+ */
+abstract class ConcurrentEPackageRegistry extends AbstractMap<String, Object>
+		implements EPackage.Registry, Serializable {
+	private static final long serialVersionUID = 3360862402187262151L;
+
+	/**
+	 * Resolution each thread is waiting for; guarded by itself.
+	 */
+	private static final Map<Thread, Resolution> WAITING = new HashMap<>();
+
+	private final ReentrantLock writeLock = new ReentrantLock();
+	/**
+	 * Current contents; <code>null</code> keys and values are masked, as the map
+	 * does not support them.
+	 */
+	private volatile ConcurrentHashMap<Object, Object> entries = new ConcurrentHashMap<>();
+	private transient NotificationDispatcher dispatcher;
+	private transient ConcurrentMap<String, Resolution> resolutions = new ConcurrentHashMap<>();
+	private transient volatile EPackageRegistryMetrics metrics = EPackageRegistryMetrics.NONE;
+	private transient volatile int lookupSampling = 1;
+	private transient volatile List<WeakReference<ChangeListener>> changeListeners;
+	private final ParentCache parent;
+
+	/**
+	 * @param notificationExecutor
+	 *            Executor to notify observers on; <code>null</code> to notify
+	 *            them on the thread changing the registry.
+	 * @param parent
+	 *            Registry to delegate lookups of unregistered nsURIs to;
+	 *            <code>null</code> for none.
+	 */
+	ConcurrentEPackageRegistry(Executor notificationExecutor, EPackage.Registry parent) {
+		this.dispatcher = createDispatcher(notificationExecutor);
+		this.parent = parent == null ? null : new ParentCache(parent, this);
+	}
+
+	/**
+	 * Notifies observers of a change; called without holding the write lock, one
+	 * change at a time in the order the changes were applied.
+	 */
+	abstract void notifyObservers(List<Notification> notificationChain);
+
+	/**
+	 * Waits until observers have been notified of all earlier changes. Returns
+	 * immediately if called by an observer.
+	 */
+	void flush() throws InterruptedException {
+		dispatcher.flush();
+	}
+
+	EPackageRegistryMetrics getMetrics() {
+		return metrics;
+	}
+
+	void setMetrics(EPackageRegistryMetrics metrics) {
+		this.metrics = metrics == null ? EPackageRegistryMetrics.NONE : metrics;
+	}
+
+	/**
+	 * Reports only about one in <code>interval</code> lookups to the metrics.
+	 */
+	void setLookupSampling(int interval) {
+		if (interval < 1) {
+			throw new IllegalArgumentException("Sampling interval must be positive: " + interval);
+		}
+		this.lookupSampling = interval;
+	}
+
+	@Override
+	public EPackage getEPackage(String nsURI) {
+		final Object value = get(nsURI);
+		final EPackage result;
+		if (value instanceof EPackage) {
+			result = (EPackage) value;
+		} else if (value instanceof EPackage.Descriptor) {
+			result = resolve(nsURI, (EPackage.Descriptor) value);
+		} else {
+			result = parent == null ? null : parent.getEPackage(nsURI);
+		}
+		recordLookup(nsURI, value != null || result != null);
+		return result;
+	}
+
+	@Override
+	public EFactory getEFactory(String nsURI) {
+		final Object value = get(nsURI);
+		final EFactory result;
+		if (value instanceof EPackage) {
+			result = ((EPackage) value).getEFactoryInstance();
+		} else if (value instanceof EPackage.Descriptor) {
+			result = ((EPackage.Descriptor) value).getEFactory();
+		} else {
+			result = parent == null ? null : parent.getParent().getEFactory(nsURI);
+		}
+		recordLookup(nsURI, value != null || result != null);
+		return result;
+	}
+
+	/**
+	 * Resolves the descriptors registered for <code>nsURIs</code> in parallel on
+	 * <code>executor</code>. Entries that are no descriptor are skipped.
+	 * Descriptors of packages that ask for each other during initialization may
+	 * be asked twice, see the class comment.
+	 * 
+	 * @return Completes once all descriptors have been resolved; exceptionally if
+	 *         any resolution failed.
+	 */
+	CompletableFuture<Void> warmUp(Collection<String> nsURIs, Executor executor) {
+		final List<CompletableFuture<?>> warmUps = new ArrayList<>();
+		for (String nsURI : nsURIs) {
+			if (get(nsURI) instanceof EPackage.Descriptor) {
+				warmUps.add(CompletableFuture.runAsync(() -> getEPackage(nsURI), executor));
+			}
+		}
+		return CompletableFuture.allOf(warmUps.toArray(new CompletableFuture<?>[warmUps.size()]));
+	}
+
+	private void recordLookup(String nsURI, boolean found) {
+		final EPackageRegistryMetrics currentMetrics = metrics;
+		if (currentMetrics == EPackageRegistryMetrics.NONE) {
+			return;
+		}
+		final int sampling = lookupSampling;
+		if (sampling == 1 || ThreadLocalRandom.current().nextInt(sampling) == 0) {
+			currentMetrics.lookedUp(nsURI, found, sampling);
+		}
+	}
+
+	private EPackage resolve(String nsURI, EPackage.Descriptor descriptor) {
+		final Thread currentThread = Thread.currentThread();
+		final Resolution[] created = new Resolution[1];
+		final Resolution resolution = resolutions.compute(nsURI, (uri, r) -> r != null && r.descriptor == descriptor ? r
+				: (created[0] = new Resolution(descriptor, currentThread)));
+		if (resolution != created[0]) {
+			if (writeLock.isHeldByCurrentThread() || !startWaiting(resolution)) {
+				// Either initialization of the package asks for the package
+				// itself, or packages initializing each other are resolved by
+				// different threads; waiting would deadlock, so leave it to the
+				// descriptor like EMF does
+				return descriptor.getEPackage();
+			}
+			try {
+				return resolution.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				} else if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw e;
+			} finally {
+				stopWaiting();
+			}
+		}
+
+		try {
+			if (get(nsURI) != descriptor) {
+				// Resolved or replaced since it was looked up
+				final EPackage ePackage = getEPackage(nsURI);
+				resolution.complete(ePackage);
+				return ePackage;
+			}
+			final long start = System.nanoTime();
+			final EPackage ePackage = descriptor.getEPackage();
+			metrics.descriptorResolved(nsURI, System.nanoTime() - start);
+			// Release waiting lookups before observers are notified of the
+			// package
+			resolution.complete(ePackage);
+			// Packages still being initialized have no nsURI yet; generated
+			// packages register themselves once they are complete
+			if (ePackage != null && ePackage.getNsURI() != null) {
+				replaceDescriptor(nsURI, descriptor, ePackage);
+			}
+			return ePackage;
+		} catch (RuntimeException | Error e) {
+			resolution.completeExceptionally(e);
+			throw e;
+		} finally {
+			// Later lookups find the EPackage, or resolve again if it could
+			// not be registered
+			resolutions.remove(nsURI, resolution);
+		}
+	}
+
+	/**
+	 * Registers that the current thread waits for <code>resolution</code>,
+	 * unless the thread resolving it is the current thread, or waits for it
+	 * through a chain of resolutions.
+	 * 
+	 * @return Whether the current thread may wait.
+	 */
+	private static boolean startWaiting(Resolution resolution) {
+		final Thread currentThread = Thread.currentThread();
+		synchronized (WAITING) {
+			for (Resolution r = resolution; r != null && !r.isDone(); r = WAITING.get(r.resolver)) {
+				if (r.resolver == currentThread) {
+					return false;
+				}
+			}
+			WAITING.put(currentThread, resolution);
+			return true;
+		}
+	}
+
+	private static void stopWaiting() {
+		synchronized (WAITING) {
+			WAITING.remove(Thread.currentThread());
+		}
+	}
+
+	private void replaceDescriptor(String nsURI, EPackage.Descriptor descriptor, EPackage ePackage) {
+		writeLock.lock();
+		try {
+			if (entries.replace(mask(nsURI), descriptor, ePackage)) {
+				final List<Notification> notificationChain = new ArrayList<>(1);
+				addNotification(Notification.Type.REGISTERED, nsURI, ePackage, notificationChain);
+				changed(Collections.singletonList(nsURI), notificationChain);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+		dispatch();
+	}
+
+	@Override
+	public Object put(String uri, Object value) {
+		final Object previousValue;
+		writeLock.lock();
+		try {
+			final Object maskedValue = mask(value);
+			final Object previous = entries.put(mask(uri), maskedValue);
+			previousValue = unmask(previous);
+			if (previous != maskedValue) {
+				final List<Notification> notificationChain = new ArrayList<>(2);
+				addNotification(Notification.Type.UNREGISTERED, uri, previousValue, notificationChain);
+				addNotification(Notification.Type.REGISTERED, uri, value, notificationChain);
+				changed(Collections.singletonList(uri), notificationChain);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+		dispatch();
+		return previousValue;
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends Object> map) {
+		writeLock.lock();
+		try {
+			// Copied, so readers see all or none of the entries
+			final ConcurrentHashMap<Object, Object> next = new ConcurrentHashMap<>(entries);
+			final List<String> nsURIs = new ArrayList<>(map.size());
+			final List<Notification> notificationChain = new ArrayList<>(2 * map.size());
+			for (Map.Entry<? extends String, ? extends Object> entry : map.entrySet()) {
+				final Object value = entry.getValue();
+				final Object previousValue = unmask(next.put(mask(entry.getKey()), mask(value)));
+				if (previousValue != value) {
+					nsURIs.add(entry.getKey());
+					addNotification(Notification.Type.UNREGISTERED, entry.getKey(), previousValue, notificationChain);
+					addNotification(Notification.Type.REGISTERED, entry.getKey(), value, notificationChain);
+				}
+			}
+			entries = next;
+			changed(nsURIs, notificationChain);
+		} finally {
+			writeLock.unlock();
+		}
+		dispatch();
+	}
+
+	@Override
+	public Object remove(Object uri) {
+		final Object previousValue;
+		writeLock.lock();
+		try {
+			final Object previous = entries.remove(mask(uri));
+			if (previous == null) {
+				return null;
+			}
+			previousValue = unmask(previous);
+			final List<Notification> notificationChain = new ArrayList<>(1);
+			addNotification(Notification.Type.UNREGISTERED, uri, previousValue, notificationChain);
+			changed(Collections.singletonList((String) uri), notificationChain);
+		} finally {
+			writeLock.unlock();
+		}
+		dispatch();
+		return previousValue;
+	}
+
+	@Override
+	public void clear() {
+		writeLock.lock();
+		try {
+			final Map<Object, Object> previous = entries;
+			if (previous.isEmpty()) {
+				return;
+			}
+			entries = new ConcurrentHashMap<>();
+
+			final List<String> nsURIs = new ArrayList<>(previous.size());
+			final List<Notification> notificationChain = new ArrayList<>(previous.size());
+			for (Map.Entry<Object, Object> entry : previous.entrySet()) {
+				nsURIs.add((String) unmask(entry.getKey()));
+				addNotification(Notification.Type.UNREGISTERED, unmask(entry.getKey()), unmask(entry.getValue()),
+						notificationChain);
+			}
+			changed(nsURIs, notificationChain);
+		} finally {
+			writeLock.unlock();
+		}
+		dispatch();
+	}
+
+	// Lock-free reads of the current entries
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return entries.containsKey(mask(key));
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return entries.containsValue(mask(value));
+	}
+
+	@Override
+	public Object get(Object key) {
+		return unmask(entries.get(mask(key)));
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return Collections.unmodifiableSet(new KeyView());
+	}
+
+	@Override
+	public Collection<Object> values() {
+		return Collections.unmodifiableCollection(new ValueView());
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return Collections.unmodifiableSet(new EntryView());
+	}
+
+	private static Object mask(Object keyOrValue) {
+		return keyOrValue == null ? Masked.NULL : keyOrValue;
+	}
+
+	private static Object unmask(Object keyOrValue) {
+		return keyOrValue == Masked.NULL ? null : keyOrValue;
+	}
+
+	// Notification support
+
+	private static void addNotification(Notification.Type type, Object uri, Object ePackage,
+			List<Notification> notificationChain) {
+		if (type != null && uri instanceof String && ePackage instanceof EPackage) {
+			notificationChain.add(new Notification(type, (String) uri, (EPackage) ePackage));
+		}
+	}
+
+	private NotificationDispatcher createDispatcher(Executor notificationExecutor) {
+		return new NotificationDispatcher(this::notifyObservers,
+				notificationExecutor == null ? NotificationDispatcher.SYNCHRONOUS : notificationExecutor, this::getMetrics);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		// The notification executor is not restored; observers are notified
+		// synchronously then
+		dispatcher = createDispatcher(null);
+		resolutions = new ConcurrentHashMap<>();
+		metrics = EPackageRegistryMetrics.NONE;
+		lookupSampling = 1;
+	}
+
+	// Change listeners, informed of changes before observers
+
+	interface ChangeListener {
+		/**
+		 * @param nsURIs
+		 *            All nsURIs whose value changed, whatever the values are; unlike
+		 *            the notifications of observers, which only report EPackages.
+		 */
+		void changed(List<String> nsURIs);
+	}
+
+	/**
+	 * Adds a listener, which is called while this registry or one of its parents
+	 * is being changed, holding its write lock, and must neither block nor change
+	 * the registry. The listener is only weakly referenced.
+	 */
+	synchronized void addChangeListener(ChangeListener listener) {
+		final List<WeakReference<ChangeListener>> listeners = changeListeners == null ? new ArrayList<>(1)
+				: new ArrayList<>(changeListeners);
+		listeners.removeIf(r -> r.get() == null);
+		listeners.add(new WeakReference<>(listener));
+		changeListeners = Collections.unmodifiableList(listeners);
+	}
+
+	void fireChanged(List<String> nsURIs) {
+		final List<WeakReference<ChangeListener>> listeners = changeListeners;
+		if (listeners == null || nsURIs.isEmpty()) {
+			return;
+		}
+		for (WeakReference<ChangeListener> reference : listeners) {
+			final ChangeListener listener = reference.get();
+			if (listener != null) {
+				listener.changed(nsURIs);
+			}
+		}
+	}
+
+	/**
+	 * Called while holding the write lock, after the change has been applied.
+	 */
+	private void changed(List<String> nsURIs, List<Notification> notificationChain) {
+		fireChanged(nsURIs);
+		dispatcher.enqueue(notificationChain);
+	}
+
+	/**
+	 * Notifies observers of the changes queued; called after releasing the write
+	 * lock.
+	 */
+	private void dispatch() {
+		if (!writeLock.isHeldByCurrentThread()) {
+			dispatcher.dispatch();
+		}
+	}
+
+	// Unmodifiable views of the current entries, unmasking null keys and values
+
+	private enum Masked {
+		NULL
+	}
+
+	private abstract class ViewIterator<T> implements Iterator<T> {
+		private final Iterator<Map.Entry<Object, Object>> iterator = entries.entrySet().iterator();
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public T next() {
+			final Map.Entry<Object, Object> entry = iterator.next();
+			return view((String) unmask(entry.getKey()), unmask(entry.getValue()));
+		}
+
+		abstract T view(String key, Object value);
+	}
+
+	private final class EntryView extends AbstractSet<Entry<String, Object>> {
+		@Override
+		public Iterator<Entry<String, Object>> iterator() {
+			return new ViewIterator<Entry<String, Object>>() {
+				@Override
+				Entry<String, Object> view(String key, Object value) {
+					return new SimpleImmutableEntry<>(key, value);
+				}
+			};
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+			final Object value = entries.get(mask(entry.getKey()));
+			return value != null && Objects.equals(unmask(value), entry.getValue());
+		}
+
+		@Override
+		public int size() {
+			return entries.size();
+		}
+	}
+
+	private final class KeyView extends AbstractSet<String> {
+		@Override
+		public Iterator<String> iterator() {
+			return new ViewIterator<String>() {
+				@Override
+				String view(String key, Object value) {
+					return key;
+				}
+			};
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return containsKey(o);
+		}
+
+		@Override
+		public int size() {
+			return entries.size();
+		}
+	}
+
+	private final class ValueView extends AbstractCollection<Object> {
+		@Override
+		public Iterator<Object> iterator() {
+			return new ViewIterator<Object>() {
+				@Override
+				Object view(String key, Object value) {
+					return value;
+				}
+			};
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return containsValue(o);
+		}
+
+		@Override
+		public int size() {
+			return entries.size();
+		}
+	}
+
+	private static final class Resolution extends CompletableFuture<EPackage> {
+		final EPackage.Descriptor descriptor;
+		final Thread resolver;
+
+		Resolution(EPackage.Descriptor descriptor, Thread resolver) {
+			this.descriptor = descriptor;
+			this.resolver = resolver;
+		}
+	}
+}
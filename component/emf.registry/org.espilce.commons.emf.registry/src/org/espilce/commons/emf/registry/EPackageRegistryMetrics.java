@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.registry;
+
+/**
+ * Receives measurements of a {@link NotifyingEPackageRegistry}.
+ * 
+ * <p>
+ * Methods are called on the threads using the registry, possibly
+ * concurrently, and must be cheap. All methods do nothing by default.
+ * </p>
+ * 
+ * @see NotifyingEPackageRegistry#setMetrics(EPackageRegistryMetrics)
+ * @see JmxEPackageRegistryMetrics
+ * @since 0.2
+ */
+public interface EPackageRegistryMetrics {
+	/**
+	 * Metrics ignoring all measurements.
+	 */
+	EPackageRegistryMetrics NONE = new EPackageRegistryMetrics() {
+	};
+
+	/**
+	 * Called when an EPackage or EFactory is looked up.
+	 * 
+	 * @param nsURI
+	 *            Namespace URI looked up.
+	 * @param found
+	 *            Whether an EPackage or descriptor is registered for
+	 *            <code>nsURI</code>.
+	 * @param weight
+	 *            Number of lookups this call stands for; greater than 1 if
+	 *            lookups are sampled.
+	 * @see NotifyingEPackageRegistry#setLookupSampling(int)
+	 */
+	default void lookedUp(String nsURI, boolean found, int weight) {
+	}
+
+	/**
+	 * Called after an EPackage descriptor has been resolved.
+	 * 
+	 * @param nsURI
+	 *            Namespace URI the descriptor is registered for.
+	 * @param nanos
+	 *            Time taken by the descriptor, in nanoseconds.
+	 */
+	default void descriptorResolved(String nsURI, long nanos) {
+	}
+
+	/**
+	 * Called after an observer has been notified of a registry change.
+	 * 
+	 * @param observerClass
+	 *            Class of the observer.
+	 * @param notifications
+	 *            Number of EPackages the observer has been notified of.
+	 * @param nanos
+	 *            Time taken by the observer, in nanoseconds.
+	 */
+	default void observerNotified(Class<? extends EPackageRegistryObserver> observerClass, int notifications,
+			long nanos) {
+	}
+
+	/**
+	 * Called when the number of changes waiting to be delivered to observers
+	 * changes.
+	 * 
+	 * @param depth
+	 *            Number of changes waiting.
+	 */
+	default void notificationQueueDepthChanged(int depth) {
+	}
+}
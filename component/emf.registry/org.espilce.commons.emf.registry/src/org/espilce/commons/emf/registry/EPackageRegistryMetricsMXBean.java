@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.registry;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link JmxEPackageRegistryMetrics}.
+ * 
+ * <p>
+ * Maps are keyed by namespace URI or observer class name. Namespace URIs
+ * beyond the limit of distinct keys are counted under
+ * {@link JmxEPackageRegistryMetrics#OTHER_KEY}. Times are in microseconds.
+ * </p>
+ * 
+ * @since 0.2
+ */
+public interface EPackageRegistryMetricsMXBean {
+	Map<String, Long> getLookupCounts();
+
+	Map<String, Long> getMissCounts();
+
+	Map<String, Long> getResolutionMicros();
+
+	Map<String, Long> getObserverNotificationCounts();
+
+	Map<String, Long> getObserverMicros();
+
+	Map<String, Long> getObserverMaxMicros();
+
+	int getNotificationQueueDepth();
+
+	int getMaxNotificationQueueDepth();
+
+	/**
+	 * Discards all measurements so far.
+	 */
+	void reset();
+}
@@ -9,10 +9,43 @@
  ******************************************************************************/
 package org.espilce.commons.emf.registry;
 
+import java.util.Map;
+
 import org.eclipse.emf.ecore.EPackage;
 
 public interface EPackageRegistryObserver {
 	void ePackageRegistered(String uri, EPackage ePackage);
 
 	void ePackageUnregistered(String uri, EPackage ePackage);
+
+	/**
+	 * Called once per registry change that registers EPackages, like a
+	 * <code>putAll</code>. By default, calls
+	 * {@link #ePackageRegistered(String, EPackage)} for each entry.
+	 * 
+	 * @param ePackages
+	 *            Registered EPackages by namespace URI, in registration order.
+	 * @since 0.2
+	 */
+	default void ePackagesRegistered(Map<String, EPackage> ePackages) {
+		ePackages.forEach(this::ePackageRegistered);
+	}
+
+	/**
+	 * Called once per registry change that unregisters EPackages, like a
+	 * <code>clear</code>. By default, calls
+	 * {@link #ePackageUnregistered(String, EPackage)} for each entry.
+	 * 
+	 * <p>
+	 * If a change replaces EPackages, the observer is told about the
+	 * unregistered ones before the registered ones.
+	 * </p>
+	 * 
+	 * @param ePackages
+	 *            Unregistered EPackages by namespace URI.
+	 * @since 0.2
+	 */
+	default void ePackagesUnregistered(Map<String, EPackage> ePackages) {
+		ePackages.forEach(this::ePackageUnregistered);
+	}
 }
@@ -31,6 +31,7 @@ public class EspilceCommonsEmfRegistryBundleActivator implements BundleActivator
 	
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		NotifyingEPackageRegistry.unregisterMetrics();
 		bundleContext = null;
 	}
 	
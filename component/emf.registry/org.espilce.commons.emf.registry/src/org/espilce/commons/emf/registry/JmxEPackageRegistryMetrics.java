@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.registry;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics collecting measurements in memory, to be inspected as an MXBean.
+ * 
+ * <p>
+ * Measurements are kept per namespace URI for a limited number of distinct
+ * URIs, so lookups of arbitrary URIs cannot exhaust the memory; further URIs
+ * are counted together under {@link #OTHER_KEY}. The limit may be exceeded
+ * slightly by concurrent measurements.
+ * </p>
+ * 
+ * @see #register(ObjectName)
+ * @since 0.2
+ */
+public final class JmxEPackageRegistryMetrics implements EPackageRegistryMetrics, EPackageRegistryMetricsMXBean {
+	/**
+	 * Domain of the object names used by {@link #register()}.
+	 */
+	public static final String DOMAIN = EspilceCommonsEmfRegistryBundleActivator.SYMBOLIC_NAME;
+
+	/**
+	 * Key of the measurements of namespace URIs beyond the limit.
+	 */
+	public static final String OTHER_KEY = "(other)";
+
+	/**
+	 * Number of distinct namespace URIs measured by
+	 * {@link #JmxEPackageRegistryMetrics()}.
+	 */
+	public static final int DEFAULT_MAX_KEYS = 1000;
+
+	private final int maxKeys;
+	private final ConcurrentMap<String, LongAdder> lookups = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LongAdder> misses = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LongAdder> resolutionNanos = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, ObserverStatistics> observers = new ConcurrentHashMap<>();
+	private final AtomicInteger queueDepth = new AtomicInteger();
+	private final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+	private volatile ObjectName registeredName;
+
+	/**
+	 * Creates metrics measuring up to {@link #DEFAULT_MAX_KEYS} distinct
+	 * namespace URIs.
+	 */
+	public JmxEPackageRegistryMetrics() {
+		this(DEFAULT_MAX_KEYS);
+	}
+
+	/**
+	 * @param maxKeys
+	 *            Number of distinct namespace URIs to measure separately.
+	 * @throws IllegalArgumentException
+	 *             If <code>maxKeys</code> is less than 1.
+	 */
+	public JmxEPackageRegistryMetrics(int maxKeys) {
+		if (maxKeys < 1) {
+			throw new IllegalArgumentException("Maximum number of keys must be positive: " + maxKeys);
+		}
+		this.maxKeys = maxKeys;
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server under a name of
+	 * type <code>EPackageRegistryMetrics</code> in {@link #DOMAIN}.
+	 * 
+	 * @return The name registered.
+	 * @throws JMException
+	 *             If registration fails.
+	 */
+	public ObjectName register() throws JMException {
+		return register(new ObjectName(DOMAIN, "type", "EPackageRegistryMetrics"));
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server.
+	 * 
+	 * @return The name registered.
+	 * @throws JMException
+	 *             If registration fails, e.g. as <code>name</code> is taken.
+	 */
+	public ObjectName register(ObjectName name) throws JMException {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName registered = server.registerMBean(this, name).getObjectName();
+		registeredName = registered;
+		return registered;
+	}
+
+	/**
+	 * Removes these metrics from the platform MBean server, if registered.
+	 * 
+	 * @throws JMException
+	 *             If unregistration fails.
+	 */
+	public void unregister() throws JMException {
+		final ObjectName name = registeredName;
+		if (name != null) {
+			registeredName = null;
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		}
+	}
+
+	@Override
+	public void lookedUp(String nsURI, boolean found, int weight) {
+		counter(lookups, nsURI).add(weight);
+		if (!found) {
+			counter(misses, nsURI).add(weight);
+		}
+	}
+
+	@Override
+	public void descriptorResolved(String nsURI, long nanos) {
+		counter(resolutionNanos, nsURI).add(nanos);
+	}
+
+	@Override
+	public void observerNotified(Class<? extends EPackageRegistryObserver> observerClass, int notifications,
+			long nanos) {
+		final ObserverStatistics statistics = observers.computeIfAbsent(observerClass.getName(),
+				n -> new ObserverStatistics());
+		statistics.notifications.add(notifications);
+		statistics.nanos.add(nanos);
+		statistics.maxNanos.accumulate(nanos);
+	}
+
+	@Override
+	public void notificationQueueDepthChanged(int depth) {
+		queueDepth.set(depth);
+		maxQueueDepth.accumulate(depth);
+	}
+
+	@Override
+	public Map<String, Long> getLookupCounts() {
+		return snapshot(lookups, LongAdder::sum);
+	}
+
+	@Override
+	public Map<String, Long> getMissCounts() {
+		return snapshot(misses, LongAdder::sum);
+	}
+
+	@Override
+	public Map<String, Long> getResolutionMicros() {
+		return snapshot(resolutionNanos, a -> TimeUnit.NANOSECONDS.toMicros(a.sum()));
+	}
+
+	@Override
+	public Map<String, Long> getObserverNotificationCounts() {
+		return snapshot(observers, s -> s.notifications.sum());
+	}
+
+	@Override
+	public Map<String, Long> getObserverMicros() {
+		return snapshot(observers, s -> TimeUnit.NANOSECONDS.toMicros(s.nanos.sum()));
+	}
+
+	@Override
+	public Map<String, Long> getObserverMaxMicros() {
+		return snapshot(observers, s -> TimeUnit.NANOSECONDS.toMicros(s.maxNanos.get()));
+	}
+
+	@Override
+	public int getNotificationQueueDepth() {
+		return queueDepth.get();
+	}
+
+	@Override
+	public int getMaxNotificationQueueDepth() {
+		return (int) maxQueueDepth.get();
+	}
+
+	@Override
+	public void reset() {
+		lookups.clear();
+		misses.clear();
+		resolutionNanos.clear();
+		observers.clear();
+		maxQueueDepth.reset();
+		maxQueueDepth.accumulate(queueDepth.get());
+	}
+
+	private LongAdder counter(ConcurrentMap<String, LongAdder> counters, String nsURI) {
+		final String key = String.valueOf(nsURI);
+		// get first, as computeIfAbsent locks even if the key is present
+		final LongAdder counter = counters.get(key);
+		if (counter != null) {
+			return counter;
+		}
+		return counters.computeIfAbsent(counters.size() < maxKeys ? key : OTHER_KEY, k -> new LongAdder());
+	}
+
+	private static <V> Map<String, Long> snapshot(Map<String, V> values, Function<V, Long> toLong) {
+		final Map<String, Long> result = new TreeMap<>();
+		values.forEach((key, value) -> result.put(key, toLong.apply(value)));
+		return result;
+	}
+
+	private static final class ObserverStatistics {
+		final LongAdder notifications = new LongAdder();
+		final LongAdder nanos = new LongAdder();
+		final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+	}
+}
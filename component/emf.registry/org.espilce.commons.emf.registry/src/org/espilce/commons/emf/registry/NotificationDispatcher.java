@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.registry;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Delivers notification chains in the order of the registry changes, without
+ * holding the registry's write lock.
+ * 
+ * <p>
+ * Each chain holds the notifications of one registry change and is delivered
+ * as one batch. Changes {@link #enqueue(List) enqueue} their chain while
+ * holding the write lock, and {@link #dispatch() dispatch} after releasing it.
+ * Batches are delivered one at a time in the order they were enqueued, so
+ * observers see the changes of each URI in order and are never called
+ * concurrently.
+ * </p>
+ * 
+ * <p>
+ * Batches are delivered on the executor. With {@link #SYNCHRONOUS}, the thread
+ * dispatching first delivers all batches until the queue is empty, including
+ * those of changes made meanwhile by other threads or by observers.
+ * </p>
+ */
+final class NotificationDispatcher {
+	/**
+	 * Executor delivering on the thread dispatching.
+	 */
+	static final Executor SYNCHRONOUS = Runnable::run;
+
+	private final Consumer<List<Notification>> target;
+	private final Executor executor;
+	private final Supplier<EPackageRegistryMetrics> metrics;
+	private final Queue<List<Notification>> queue = new ArrayDeque<>();
+	private boolean draining;
+	private Thread drainingThread;
+
+	NotificationDispatcher(Consumer<List<Notification>> target, Executor executor,
+			Supplier<EPackageRegistryMetrics> metrics) {
+		this.target = target;
+		this.executor = executor;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @return Executor running on virtual threads where available, otherwise on
+	 *         daemon threads.
+	 */
+	static Executor getDefaultExecutor() {
+		return DefaultExecutorHolder.EXECUTOR;
+	}
+
+	/**
+	 * Adds the notifications of a change to the queue; called while holding the
+	 * write lock, so the queue is in the order of the changes.
+	 */
+	void enqueue(List<Notification> notificationChain) {
+		if (notificationChain == null || notificationChain.isEmpty()) {
+			return;
+		}
+		final int depth;
+		synchronized (queue) {
+			queue.add(notificationChain);
+			depth = queue.size();
+		}
+		metrics.get().notificationQueueDepthChanged(depth);
+	}
+
+	/**
+	 * Starts delivering the queued notifications, unless they are being
+	 * delivered already; called after releasing the write lock.
+	 */
+	void dispatch() {
+		synchronized (queue) {
+			if (draining || queue.isEmpty()) {
+				return;
+			}
+			draining = true;
+		}
+		try {
+			executor.execute(this::drain);
+		} catch (RejectedExecutionException e) {
+			// Executor shut down; deliver on this thread rather than never
+			drain();
+		}
+	}
+
+	/**
+	 * Waits until all enqueued notifications have been delivered. Returns
+	 * immediately if called while delivering, i.e. by an observer.
+	 */
+	void flush() throws InterruptedException {
+		synchronized (queue) {
+			if (drainingThread == Thread.currentThread()) {
+				return;
+			}
+			while (draining) {
+				queue.wait();
+			}
+		}
+	}
+
+	private void drain() {
+		final Thread currentThread = Thread.currentThread();
+		synchronized (queue) {
+			drainingThread = currentThread;
+		}
+		Throwable failure = null;
+		boolean drained = false;
+		try {
+			while (!drained) {
+				final List<Notification> notificationChain;
+				final int depth;
+				synchronized (queue) {
+					notificationChain = queue.poll();
+					if (notificationChain == null) {
+						stopDraining();
+						drained = true;
+						continue;
+					}
+					depth = queue.size();
+				}
+				try {
+					metrics.get().notificationQueueDepthChanged(depth);
+					target.accept(notificationChain);
+				} catch (RuntimeException | Error e) {
+					// A failing observer, e.g. one whose class cannot be loaded,
+					// must not stop delivery to the others
+					if (failure == null) {
+						failure = e;
+					} else {
+						failure.addSuppressed(e);
+					}
+				}
+			}
+		} finally {
+			if (!drained) {
+				// Let later dispatches deliver the rest
+				synchronized (queue) {
+					stopDraining();
+				}
+			}
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure != null) {
+			throw (RuntimeException) failure;
+		}
+	}
+
+	/**
+	 * Called holding the queue's monitor.
+	 */
+	private void stopDraining() {
+		draining = false;
+		drainingThread = null;
+		queue.notifyAll();
+	}
+
+	private static final class DefaultExecutorHolder {
+		static final Executor EXECUTOR = createDefaultExecutor();
+
+		private static Executor createDefaultExecutor() {
+			try {
+				return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException e) {
+				// Virtual threads are not available before Java 21
+				return Executors.newCachedThreadPool(runnable -> {
+					final Thread thread = new Thread(runnable, "EPackage registry notifications");
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+		}
+	}
+}
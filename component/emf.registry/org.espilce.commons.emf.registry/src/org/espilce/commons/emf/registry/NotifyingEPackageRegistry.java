@@ -10,34 +10,212 @@
 package org.espilce.commons.emf.registry;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IConfigurationElement;
-import org.eclipse.core.runtime.IExtension;
-import org.eclipse.core.runtime.IExtensionPoint;
-import org.eclipse.core.runtime.IExtensionRegistry;
+import javax.management.JMException;
+
+import org.eclipse.core.runtime.ILog;
 import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.ecore.EFactory;
 import org.eclipse.emf.ecore.EPackage;
-import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
 
 public class NotifyingEPackageRegistry implements EPackage.Registry, Serializable {
 	private static final long serialVersionUID = -8041178609149335697L;
 
+	/**
+	 * System property; if <code>true</code>, registries created by
+	 * {@link #NotifyingEPackageRegistry()}, like the global registry, notify
+	 * observers asynchronously.
+	 * 
+	 * @since 0.2
+	 */
+	public static final String ASYNC_NOTIFICATIONS_PROPERTY = EspilceCommonsEmfRegistryBundleActivator.SYMBOLIC_NAME
+			+ ".asyncNotifications";
+
+	/**
+	 * System property; if <code>true</code>, the first registry created by
+	 * {@link #NotifyingEPackageRegistry()}, which is the global registry when
+	 * running in Eclipse, collects {@link JmxEPackageRegistryMetrics} and
+	 * registers them with the platform MBean server until this bundle is stopped.
+	 * Other registries can be measured by
+	 * {@link #setMetrics(EPackageRegistryMetrics)}.
+	 * 
+	 * @since 0.2
+	 */
+	public static final String METRICS_PROPERTY = EspilceCommonsEmfRegistryBundleActivator.SYMBOLIC_NAME
+			+ ".metrics";
+
+	/**
+	 * System property; sampling interval of lookups for metrics enabled by
+	 * {@link #METRICS_PROPERTY}.
+	 * 
+	 * @see #setLookupSampling(int)
+	 * @since 0.2
+	 */
+	public static final String METRICS_LOOKUP_SAMPLING_PROPERTY = METRICS_PROPERTY + ".lookupSampling";
+
+	private static final AtomicReference<JmxEPackageRegistryMetrics> REGISTERED_METRICS = new AtomicReference<>();
+
 	// Delegating instead of extending to ensures that default java.util.Map
 	// implementations will be invoked instead of optimized HashMap implementation
 	// which alternates the Map contents directly
-	private final EPackage.Registry delegate = new NotifyingEPackageRegistryImpl();
+	private final NotifyingEPackageRegistryImpl delegate;
+
+	/**
+	 * Creates a registry notifying observers on the thread changing it, unless
+	 * {@link #ASYNC_NOTIFICATIONS_PROPERTY} is set.
+	 */
+	public NotifyingEPackageRegistry() {
+		this(Boolean.getBoolean(ASYNC_NOTIFICATIONS_PROPERTY) ? NotificationDispatcher.getDefaultExecutor() : null);
+		if (Boolean.getBoolean(METRICS_PROPERTY) && REGISTERED_METRICS.get() == null) {
+			final JmxEPackageRegistryMetrics metrics = new JmxEPackageRegistryMetrics();
+			if (!REGISTERED_METRICS.compareAndSet(null, metrics)) {
+				return;
+			}
+			try {
+				metrics.register();
+			} catch (JMException e) {
+				final ILog log = EspilceCommonsEmfRegistryBundleActivator.getLog();
+				if (log != null) {
+					log.log(new Status(IStatus.WARNING, EspilceCommonsEmfRegistryBundleActivator.SYMBOLIC_NAME,
+							"Failed to register EPackage registry metrics", e));
+				}
+			}
+			setMetrics(metrics);
+			setLookupSampling(Math.max(1, Integer.getInteger(METRICS_LOOKUP_SAMPLING_PROPERTY, 1)));
+		}
+	}
+
+	/**
+	 * Creates a registry notifying observers on <code>notificationExecutor</code>.
+	 * 
+	 * <p>
+	 * The notifications of each change are delivered as one batch, see
+	 * {@link EPackageRegistryObserver#ePackagesRegistered(Map)}. Batches are
+	 * delivered one at a time, in the order of the changes. Use {@link #flush()}
+	 * to wait for their delivery.
+	 * </p>
+	 * 
+	 * @param notificationExecutor
+	 *            Executor to deliver notifications on; <code>null</code> to notify
+	 *            observers on the thread changing the registry.
+	 * @since 0.2
+	 */
+	public NotifyingEPackageRegistry(Executor notificationExecutor) {
+		this(notificationExecutor, null);
+	}
+
+	NotifyingEPackageRegistry(Executor notificationExecutor, EPackage.Registry parent) {
+		this.delegate = new NotifyingEPackageRegistryImpl(notificationExecutor, parent);
+	}
+
+	/**
+	 * Waits until observers have been notified of all earlier changes, e.g. by
+	 * another thread. Returns immediately if called by an observer.
+	 * 
+	 * @throws InterruptedException
+	 *             If interrupted while waiting.
+	 * @since 0.2
+	 */
+	public void flush() throws InterruptedException {
+		delegate.flush();
+	}
+
+	/**
+	 * Sets the metrics receiving measurements of this registry.
+	 * 
+	 * @param metrics
+	 *            Metrics to use; <code>null</code> or
+	 *            {@link EPackageRegistryMetrics#NONE} to stop measuring.
+	 * @since 0.2
+	 */
+	public void setMetrics(EPackageRegistryMetrics metrics) {
+		delegate.setMetrics(metrics);
+	}
+
+	/**
+	 * @return Metrics receiving measurements of this registry;
+	 *         {@link EPackageRegistryMetrics#NONE} if not measured.
+	 * @since 0.2
+	 */
+	public EPackageRegistryMetrics getMetrics() {
+		return delegate.getMetrics();
+	}
+
+	/**
+	 * Reduces the overhead of measuring lookups, which are by far the most
+	 * frequent operation, by reporting only a random sample of about one in
+	 * <code>interval</code> lookups to the metrics. Each reported lookup stands
+	 * for <code>interval</code> lookups.
+	 * 
+	 * @param interval
+	 *            Sampling interval; 1 to report every lookup.
+	 * @throws IllegalArgumentException
+	 *             If <code>interval</code> is less than 1.
+	 * @since 0.2
+	 */
+	public void setLookupSampling(int interval) {
+		delegate.setLookupSampling(interval);
+	}
+
+	/**
+	 * Resolves the EPackage descriptors registered for <code>nsURIs</code> in
+	 * parallel, e.g. to initialize packages at startup instead of on first use.
+	 * Observers are notified of each resolved EPackage.
+	 * 
+	 * <p>
+	 * Each descriptor is asked once, and lookups of a package being resolved wait
+	 * for it, unless waiting would deadlock: if packages ask for each other
+	 * during initialization and are resolved by different threads, one of them
+	 * asks the descriptor being resolved by the other thread, so that package may
+	 * be initialized twice. Warm up such packages from one thread, or resolve the
+	 * one the others depend on first.
+	 * </p>
+	 * 
+	 * @param nsURIs
+	 *            Namespace URIs to resolve; entries that are not registered or
+	 *            already resolved are skipped.
+	 * @param executor
+	 *            Executor to resolve the descriptors on.
+	 * @return Completes once all descriptors have been resolved; exceptionally if
+	 *         any resolution failed.
+	 * @since 0.2
+	 */
+	public CompletableFuture<Void> warmUp(Collection<String> nsURIs, Executor executor) {
+		return delegate.warmUp(nsURIs, executor);
+	}
+
+	/**
+	 * Resolves all EPackage descriptors registered in parallel.
+	 * 
+	 * @see #warmUp(Collection, Executor)
+	 * @since 0.2
+	 */
+	public CompletableFuture<Void> warmUp(Executor executor) {
+		return delegate.warmUp(delegate.keySet(), executor);
+	}
+
+	/**
+	 * Removes the metrics registered for {@link #METRICS_PROPERTY} from the
+	 * platform MBean server.
+	 */
+	static void unregisterMetrics() throws JMException {
+		final JmxEPackageRegistryMetrics metrics = REGISTERED_METRICS.get();
+		if (metrics != null) {
+			metrics.unregister();
+		}
+	}
+
+	void addChangeListener(ConcurrentEPackageRegistry.ChangeListener listener) {
+		delegate.addChangeListener(listener);
+	}
 	
 	public EPackage getEPackage(String nsURI) {
 		return delegate.getEPackage(nsURI);
@@ -120,156 +298,21 @@ public class NotifyingEPackageRegistry implements EPackage.Registry, Serializabl
 		return true;
 	}
 
-	private static final class NotifyingEPackageRegistryImpl extends EPackageRegistryImpl {
+	private static final class NotifyingEPackageRegistryImpl extends ConcurrentEPackageRegistry {
 		private static final long serialVersionUID = -5377442334573160215L;
 
 		private static final String EXSTENSION_POINT = EspilceCommonsEmfRegistryBundleActivator.SYMBOLIC_NAME
 				+ ".epackage_registry_observer";
 
-		private static final String ELEMENT_OBSERVER = "observer";
-		private static final String ATTR_CLASS = "class";
-		private static final String ATTR_URI = "uri";
-		
-		@Override
-		public Object put(String uri, Object value) {
-			final Object previousValue = super.put(uri, value);
-			if (previousValue != value) {
-				final List<Notification> notificationChain = new ArrayList<>(2);
-				addNotification(Notification.Type.UNREGISTERED, uri, previousValue, notificationChain);
-				addNotification(Notification.Type.REGISTERED, uri, value, notificationChain);
-				notifyObservers(notificationChain);
-			}
-			return previousValue;
-		}
-
-		@Override
-		public void putAll(Map<? extends String, ? extends Object> map) {
-			// Too much effort (also performance) to build a notification chain
-			// as we need to match the previous values with the new values,
-			// so just delegate to put
-			map.entrySet().forEach(e -> put(e.getKey(), e.getValue()));
-		}
-
-		@Override
-		public Object remove(Object uri) {
-			final Object previousValue = super.remove(uri);
-			if (previousValue != null) {
-				final List<Notification> notificationChain = new ArrayList<>(1);
-				addNotification(Notification.Type.UNREGISTERED, uri, previousValue, notificationChain);
-				notifyObservers(notificationChain);
-			}
-			return previousValue;
-		}
-
-		@Override
-		public void clear() {
-			final List<Notification> notificationChain = new ArrayList<>(super.size());
-			for (Map.Entry<String, Object> entry : super.entrySet()) {
-				addNotification(Notification.Type.UNREGISTERED, entry.getKey(), entry.getValue(), notificationChain);
-			}
-			super.clear();
-			notifyObservers(notificationChain);
-		}
-		
-		// Prevent direct alternations to the map. Enforce that alternations are only
-		// done via put/remove methods as listed above
-
-		@Override
-		public Set<String> keySet() {
-			return Collections.unmodifiableSet(super.keySet());
-		}
+		private static final ObserverIndex OBSERVERS = new ObserverIndex(EXSTENSION_POINT);
 
-		@Override
-		public Collection<Object> values() {
-			return Collections.unmodifiableCollection(super.values());
+		NotifyingEPackageRegistryImpl(Executor notificationExecutor, EPackage.Registry parent) {
+			super(notificationExecutor, parent);
 		}
 
 		@Override
-		public Set<Entry<String, Object>> entrySet() {
-			return Collections.unmodifiableSet(super.entrySet());
-		}
-		
-		// Notification support
-
-		private void addNotification(Notification.Type type, Object uri, Object ePackage,
-				List<Notification> notificationChain) {
-			if (type != null && uri instanceof String && ePackage instanceof EPackage) {
-				notificationChain.add(new Notification(type, (String) uri, (EPackage) ePackage));
-			}
-		}
-
-		private void notifyObservers(List<Notification> notificationChain) {
-			if (notificationChain == null || notificationChain.isEmpty()) {
-				// Skip if no notifications need to be send
-				return;
-			}
-			IExtensionRegistry registry = Platform.getExtensionRegistry();
-			IExtensionPoint point = registry.getExtensionPoint(EXSTENSION_POINT);
-			if (point == null) {
-				return;
-			}
-			for (IExtension extension : point.getExtensions()) {
-				for (IConfigurationElement observerElement : extension.getConfigurationElements()) {
-					notifyObserver(observerElement, notificationChain);
-				}
-			}
-		}
-
-		private void notifyObserver(IConfigurationElement observerElement, List<Notification> notificationChain) {
-			if (!observerElement.isValid() || !ELEMENT_OBSERVER.equals(observerElement.getName())) {
-				return;
-			}
-			final String uri = observerElement.getAttribute(ATTR_URI);
-			final Iterator<Notification> notifications;
-			if (uri == null) {
-				// Send all notifications
-				notifications = notificationChain.iterator();
-			} else {
-				// Filter notifications for matching uri
-				notifications = notificationChain.stream().filter(n -> Objects.equals(uri, n.uri)).iterator();
-			}
-			if (!notifications.hasNext()) {
-				// Skip if no (matching) notifications need to be send
-				return;
-			}
-			try {
-				EPackageRegistryObserver observer = EPackageRegistryObserver.class
-						.cast(observerElement.createExecutableExtension(ATTR_CLASS));
-				notifications.forEachRemaining(n -> n.notify(observer));
-			} catch (CoreException e) {
-				EspilceCommonsEmfRegistryBundleActivator.getLog()
-						.log(new Status(IStatus.ERROR, EspilceCommonsEmfRegistryBundleActivator.SYMBOLIC_NAME,
-								String.format("Failed to notify EPackageRegistryObserver of plug-in %s: %s",
-										observerElement.getContributor().getName(), observerElement.getAttribute(ATTR_CLASS)),
-								e));
-			}
-		}
-	}
-
-	private static final class Notification {
-		enum Type {
-			REGISTERED, UNREGISTERED
-		};
-
-		private final Type type;
-		private final String uri;
-		private final EPackage ePackage;
-
-		Notification(Type type, String uri, EPackage ePackage) {
-			this.type = type;
-			this.uri = uri;
-			this.ePackage = ePackage;
-		}
-
-		void notify(EPackageRegistryObserver observer) {
-			switch (type) {
-			case REGISTERED:
-				observer.ePackageRegistered(uri, ePackage);
-				break;
-			case UNREGISTERED:
-				observer.ePackageUnregistered(uri, ePackage);
-				break;
-			}
+		void notifyObservers(List<Notification> notificationChain) {
+			OBSERVERS.notifyObservers(notificationChain, getMetrics());
 		}
 	}
 }
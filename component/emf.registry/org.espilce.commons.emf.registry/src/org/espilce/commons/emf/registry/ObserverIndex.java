@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.ILog;
+import org.eclipse.core.runtime.IRegistryEventListener;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.ecore.EPackage;
+
+/**
+ * Observers contributed to an extension point, indexed by the namespace URI
+ * they filter on.
+ * 
+ * <p>
+ * The index is built from the extension registry on first use. Observers are
+ * created on their first matching notification and reused afterwards. The
+ * index is dropped whenever observers are contributed or removed, e.g. by
+ * installing or uninstalling a bundle, and rebuilt on the next notification;
+ * observers that are still contributed keep their instance.
+ * </p>
+ */
+final class ObserverIndex implements IRegistryEventListener {
+	private static final String ELEMENT_OBSERVER = "observer";
+	private static final String ATTR_CLASS = "class";
+	private static final String ATTR_URI = "uri";
+
+	private static final Comparator<Observer> CONTRIBUTION_ORDER = Comparator.comparingInt(o -> o.ordinal);
+
+	private final String extensionPointId;
+	private IExtensionRegistry listeningTo;
+	private final AtomicInteger generation = new AtomicInteger();
+	private volatile Index index;
+	private Index previousIndex;
+
+	ObserverIndex(String extensionPointId) {
+		this.extensionPointId = extensionPointId;
+	}
+
+	/**
+	 * Sends the notifications to all observers whose URI filter matches, in
+	 * contribution order. Each observer receives its matching notifications as
+	 * one batch of unregistrations and one batch of registrations.
+	 */
+	void notifyObservers(List<Notification> notificationChain, EPackageRegistryMetrics metrics) {
+		if (notificationChain == null || notificationChain.isEmpty()) {
+			// Skip if no notifications need to be send
+			return;
+		}
+		final Index current = getIndex();
+		if (current.isEmpty()) {
+			return;
+		}
+		for (Observer observer : current.getCandidates(notificationChain)) {
+			observer.notify(notificationChain, metrics);
+		}
+	}
+
+	private Index getIndex() {
+		final IExtensionRegistry registry = Platform.getExtensionRegistry();
+		final Index current = index;
+		if (current != null && current.registry == registry) {
+			return current;
+		}
+		synchronized (this) {
+			if (listeningTo != registry) {
+				if (listeningTo != null) {
+					listeningTo.removeListener(this);
+				}
+				if (registry != null) {
+					registry.addListener(this, extensionPointId);
+				}
+				listeningTo = registry;
+			}
+			// Registry events are not synchronized with this lock; an index built
+			// while observers change is used once, but not kept
+			final int buildGeneration = generation.get();
+			final Index built = new Index(registry, registry == null ? null : registry.getExtensionPoint(extensionPointId),
+					previousIndex);
+			if (buildGeneration == generation.get()) {
+				index = built;
+			}
+			previousIndex = built;
+			return built;
+		}
+	}
+
+	private void invalidate() {
+		generation.incrementAndGet();
+		index = null;
+	}
+
+	@Override
+	public void added(IExtension[] extensions) {
+		invalidate();
+	}
+
+	@Override
+	public void removed(IExtension[] extensions) {
+		invalidate();
+	}
+
+	@Override
+	public void added(IExtensionPoint[] extensionPoints) {
+		invalidate();
+	}
+
+	@Override
+	public void removed(IExtensionPoint[] extensionPoints) {
+		invalidate();
+	}
+
+	private static final class Index {
+		final IExtensionRegistry registry;
+		private final List<Observer> all = new ArrayList<>();
+		private final List<Observer> wildcard = new ArrayList<>();
+		private final Map<String, List<Observer>> byUri = new HashMap<>();
+
+		Index(IExtensionRegistry registry, IExtensionPoint point, Index previous) {
+			this.registry = registry;
+			if (point == null) {
+				return;
+			}
+			final Map<IConfigurationElement, Observer> previousObservers = new HashMap<>();
+			if (previous != null && previous.registry == registry) {
+				previous.all.forEach(o -> previousObservers.put(o.element, o));
+			}
+			int ordinal = 0;
+			for (IExtension extension : point.getExtensions()) {
+				for (IConfigurationElement observerElement : extension.getConfigurationElements()) {
+					if (!observerElement.isValid() || !ELEMENT_OBSERVER.equals(observerElement.getName())) {
+						continue;
+					}
+					final Observer observer = new Observer(ordinal++, observerElement,
+							previousObservers.get(observerElement));
+					all.add(observer);
+					if (observer.uri == null) {
+						wildcard.add(observer);
+					} else {
+						byUri.computeIfAbsent(observer.uri, u -> new ArrayList<>(1)).add(observer);
+					}
+				}
+			}
+		}
+
+		boolean isEmpty() {
+			return wildcard.isEmpty() && byUri.isEmpty();
+		}
+
+		List<Observer> getCandidates(List<Notification> notificationChain) {
+			if (byUri.isEmpty()) {
+				return wildcard;
+			}
+			final List<Observer> candidates = new ArrayList<>(wildcard);
+			final Set<String> uris = new HashSet<>();
+			for (Notification notification : notificationChain) {
+				if (uris.add(notification.uri)) {
+					candidates.addAll(byUri.getOrDefault(notification.uri, Collections.emptyList()));
+				}
+			}
+			if (candidates.size() > 1 && candidates.size() > wildcard.size()) {
+				candidates.sort(CONTRIBUTION_ORDER);
+			}
+			return candidates;
+		}
+	}
+
+	private static final class Observer {
+		final int ordinal;
+		final String uri;
+		private final IConfigurationElement element;
+		private EPackageRegistryObserver instance;
+		private boolean failed;
+
+		Observer(int ordinal, IConfigurationElement element, Observer previous) {
+			this.ordinal = ordinal;
+			this.element = element;
+			this.uri = element.getAttribute(ATTR_URI);
+			if (previous != null) {
+				synchronized (previous) {
+					this.instance = previous.instance;
+				}
+			}
+		}
+
+		void notify(List<Notification> notificationChain, EPackageRegistryMetrics metrics) {
+			// Unregistrations go first, as a chain may unregister and register the
+			// same uri, but never the other way around
+			Map<String, EPackage> unregistered = null;
+			Map<String, EPackage> registered = null;
+			for (Notification notification : notificationChain) {
+				if (uri != null && !uri.equals(notification.uri)) {
+					continue;
+				}
+				switch (notification.type) {
+				case REGISTERED:
+					if (registered == null) {
+						registered = new LinkedHashMap<>();
+					}
+					registered.put(notification.uri, notification.ePackage);
+					break;
+				case UNREGISTERED:
+					if (unregistered == null) {
+						unregistered = new LinkedHashMap<>();
+					}
+					unregistered.put(notification.uri, notification.ePackage);
+					break;
+				}
+			}
+			if (unregistered == null && registered == null) {
+				// Skip if no (matching) notifications need to be send
+				return;
+			}
+			final EPackageRegistryObserver observer = getInstance();
+			if (observer == null) {
+				return;
+			}
+			final long start = metrics == EPackageRegistryMetrics.NONE ? 0 : System.nanoTime();
+			if (unregistered != null) {
+				observer.ePackagesUnregistered(Collections.unmodifiableMap(unregistered));
+			}
+			if (registered != null) {
+				observer.ePackagesRegistered(Collections.unmodifiableMap(registered));
+			}
+			if (metrics != EPackageRegistryMetrics.NONE) {
+				metrics.observerNotified(observer.getClass(),
+						(unregistered == null ? 0 : unregistered.size()) + (registered == null ? 0 : registered.size()),
+						System.nanoTime() - start);
+			}
+		}
+
+		private synchronized EPackageRegistryObserver getInstance() {
+			if (instance == null && !failed) {
+				try {
+					instance = EPackageRegistryObserver.class.cast(element.createExecutableExtension(ATTR_CLASS));
+				} catch (CoreException e) {
+					// Do not retry until the observer is contributed again
+					failed = true;
+					final ILog log = EspilceCommonsEmfRegistryBundleActivator.getLog();
+					if (log != null) {
+						log.log(new Status(IStatus.ERROR, EspilceCommonsEmfRegistryBundleActivator.SYMBOLIC_NAME,
+								String.format("Failed to notify EPackageRegistryObserver of plug-in %s: %s",
+										element.getContributor().getName(), element.getAttribute(ATTR_CLASS)),
+								e));
+					}
+				}
+			}
+			return instance;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.registry;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.emf.ecore.EPackage;
+
+/**
+ * Small lock-free cache of the EPackages a scoped registry found in its parent.
+ * 
+ * <p>
+ * The cache is direct-mapped: each nsURI has one slot, and a new entry
+ * replaces whatever the slot held. Each slot has a version that is increased
+ * whenever the parent changes an nsURI of the slot; entries read before that
+ * change are ignored. The cache is only used if the parent reports its
+ * changes, i.e. is a {@link NotifyingEPackageRegistry}, and is not restored on
+ * deserialization.
+ * </p>
+ */
+final class ParentCache implements ConcurrentEPackageRegistry.ChangeListener, Serializable {
+	private static final long serialVersionUID = -2370941717066591016L;
+
+	private static final int SIZE = 64;
+
+	private final EPackage.Registry parent;
+	private final ConcurrentEPackageRegistry owner;
+	private transient AtomicReferenceArray<Entry> entries;
+	private transient AtomicLongArray versions;
+
+	ParentCache(EPackage.Registry parent, ConcurrentEPackageRegistry owner) {
+		this.parent = parent;
+		this.owner = owner;
+		if (parent instanceof NotifyingEPackageRegistry) {
+			entries = new AtomicReferenceArray<>(SIZE);
+			versions = new AtomicLongArray(SIZE);
+			((NotifyingEPackageRegistry) parent).addChangeListener(this);
+		}
+	}
+
+	EPackage.Registry getParent() {
+		return parent;
+	}
+
+	EPackage getEPackage(String nsURI) {
+		if (entries == null || nsURI == null) {
+			return parent.getEPackage(nsURI);
+		}
+		final int slot = slot(nsURI);
+		final long version = versions.get(slot);
+		final Entry entry = entries.get(slot);
+		if (entry != null && entry.version == version && entry.nsURI.equals(nsURI)) {
+			return entry.ePackage;
+		}
+		final EPackage ePackage = parent.getEPackage(nsURI);
+		if (ePackage != null) {
+			// If the parent changed meanwhile, the entry is outdated right away
+			entries.set(slot, new Entry(nsURI, ePackage, version));
+		}
+		return ePackage;
+	}
+
+	@Override
+	public void changed(List<String> nsURIs) {
+		for (String nsURI : nsURIs) {
+			// Lookups of null are not cached
+			if (nsURI != null) {
+				versions.incrementAndGet(slot(nsURI));
+			}
+		}
+		// Registries scoped by the owner may have cached the same EPackages
+		owner.fireChanged(nsURIs);
+	}
+
+	private static int slot(String nsURI) {
+		final int hash = nsURI.hashCode();
+		return (hash ^ (hash >>> 16)) & (SIZE - 1);
+	}
+
+	private static final class Entry {
+		final String nsURI;
+		final EPackage ePackage;
+		final long version;
+
+		Entry(String nsURI, EPackage ePackage, long version) {
+			this.nsURI = nsURI;
+			this.ePackage = ePackage;
+			this.version = version;
+		}
+	}
+}
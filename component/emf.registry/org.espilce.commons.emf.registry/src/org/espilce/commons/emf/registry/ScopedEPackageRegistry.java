@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ * 
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.registry;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+import org.eclipse.emf.ecore.EPackage;
+
+/**
+ * EPackage registry for one scope, like a ResourceSet or a tenant, delegating
+ * lookups of EPackages it does not hold to a parent registry.
+ * 
+ * <p>
+ * EPackages registered in the scope shadow those of the parent, and are not
+ * visible to the parent or other scopes. As with EMF's delegating registries,
+ * <code>getEPackage</code> and <code>getEFactory</code> consult the parent,
+ * while the map methods only see the EPackages registered in the scope.
+ * </p>
+ * 
+ * <p>
+ * EPackages found in the parent are kept in a small lock-free cache per scope.
+ * If the parent is a {@link NotifyingEPackageRegistry}, including another
+ * scope, its changes invalidate the cached EPackages of the changed nsURIs.
+ * Otherwise, every lookup the scope cannot answer goes to the parent.
+ * </p>
+ * 
+ * @since 0.2
+ */
+public class ScopedEPackageRegistry extends NotifyingEPackageRegistry {
+	private static final long serialVersionUID = 6052417264599711427L;
+
+	private final EPackage.Registry parent;
+
+	/**
+	 * Creates a scope of the global registry, notifying observers on the thread
+	 * changing it.
+	 */
+	public ScopedEPackageRegistry() {
+		this(EPackage.Registry.INSTANCE);
+	}
+
+	/**
+	 * Creates a scope of <code>parent</code>, notifying observers on the thread
+	 * changing it.
+	 */
+	public ScopedEPackageRegistry(EPackage.Registry parent) {
+		this(parent, null);
+	}
+
+	/**
+	 * @param parent
+	 *            Registry to delegate lookups to.
+	 * @param notificationExecutor
+	 *            Executor to deliver notifications on; <code>null</code> to notify
+	 *            observers on the thread changing the registry.
+	 * @see NotifyingEPackageRegistry#NotifyingEPackageRegistry(Executor)
+	 */
+	public ScopedEPackageRegistry(EPackage.Registry parent, Executor notificationExecutor) {
+		super(notificationExecutor, Objects.requireNonNull(parent, "parent"));
+		this.parent = parent;
+	}
+
+	/**
+	 * @return Registry this scope delegates lookups to.
+	 */
+	public EPackage.Registry getParent() {
+		return parent;
+	}
+}
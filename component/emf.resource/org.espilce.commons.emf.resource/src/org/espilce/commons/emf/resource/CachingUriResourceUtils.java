@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.resource;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.emf.CachingUriUtils;
+import org.espilce.commons.exception.UnconvertibleException;
+import org.espilce.commons.lang.ConversionCache;
+
+/**
+ * Memoizing facade over {@link UriResourceUtils}.
+ *
+ * <p>
+ * Conversions from or to {@linkplain org.eclipse.core.resources.IResource
+ * Eclipse IResources}, and from {@linkplain org.eclipse.core.runtime.IPath
+ * Eclipse IPaths} to EMF URIs, depend on the workspace state and are therefore
+ * not offered here; use {@link UriResourceUtils} directly.
+ * </p>
+ *
+ * @see org.espilce.commons.lang.CachingConversionUtils
+ * @since 0.4
+ */
+public class CachingUriResourceUtils extends CachingUriUtils {
+	private final ConversionCache<URI, IPath> emfUriToIPath = createCache();
+	
+	/**
+	 * Creates a facade with caches of {@link #DEFAULT_MAXIMUM_SIZE}.
+	 */
+	public CachingUriResourceUtils() {
+		super();
+	}
+	
+	/**
+	 * Creates a facade with caches of <code>maximumSize</code>.
+	 *
+	 * @param maximumSize
+	 *            Maximum number of cached results per conversion; must be
+	 *            positive.
+	 * @throws IllegalArgumentException
+	 *             If <code>maximumSize</code> is not positive.
+	 */
+	public CachingUriResourceUtils(final int maximumSize) {
+		super(maximumSize);
+	}
+	
+	/**
+	 * @see UriResourceUtils#toIPath(URI)
+	 */
+	public @Nullable IPath toIPath(final @Nullable URI emfUri) {
+		if (emfUri == null) {
+			return null;
+		}
+		return this.emfUriToIPath.get(emfUri, UriResourceUtils::toIPath);
+	}
+	
+	/**
+	 * @see UriResourceUtils#asIPath(URI)
+	 */
+	public @NonNull IPath asIPath(final @NonNull URI emfUri) throws UnconvertibleException {
+		final IPath result = toIPath(emfUri);
+		if (result != null) {
+			return result;
+		}
+		return UriResourceUtils.asIPath(emfUri);
+	}
+}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.testsupport.test.emfdiff;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.espilce.commons.emf.testsupport.AssertEmf;
+import org.espilce.commons.emf.testsupport.EmfDiff;
+import org.espilce.commons.emf.testsupport.EmfDifference;
+import org.espilce.commons.emf.testsupport.EmfDifference.Kind;
+import org.junit.jupiter.api.Test;
+
+public class TestEmfDiff {
+	private static final EClass NODE;
+	private static final EClass OTHER_NODE;
+	private static final EAttribute NAME;
+	private static final EAttribute ID;
+	private static final EReference CHILDREN;
+	
+	static {
+		final EcoreFactory factory = EcoreFactory.eINSTANCE;
+		final EPackage ePackage = factory.createEPackage();
+		ePackage.setName("diff");
+		ePackage.setNsURI("http://espilce.org/test/diff");
+		
+		NODE = factory.createEClass();
+		NODE.setName("Node");
+		NAME = factory.createEAttribute();
+		NAME.setName("name");
+		NAME.setEType(EcorePackage.Literals.ESTRING);
+		ID = factory.createEAttribute();
+		ID.setName("id");
+		ID.setEType(EcorePackage.Literals.ESTRING);
+		ID.setID(true);
+		CHILDREN = factory.createEReference();
+		CHILDREN.setName("children");
+		CHILDREN.setEType(NODE);
+		CHILDREN.setContainment(true);
+		CHILDREN.setUpperBound(-1);
+		NODE.getEStructuralFeatures().addAll(Arrays.asList(NAME, ID, CHILDREN));
+		
+		OTHER_NODE = factory.createEClass();
+		OTHER_NODE.setName("OtherNode");
+		OTHER_NODE.getESuperTypes().add(NODE);
+		
+		ePackage.getEClassifiers().addAll(Arrays.asList(NODE, OTHER_NODE));
+	}
+	
+	@Test
+	public void equal() throws Exception {
+		assertTrue(EmfDiff.compute(tree(), tree()).isEmpty());
+	}
+	
+	@Test
+	public void changedAttribute() throws Exception {
+		final EObject expected = tree();
+		final EObject actual = tree();
+		final EObject changed = children(actual).get(1);
+		changed.eSet(NAME, "changed");
+		
+		final List<EmfDifference> differences = EmfDiff.compute(expected, actual);
+		
+		assertEquals(1, differences.size());
+		final EmfDifference difference = differences.get(0);
+		assertEquals(Kind.CHANGED, difference.getKind());
+		assertSame(children(expected).get(1), difference.getExpected());
+		assertSame(changed, difference.getActual());
+		assertTrue(difference.getActualRendering().contains("name=\"changed\""));
+		assertTrue(difference.getActualRendering().contains("children: ..."));
+		assertFalse(difference.getActualRendering().contains("c1.0"));
+	}
+	
+	@Test
+	public void addedByPosition() throws Exception {
+		final EObject expected = tree();
+		final EObject actual = tree();
+		children(actual).add(node("c3"));
+		
+		final List<EmfDifference> differences = EmfDiff.compute(expected, actual);
+		
+		assertEquals(1, differences.size());
+		assertEquals(Kind.ADDED, differences.get(0).getKind());
+		assertNull(differences.get(0).getExpected());
+		assertEquals("", differences.get(0).getExpectedRendering());
+		assertTrue(differences.get(0).getActualRendering().contains("name=\"c3\""));
+	}
+	
+	@Test
+	public void removedByPosition() throws Exception {
+		final EObject expected = tree();
+		final EObject actual = tree();
+		children(actual).remove(2);
+		
+		final List<EmfDifference> differences = EmfDiff.compute(expected, actual);
+		
+		assertEquals(1, differences.size());
+		assertEquals(Kind.REMOVED, differences.get(0).getKind());
+		assertSame(children(expected).get(2), differences.get(0).getExpected());
+	}
+	
+	@Test
+	public void alignedById() throws Exception {
+		final EObject expected = idTree();
+		final EObject actual = idTree();
+		children(actual).add(0, idNode("new"));
+		
+		final List<EmfDifference> differences = EmfDiff.compute(expected, actual);
+		
+		assertEquals(1, differences.size());
+		assertEquals(Kind.ADDED, differences.get(0).getKind());
+		assertEquals("new", differences.get(0).getActual().eGet(ID));
+	}
+	
+	@Test
+	public void movedById() throws Exception {
+		final EObject expected = idTree();
+		final EObject actual = idTree();
+		((EList<EObject>) children(actual)).move(0, 2);
+		
+		final List<EmfDifference> differences = EmfDiff.compute(expected, actual);
+		
+		assertEquals(1, differences.size());
+		assertEquals(Kind.MOVED, differences.get(0).getKind());
+		assertEquals("i2", differences.get(0).getExpected().eGet(ID));
+	}
+	
+	@Test
+	public void movedFrontToEnd() throws Exception {
+		final EObject expected = idTree();
+		final EObject actual = idTree();
+		((EList<EObject>) children(actual)).move(2, 0);
+		
+		final List<EmfDifference> differences = EmfDiff.compute(expected, actual);
+		
+		assertEquals(1, differences.size());
+		assertEquals(Kind.MOVED, differences.get(0).getKind());
+		assertEquals("i0", differences.get(0).getExpected().eGet(ID));
+	}
+	
+	@Test
+	public void replaced() throws Exception {
+		final EObject expected = tree();
+		final EObject actual = tree();
+		final EObject other = EcoreUtil.create(OTHER_NODE);
+		other.eSet(NAME, "c0");
+		children(actual).set(0, other);
+		
+		final List<EmfDifference> differences = EmfDiff.compute(expected, actual);
+		
+		assertEquals(1, differences.size());
+		assertEquals(Kind.REPLACED, differences.get(0).getKind());
+	}
+	
+	@Test
+	public void deepChangeOnly() throws Exception {
+		final EObject expected = tree();
+		final EObject actual = tree();
+		children(children(actual).get(2)).get(1).eSet(NAME, "deep");
+		
+		final List<EmfDifference> differences = EmfDiff.compute(expected, actual);
+		
+		assertEquals(1, differences.size());
+		assertEquals(Kind.CHANGED, differences.get(0).getKind());
+		assertEquals("deep", differences.get(0).getActual().eGet(NAME));
+	}
+	
+	@Test
+	public void assertModelEqualsReportsDifferencesOnly() throws Exception {
+		final EObject expected = tree();
+		final EObject actual = tree();
+		children(children(actual).get(2)).get(1).eSet(NAME, "deep");
+		
+		final AssertionError error = assertThrows(
+				AssertionError.class,
+				() -> AssertEmf.assertModelEquals(expected, actual)
+		);
+		
+		assertTrue(error.getMessage().contains("deep"));
+		assertFalse(error.getMessage().contains("c0.0"));
+	}
+	
+	private static EObject tree() {
+		final EObject root = node("root");
+		for (int i = 0; i < 3; i++) {
+			final EObject child = node("c" + i);
+			for (int j = 0; j < 2; j++) {
+				children(child).add(node("c" + i + "." + j));
+			}
+			children(root).add(child);
+		}
+		return root;
+	}
+	
+	private static EObject idTree() {
+		final EObject root = node("root");
+		for (int i = 0; i < 3; i++) {
+			children(root).add(idNode("i" + i));
+		}
+		return root;
+	}
+	
+	private static EObject node(final String name) {
+		final EObject result = EcoreUtil.create(NODE);
+		result.eSet(NAME, name);
+		return result;
+	}
+	
+	private static EObject idNode(final String id) {
+		final EObject result = EcoreUtil.create(NODE);
+		result.eSet(ID, id);
+		return result;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static List<EObject> children(final EObject eObject) {
+		return (List<EObject>) eObject.eGet(CHILDREN);
+	}
+}
@@ -13,6 +13,7 @@ import static org.espilce.commons.assertion.Assertion.assertEquals;
 import static org.espilce.commons.assertion.Assertion.assertTrue;
 import static org.espilce.commons.assertion.Assertion.fail;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.emf.ecore.EObject;
@@ -29,6 +30,8 @@ import org.espilce.commons.emf.textrenderer.EmfStringRenderer;
  * @since 0.2
  */
 public class AssertEmf {
+	private static final int MAX_REPORTED_DIFFERENCES = 20;
+	
 	/**
 	 * Asserts that two EMF Resources are equal. That is, they have
 	 * {@linkplain EcoreUtil#equals(List, List) equal}
@@ -64,10 +67,7 @@ public class AssertEmf {
 	) {
 		final boolean equals = EcoreUtil.equals(expected, actual);
 		if (!equals) {
-			assertEquals(
-					"EObjects do not match.", new EmfStringRenderer(expected).render(),
-					new EmfStringRenderer(actual).render()
-			);
+			assertRenderingEquals(expected, actual);
 			assertTrue(equals, "EObjects do not match. expected: " + expected + ", actual: " + actual);
 		}
 	}
@@ -92,12 +92,43 @@ public class AssertEmf {
 			} else if (expected != null && actual == null) {
 				fail("actual is null, but expected: " + new EmfStringRenderer(expected).render());
 			} else if (expected != null && actual != null) {
-				assertEquals(
-						"EObjects do not match.", new EmfStringRenderer(expected).render(),
-						new EmfStringRenderer(actual).render()
-				);
+				assertRenderingEquals(Collections.singletonList(expected), Collections.singletonList(actual));
 				assertTrue(equals, "EObjects do not match. expected: " + expected + ", actual: " + actual);
 			}
 		}
 	}
+	
+	/**
+	 * Compares the renderings by {@link EmfDiff}, and only renders the
+	 * differences, up to {@value #MAX_REPORTED_DIFFERENCES} of them.
+	 */
+	private static void assertRenderingEquals(
+			final @NonNull List<@NonNull EObject> expected,
+			final @NonNull List<@NonNull EObject> actual
+	) {
+		final List<@NonNull EmfDifference> differences = EmfDiff.compute(expected, actual);
+		if (differences.isEmpty()) {
+			return;
+		}
+		
+		final StringBuilder expectedReport = new StringBuilder();
+		final StringBuilder actualReport = new StringBuilder();
+		final int reported = Math.min(differences.size(), MAX_REPORTED_DIFFERENCES);
+		for (int i = 0; i < reported; i++) {
+			final EmfDifference difference = differences.get(i);
+			final String header = difference + ":\n";
+			expectedReport.append(header).append(difference.getExpectedRendering()).append("\n\n");
+			actualReport.append(header).append(difference.getActualRendering()).append("\n\n");
+		}
+		if (differences.size() > reported) {
+			final String omitted = "(" + (differences.size() - reported) + " more differences)\n";
+			expectedReport.append(omitted);
+			actualReport.append(omitted);
+		}
+		
+		assertEquals(
+				expectedReport.toString(), actualReport.toString(),
+				"EObjects do not match in " + differences.size() + " places."
+		);
+	}
 }
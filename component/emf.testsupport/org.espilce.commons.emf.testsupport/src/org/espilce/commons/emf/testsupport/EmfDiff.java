@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.testsupport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.jdt.annotation.NonNull;
+import org.espilce.commons.emf.textrenderer.EmfFingerprint;
+import org.espilce.commons.emf.textrenderer.EmfFingerprintRenderer;
+import org.espilce.commons.emf.textrenderer.EmfStringRenderer;
+
+/**
+ * Computes the differences between two EMF models, subtree by subtree.
+ *
+ * <p>
+ * Aligns the contents of each containment reference: EObjects with an
+ * {@linkplain EcoreUtil#getID(EObject) ID} are matched by ID, all others by
+ * position among the EObjects without ID. Aligned subtrees with equal
+ * {@linkplain EmfFingerprintRenderer fingerprints} are skipped. Thus, the
+ * runtime is linear to the size of both models, except for ordering the
+ * contents of each containment reference in <code>O(n log n)</code>.
+ * </p>
+ *
+ * <p>
+ * Of the aligned EObjects, the longest subsequence that keeps its order is
+ * considered in place; only the remaining EObjects are reported as moved.
+ * </p>
+ *
+ * <p>
+ * Each difference is reported at the outermost EObject it concerns: An EObject
+ * that exists on one side only is reported as a whole, not its contents. An
+ * aligned EObject whose own {@linkplain EmfStringRenderer rendering} differs is
+ * reported without its contents, which are compared on their own.
+ * </p>
+ *
+ * @since 0.7
+ */
+public final class EmfDiff {
+	private final EmfFingerprintRenderer expectedFingerprints;
+	private final EmfFingerprintRenderer actualFingerprints;
+	private final List<@NonNull EmfDifference> differences = new ArrayList<>();
+	
+	private EmfDiff(
+			final @NonNull List<@NonNull EObject> expected,
+			final @NonNull List<@NonNull EObject> actual
+	) {
+		this.expectedFingerprints = new EmfFingerprintRenderer(expected);
+		this.actualFingerprints = new EmfFingerprintRenderer(actual);
+	}
+	
+	/**
+	 * Computes the differences between two EObject lists.
+	 *
+	 * @param expected
+	 *            expected EObject list
+	 * @param actual
+	 *            actual EObject list
+	 * @return All differences, in order of <code>expected</code>; empty if
+	 *         both lists render equally.
+	 */
+	public static @NonNull List<@NonNull EmfDifference> compute(
+			final @NonNull List<@NonNull EObject> expected,
+			final @NonNull List<@NonNull EObject> actual
+	) {
+		final EmfDiff diff = new EmfDiff(expected, actual);
+		if (diff.expectedFingerprints.fingerprint().equals(diff.actualFingerprints.fingerprint())) {
+			return Collections.emptyList();
+		}
+		
+		diff.alignContents(expected, actual);
+		return diff.differences;
+	}
+	
+	/**
+	 * Computes the differences between two EObjects.
+	 *
+	 * @param expected
+	 *            expected EObject
+	 * @param actual
+	 *            actual EObject
+	 * @return All differences, in order of <code>expected</code>; empty if
+	 *         both EObjects render equally.
+	 */
+	public static @NonNull List<@NonNull EmfDifference> compute(
+			final @NonNull EObject expected,
+			final @NonNull EObject actual
+	) {
+		return compute(Collections.singletonList(expected), Collections.singletonList(actual));
+	}
+	
+	private void alignContents(final @NonNull List<@NonNull EObject> expected, final @NonNull List<@NonNull EObject> actual) {
+		final Map<String, Integer> actualById = new HashMap<>();
+		final List<Integer> actualWithoutId = new ArrayList<>();
+		for (int i = 0; i < actual.size(); i++) {
+			final String id = EcoreUtil.getID(actual.get(i));
+			if (id == null || actualById.putIfAbsent(id, i) != null) {
+				actualWithoutId.add(i);
+			}
+		}
+		
+		final int[] actualIndices = new int[expected.size()];
+		int nextWithoutId = 0;
+		for (int i = 0; i < expected.size(); i++) {
+			final String id = EcoreUtil.getID(expected.get(i));
+			final Integer actualIndex;
+			if (id != null) {
+				actualIndex = actualById.remove(id);
+			} else {
+				actualIndex = nextWithoutId < actualWithoutId.size() ? actualWithoutId.get(nextWithoutId++) : null;
+			}
+			actualIndices[i] = actualIndex != null ? actualIndex : -1;
+		}
+		
+		final boolean[] inOrder = findLongestIncreasing(actualIndices);
+		final Set<EObject> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (int i = 0; i < expected.size(); i++) {
+			final EObject expectedEObject = expected.get(i);
+			if (actualIndices[i] < 0) {
+				this.differences.add(new EmfDifference(EmfDifference.Kind.REMOVED, expectedEObject, null));
+				continue;
+			}
+			
+			final EObject actualEObject = actual.get(actualIndices[i]);
+			matched.add(actualEObject);
+			if (!inOrder[i]) {
+				this.differences.add(new EmfDifference(EmfDifference.Kind.MOVED, expectedEObject, actualEObject));
+			}
+			compare(expectedEObject, actualEObject);
+		}
+		
+		for (final EObject actualEObject : actual) {
+			if (!matched.contains(actualEObject)) {
+				this.differences.add(new EmfDifference(EmfDifference.Kind.ADDED, null, actualEObject));
+			}
+		}
+	}
+	
+	/**
+	 * Finds the longest strictly increasing subsequence of indices, ignoring
+	 * negative ones (patience sorting).
+	 *
+	 * @param indices
+	 *            Indices to search; negative entries are never part of the
+	 *            result.
+	 * @return For each entry of <code>indices</code>, whether it belongs to
+	 *         the subsequence.
+	 */
+	private static boolean @NonNull [] findLongestIncreasing(final int @NonNull [] indices) {
+		// tails[k] is the position of the smallest last index of all increasing subsequences of length k + 1
+		final int[] tails = new int[indices.length];
+		final int[] predecessors = new int[indices.length];
+		int length = 0;
+		for (int i = 0; i < indices.length; i++) {
+			if (indices[i] < 0) {
+				continue;
+			}
+			
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				final int middle = (low + high) >>> 1;
+				if (indices[tails[middle]] < indices[i]) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			predecessors[i] = low > 0 ? tails[low - 1] : -1;
+			tails[low] = i;
+			if (low == length) {
+				length++;
+			}
+		}
+		
+		final boolean[] result = new boolean[indices.length];
+		for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = predecessors[i]) {
+			result[i] = true;
+		}
+		return result;
+	}
+	
+	private void compare(final @NonNull EObject expected, final @NonNull EObject actual) {
+		final EmfFingerprint expectedFingerprint = this.expectedFingerprints.getFingerprint(expected);
+		if (expectedFingerprint != null
+				&& Objects.equals(expectedFingerprint, this.actualFingerprints.getFingerprint(actual))) {
+			return;
+		}
+		
+		if (expected.eClass() != actual.eClass()) {
+			this.differences.add(new EmfDifference(EmfDifference.Kind.REPLACED, expected, actual));
+			return;
+		}
+		
+		final EmfDifference changed = new EmfDifference(EmfDifference.Kind.CHANGED, expected, actual);
+		if (!changed.getExpectedRendering().equals(changed.getActualRendering())) {
+			this.differences.add(changed);
+		}
+		
+		for (final EReference containment : expected.eClass().getEAllContainments()) {
+			alignContents(getContents(expected, containment), getContents(actual, containment));
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static @NonNull List<@NonNull EObject> getContents(
+			final @NonNull EObject eObject,
+			final @NonNull EReference containment
+	) {
+		final Object value = eObject.eGet(containment, false);
+		if (containment.isMany()) {
+			return (List<@NonNull EObject>) value;
+		}
+		return value != null ? Collections.singletonList((EObject) value) : Collections.emptyList();
+	}
+}
@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.testsupport;
+
+import java.io.IOException;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.emf.textrenderer.EmfStringRenderer;
+
+/**
+ * One difference found by {@link EmfDiff}.
+ *
+ * <p>
+ * The renderings of both sides are bounded: Contents are rendered up to a
+ * limited depth, and the text is cut off after a limited length.
+ * </p>
+ *
+ * @since 0.7
+ */
+public final class EmfDifference {
+	/**
+	 * Kind of a difference.
+	 */
+	public enum Kind {
+		/**
+		 * The EObject only exists in the actual model.
+		 */
+		ADDED,
+		
+		/**
+		 * The EObject only exists in the expected model.
+		 */
+		REMOVED,
+		
+		/**
+		 * The EObject exists in both models, but is of different EClasses.
+		 */
+		REPLACED,
+		
+		/**
+		 * The EObject exists in both models, but its own features differ. Its
+		 * contents are reported separately.
+		 */
+		CHANGED,
+		
+		/**
+		 * The EObject exists in both models, but is ordered differently among
+		 * its siblings.
+		 */
+		MOVED
+	}
+	
+	/** Indentation up to which contents are rendered for whole subtrees. */
+	private static final int SUBTREE_CONTEXT_INDENT = 3;
+	
+	/** Maximum length of a rendering. */
+	private static final int MAX_RENDERING_LENGTH = 10_000;
+	
+	private final @NonNull Kind kind;
+	private final @Nullable EObject expected;
+	private final @Nullable EObject actual;
+	private String expectedRendering;
+	private String actualRendering;
+	
+	EmfDifference(final @NonNull Kind kind, final @Nullable EObject expected, final @Nullable EObject actual) {
+		this.kind = kind;
+		this.expected = expected;
+		this.actual = actual;
+	}
+	
+	public @NonNull Kind getKind() {
+		return this.kind;
+	}
+	
+	/**
+	 * @return The EObject in the expected model; {@code null} for
+	 *         {@link Kind#ADDED}.
+	 */
+	public @Nullable EObject getExpected() {
+		return this.expected;
+	}
+	
+	/**
+	 * @return The EObject in the actual model; {@code null} for
+	 *         {@link Kind#REMOVED}.
+	 */
+	public @Nullable EObject getActual() {
+		return this.actual;
+	}
+	
+	/**
+	 * @return URI of the EObject, preferably in the expected model.
+	 */
+	public @NonNull String getLocation() {
+		final EObject eObject = this.expected != null ? this.expected : this.actual;
+		return String.valueOf(EcoreUtil.getURI(eObject));
+	}
+	
+	/**
+	 * @return Bounded rendering of the expected EObject; empty for
+	 *         {@link Kind#ADDED}.
+	 */
+	public @NonNull String getExpectedRendering() {
+		if (this.expectedRendering == null) {
+			this.expectedRendering = renderBounded(this.expected);
+		}
+		return this.expectedRendering;
+	}
+	
+	/**
+	 * @return Bounded rendering of the actual EObject; empty for
+	 *         {@link Kind#REMOVED}.
+	 */
+	public @NonNull String getActualRendering() {
+		if (this.actualRendering == null) {
+			this.actualRendering = renderBounded(this.actual);
+		}
+		return this.actualRendering;
+	}
+	
+	@Override
+	public @NonNull String toString() {
+		return this.kind + " at " + getLocation();
+	}
+	
+	private @NonNull String renderBounded(final @Nullable EObject eObject) {
+		if (eObject == null) {
+			return "";
+		}
+		
+		final int contextIndent;
+		switch (this.kind) {
+			case CHANGED:
+			case MOVED:
+				contextIndent = 0;
+				break;
+			default:
+				contextIndent = SUBTREE_CONTEXT_INDENT;
+				break;
+		}
+		
+		final StringBuilder builder = new StringBuilder();
+		try {
+			new BoundedRenderer(eObject, contextIndent).render(new LimitedAppendable(builder));
+		} catch (final LimitReachedException e) {
+			builder.append(" ...");
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return builder.toString();
+	}
+	
+	/**
+	 * Renders contents only up to an indentation.
+	 */
+	private static final class BoundedRenderer extends EmfStringRenderer {
+		private final int contextIndent;
+		
+		BoundedRenderer(final @NonNull EObject eObject, final int contextIndent) {
+			super(eObject);
+			this.contextIndent = contextIndent;
+		}
+		
+		@Override
+		protected void renderEReference(
+				final @NonNull EReference reference, final int indent,
+				final @NonNull EObject context
+		) {
+			if (reference.isContainment() && indent > this.contextIndent) {
+				append(reference.getName() + ": ...", indent);
+				return;
+			}
+			super.renderEReference(reference, indent, context);
+		}
+	}
+	
+	/**
+	 * Stops rendering after {@link EmfDifference#MAX_RENDERING_LENGTH} chars.
+	 */
+	private static final class LimitedAppendable implements Appendable {
+		private final StringBuilder builder;
+		
+		LimitedAppendable(final @NonNull StringBuilder builder) {
+			this.builder = builder;
+		}
+		
+		@Override
+		public Appendable append(final CharSequence csq) throws IOException {
+			final CharSequence chars = csq != null ? csq : "null";
+			return append(chars, 0, chars.length());
+		}
+		
+		@Override
+		public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+			final CharSequence chars = csq != null ? csq : "null";
+			final int remaining = MAX_RENDERING_LENGTH - this.builder.length();
+			if (end - start > remaining) {
+				this.builder.append(chars, start, start + remaining);
+				throw new LimitReachedException();
+			}
+			this.builder.append(chars, start, end);
+			return this;
+		}
+		
+		@Override
+		public Appendable append(final char c) throws IOException {
+			if (this.builder.length() >= MAX_RENDERING_LENGTH) {
+				throw new LimitReachedException();
+			}
+			this.builder.append(c);
+			return this;
+		}
+	}
+	
+	private static final class LimitReachedException extends IOException {
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer.test;
+
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Dynamic metamodel and models exercising all kinds of rendered content: IDs,
+ * single- and many-valued attributes, containments, cross-references within
+ * and across Resources, and proxies.
+ *
+ * <p>
+ * References do not resolve proxies, so rendering never tries to load
+ * Resources.
+ * </p>
+ */
+public final class RenderTestModel {
+	public static final EPackage PACKAGE;
+	public static final EClass NODE;
+	public static final EAttribute NAME;
+	public static final EAttribute ID;
+	public static final EAttribute SIZE;
+	public static final EAttribute TAGS;
+	public static final EReference CHILDREN;
+	public static final EReference DETAIL;
+	public static final EReference REFS;
+	public static final EReference BUDDY;
+	
+	static {
+		final EcoreFactory factory = EcoreFactory.eINSTANCE;
+		PACKAGE = factory.createEPackage();
+		PACKAGE.setName("rendertest");
+		PACKAGE.setNsPrefix("rendertest");
+		PACKAGE.setNsURI("http://espilce.org/commons/emf/textrenderer/test");
+		
+		NODE = factory.createEClass();
+		NODE.setName("Node");
+		PACKAGE.getEClassifiers().add(NODE);
+		
+		NAME = attribute("name", EcorePackage.Literals.ESTRING);
+		ID = attribute("id", EcorePackage.Literals.ESTRING);
+		ID.setID(true);
+		SIZE = attribute("size", EcorePackage.Literals.EINT);
+		TAGS = attribute("tags", EcorePackage.Literals.ESTRING);
+		TAGS.setUpperBound(EStructuralFeature.UNBOUNDED_MULTIPLICITY);
+		
+		CHILDREN = reference("children", true);
+		CHILDREN.setUpperBound(EStructuralFeature.UNBOUNDED_MULTIPLICITY);
+		DETAIL = reference("detail", true);
+		REFS = reference("refs", false);
+		REFS.setUpperBound(EStructuralFeature.UNBOUNDED_MULTIPLICITY);
+		BUDDY = reference("buddy", false);
+	}
+	
+	private RenderTestModel() {
+		// static utility
+	}
+	
+	/**
+	 * Creates a Resource of <code>rootCount</code> trees, each
+	 * <code>depth</code> levels deep with <code>width</code> children per
+	 * level, plus a second Resource in the same ResourceSet they refer to.
+	 */
+	public static Resource createResource(final int rootCount, final int width, final int depth) {
+		final ResourceSet resourceSet = new ResourceSetImpl();
+		final Resource other = new ResourceImpl(URI.createURI("test:/other.rendertest"));
+		resourceSet.getResources().add(other);
+		other.getContents().add(node("other0"));
+		other.getContents().add(idNode("other1", "o1"));
+		
+		final Resource resource = new ResourceImpl(URI.createURI("test:/model.rendertest"));
+		resourceSet.getResources().add(resource);
+		for (int i = 0; i < rootCount; i++) {
+			resource.getContents().add(tree("r" + i, width, depth));
+		}
+		
+		int counter = 0;
+		for (final EObject eObject : (Iterable<EObject>) resource::getAllContents) {
+			link(resource, other, eObject, counter++);
+		}
+		return resource;
+	}
+	
+	public static EObject node(final String name) {
+		final EObject result = EcoreUtil.create(NODE);
+		result.eSet(NAME, name);
+		return result;
+	}
+	
+	public static EObject idNode(final String name, final String id) {
+		final EObject result = node(name);
+		result.eSet(ID, id);
+		return result;
+	}
+	
+	public static EObject proxy(final String uri) {
+		final EObject result = EcoreUtil.create(NODE);
+		((InternalEObject) result).eSetProxyURI(URI.createURI(uri));
+		return result;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static List<EObject> children(final EObject node) {
+		return (List<EObject>) node.eGet(CHILDREN);
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static List<EObject> refs(final EObject node) {
+		return (List<EObject>) node.eGet(REFS);
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static List<String> tags(final EObject node) {
+		return (List<String>) node.eGet(TAGS);
+	}
+	
+	private static EObject tree(final String name, final int width, final int depth) {
+		final EObject result = name.hashCode() % 3 == 0 ? idNode(name, "id-" + name) : node(name);
+		result.eSet(SIZE, name.length());
+		if (name.length() % 2 == 0) {
+			tags(result).add("even");
+			tags(result).add(name);
+		}
+		if (depth > 0) {
+			for (int i = 0; i < width; i++) {
+				children(result).add(tree(name + "." + i, width, depth - 1));
+			}
+			if (width > 1) {
+				children(result).add(proxy("test:/missing.rendertest#//" + name));
+				result.eSet(DETAIL, node(name + ".detail"));
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Adds references from <code>eObject</code> to its ancestors, descendants,
+	 * other trees, the other Resource, and proxies, varying by
+	 * <code>counter</code>.
+	 */
+	private static void link(final Resource resource, final Resource other, final EObject eObject, final int counter) {
+		if (eObject.eIsProxy()) {
+			return;
+		}
+		final List<EObject> roots = resource.getContents();
+		final EObject root = EcoreUtil.getRootContainer(eObject);
+		switch (counter % 5) {
+			case 0:
+				eObject.eSet(BUDDY, roots.get((roots.indexOf(root) + 1) % roots.size()));
+				refs(eObject).add(other.getContents().get(counter % 2));
+				break;
+			case 1:
+				final List<EObject> contents = eObject.eContents();
+				if (!contents.isEmpty()) {
+					eObject.eSet(BUDDY, contents.get(contents.size() - 1));
+					refs(eObject).addAll(contents);
+				}
+				break;
+			case 2:
+				if (eObject.eContainer() != null) {
+					eObject.eSet(BUDDY, eObject.eContainer());
+				}
+				refs(eObject).add(root);
+				refs(eObject).add(proxy("test:/missing.rendertest#id" + counter));
+				break;
+			case 3:
+				eObject.eSet(BUDDY, eObject);
+				break;
+			default:
+				break;
+		}
+	}
+	
+	private static EAttribute attribute(final String name, final EClassifier type) {
+		final EAttribute result = EcoreFactory.eINSTANCE.createEAttribute();
+		result.setName(name);
+		result.setEType(type);
+		NODE.getEStructuralFeatures().add(result);
+		return result;
+	}
+	
+	private static EReference reference(final String name, final boolean containment) {
+		final EReference result = EcoreFactory.eINSTANCE.createEReference();
+		result.setName(name);
+		result.setEType(NODE);
+		result.setContainment(containment);
+		result.setResolveProxies(false);
+		NODE.getEStructuralFeatures().add(result);
+		return result;
+	}
+}
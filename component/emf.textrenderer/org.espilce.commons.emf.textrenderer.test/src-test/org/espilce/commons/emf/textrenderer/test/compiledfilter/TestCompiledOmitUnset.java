@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer.test.compiledfilter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.impl.DynamicEObjectImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.espilce.commons.emf.textrenderer.EmfStringRenderer;
+import org.espilce.commons.emf.textrenderer.IRenderFilter;
+import org.espilce.commons.emf.textrenderer.OmitUnsetFilter;
+import org.espilce.commons.emf.textrenderer.RenderFilters;
+import org.espilce.commons.emf.textrenderer.test.RenderTestModel;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The compiled {@link OmitUnsetFilter} must decide like the filter itself,
+ * which is asked for every feature if subclassed.
+ */
+public class TestCompiledOmitUnset {
+	private static final EClass ITEM;
+	private static final EAttribute NAME;
+	private static final EAttribute RATIO;
+	private static final EAttribute ZERO;
+	private static final EAttribute COUNT;
+	private static final EAttribute FLAGS;
+	
+	static {
+		final EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("omitunset");
+		ePackage.setNsPrefix("omitunset");
+		ePackage.setNsURI("http://espilce.org/commons/emf/textrenderer/test/omitunset");
+		ITEM = EcoreFactory.eINSTANCE.createEClass();
+		ITEM.setName("Item");
+		ePackage.getEClassifiers().add(ITEM);
+		
+		NAME = attribute("name", EcorePackage.Literals.ESTRING, null);
+		RATIO = attribute("ratio", EcorePackage.Literals.EDOUBLE_OBJECT, "NaN");
+		ZERO = attribute("zero", EcorePackage.Literals.EDOUBLE, null);
+		COUNT = attribute("count", EcorePackage.Literals.EINT, null);
+		COUNT.setUnsettable(true);
+		FLAGS = attribute("flags", EcorePackage.Literals.EBOOLEAN, null);
+		FLAGS.setUpperBound(EStructuralFeature.UNBOUNDED_MULTIPLICITY);
+	}
+	
+	@Test
+	public void values() throws Exception {
+		final EObject unset = EcoreUtil.create(ITEM);
+		
+		final EObject defaults = EcoreUtil.create(ITEM);
+		defaults.eSet(NAME, "");
+		defaults.eSet(RATIO, Double.NaN);
+		defaults.eSet(ZERO, 0.0);
+		defaults.eSet(COUNT, 0);
+		
+		final EObject others = EcoreUtil.create(ITEM);
+		others.eSet(NAME, "others");
+		others.eSet(RATIO, 0.5);
+		others.eSet(ZERO, -0.0);
+		others.eSet(FLAGS, Arrays.asList(false, true));
+		
+		assertRenderedLikeOmitUnset(Arrays.asList(unset, defaults, others));
+	}
+	
+	@Test
+	public void overriddenIsSet() throws Exception {
+		final EObject item = new DynamicEObjectImpl(ITEM) {
+			@Override
+			public boolean eIsSet(final EStructuralFeature feature) {
+				if (feature == NAME) {
+					return !"hidden".equals(eGet(NAME));
+				}
+				return feature == ZERO || feature == COUNT || super.eIsSet(feature);
+			}
+		};
+		item.eSet(NAME, "hidden");
+		
+		assertRenderedLikeOmitUnset(Arrays.asList(item, EcoreUtil.create(ITEM)));
+	}
+	
+	@Test
+	public void combined() throws Exception {
+		final EObject item = EcoreUtil.create(ITEM);
+		item.eSet(NAME, "item");
+		item.eSet(COUNT, 0);
+		final IRenderFilter omitRatio = RenderFilters.omitFeatures("ratio");
+		
+		assertEquals(
+				render(Arrays.asList(item), RenderFilters.allOf(omitRatio, new OmitUnsetFilter() {})),
+				render(Arrays.asList(item), RenderFilters.allOf(omitRatio, new OmitUnsetFilter()))
+		);
+	}
+	
+	@Test
+	public void model() throws Exception {
+		assertRenderedLikeOmitUnset(RenderTestModel.createResource(2, 2, 2).getContents());
+	}
+	
+	private static void assertRenderedLikeOmitUnset(final List<EObject> eObjects) {
+		// an anonymous subclass cannot be compiled, so it is asked for every feature
+		final String expected = render(eObjects, new OmitUnsetFilter() {});
+		
+		assertEquals(expected, new EmfStringRenderer(eObjects).render());
+		assertEquals(expected, render(eObjects, new OmitUnsetFilter()));
+	}
+	
+	private static String render(final List<EObject> eObjects, final IRenderFilter filter) {
+		return new EmfStringRenderer(eObjects) {
+			@Override
+			protected boolean isFeatureRenderingCustomized() {
+				return false;
+			}
+			
+			@Override
+			protected IRenderFilter getFilter() {
+				return filter;
+			}
+		}.render();
+	}
+	
+	private static EAttribute attribute(final String name, final EClassifier type, final String defaultValue) {
+		final EAttribute result = EcoreFactory.eINSTANCE.createEAttribute();
+		result.setName(name);
+		result.setEType(type);
+		result.setDefaultValueLiteral(defaultValue);
+		ITEM.getEStructuralFeatures().add(result);
+		return result;
+	}
+}
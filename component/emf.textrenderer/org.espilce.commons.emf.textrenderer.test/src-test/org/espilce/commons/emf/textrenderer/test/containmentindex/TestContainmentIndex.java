@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer.test.containmentindex;
+
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.BUDDY;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.ID;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.children;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.createResource;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.refs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.espilce.commons.emf.textrenderer.EmfStringRenderer;
+import org.espilce.commons.emf.textrenderer.IncrementalEmfStringRenderer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * References resolved through the containment index must render like
+ * resolved by {@link EcoreUtil}.
+ */
+public class TestContainmentIndex {
+	@Test
+	public void resource() throws Exception {
+		final Resource resource = createResource(4, 3, 3);
+		
+		assertEquals(renderWithoutIndex(resource), new EmfStringRenderer(resource).render());
+	}
+	
+	@Test
+	public void resourceInParallel() throws Exception {
+		final Resource resource = createResource(40, 3, 2);
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			assertEquals(renderWithoutIndex(resource), new EmfStringRenderer(resource).render(pool));
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	@Test
+	public void subtree() throws Exception {
+		final Resource resource = createResource(2, 2, 3);
+		final EObject subtree = withoutId(children(resource.getContents().get(0)).get(1));
+		final EObject nested = children(subtree).get(0);
+		final EObject descendant = withoutId(children(children(subtree).get(1)).get(0));
+		final EObject outside = withoutId(children(resource.getContents().get(1)).get(0));
+		nested.eSet(BUDDY, descendant);
+		refs(nested).clear();
+		refs(nested).add(outside);
+		refs(nested).add(subtree);
+		
+		final String rendered = new EmfStringRenderer(subtree).render();
+		
+		assertContains(rendered, "buddy -> " + EcoreUtil.getURI(descendant));
+		assertContains(rendered, EcoreUtil.getURI(outside).toString());
+		assertContains(rendered, EcoreUtil.getURI(subtree).toString());
+		
+		subtree.eSet(BUDDY, descendant);
+		assertContains(
+				new EmfStringRenderer(subtree).render(),
+				"buddy -> " + EcoreUtil.getRelativeURIFragmentPath(subtree, descendant)
+		);
+	}
+	
+	@Test
+	public void overlappingEObjects() throws Exception {
+		final Resource resource = createResource(2, 2, 3);
+		final EObject root = withoutId(resource.getContents().get(0));
+		final EObject child = withoutId(children(root).get(1));
+		final EObject grandchild = withoutId(children(child).get(0));
+		root.eSet(BUDDY, grandchild);
+		child.eSet(BUDDY, grandchild);
+		refs(grandchild).clear();
+		refs(grandchild).add(root);
+		final List<EObject> eObjects = Arrays.asList(child, root);
+		
+		final String rendered = new EmfStringRenderer(eObjects).render();
+		
+		assertContains(rendered, "buddy -> " + EcoreUtil.getRelativeURIFragmentPath(root, grandchild));
+		assertContains(rendered, "buddy -> " + EcoreUtil.getRelativeURIFragmentPath(child, grandchild));
+		assertContains(rendered, EcoreUtil.getURI(root).toString());
+	}
+	
+	@Test
+	public void proxyTargets() throws Exception {
+		final Resource resource = createResource(1, 2, 2);
+		final EObject root = withoutId(resource.getContents().get(0));
+		final EObject containedProxy = children(root).get(2);
+		assertTrue(containedProxy.eIsProxy());
+		root.eSet(BUDDY, containedProxy);
+		children(root).get(0).eSet(BUDDY, containedProxy);
+		
+		final String rendered = new EmfStringRenderer(root).render();
+		
+		assertContains(rendered, "buddy -> " + EcoreUtil.getRelativeURIFragmentPath(root, containedProxy));
+		assertContains(rendered, "buddy -> " + EcoreUtil.getURI(containedProxy));
+		assertEquals(renderWithoutIndex(resource), new EmfStringRenderer(resource).render());
+	}
+	
+	/**
+	 * {@link IncrementalEmfStringRenderer} resolves references by
+	 * {@link EcoreUtil}, as it does not index the contents.
+	 */
+	private static String renderWithoutIndex(final Resource resource) {
+		final IncrementalEmfStringRenderer renderer = new IncrementalEmfStringRenderer(resource);
+		try {
+			return renderer.render();
+		} finally {
+			renderer.dispose();
+		}
+	}
+	
+	private static EObject withoutId(final EObject eObject) {
+		eObject.eUnset(ID);
+		return eObject;
+	}
+	
+	private static void assertContains(final String rendered, final String expected) {
+		assertTrue(rendered.contains(expected), () -> "Expected <" + expected + "> in:\n" + rendered);
+	}
+}
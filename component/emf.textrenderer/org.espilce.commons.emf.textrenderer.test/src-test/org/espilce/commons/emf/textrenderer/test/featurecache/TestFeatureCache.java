@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer.test.featurecache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.espilce.commons.emf.textrenderer.EmfStringRenderer;
+import org.espilce.commons.emf.textrenderer.IRenderFilter;
+import org.espilce.commons.emf.textrenderer.OmitUnsetFilter;
+import org.espilce.commons.emf.textrenderer.RenderFilters;
+import org.espilce.commons.emf.textrenderer.test.RenderTestModel;
+import org.junit.jupiter.api.Test;
+
+public class TestFeatureCache {
+	@Test
+	public void featuresSortedByName() throws Exception {
+		final EClass eClass = createEClass();
+		final EObject eObject = EcoreUtil.create(eClass);
+		eObject.eSet(eClass.getEStructuralFeature("b"), "b");
+		eObject.eSet(eClass.getEStructuralFeature("a"), "a");
+		
+		final String rendered = new EmfStringRenderer(eObject).render();
+		
+		assertTrue(rendered.indexOf("a=") < rendered.indexOf("b="), rendered);
+	}
+	
+	@Test
+	public void featuresChanged() throws Exception {
+		final EClass eClass = createEClass();
+		final List<EObject> eObjects = new ArrayList<>();
+		eObjects.add(EcoreUtil.create(eClass));
+		eObjects.get(0).eSet(eClass.getEStructuralFeature("a"), "a");
+		final EmfStringRenderer renderer = new EmfStringRenderer(eObjects);
+		final String before = render(renderer);
+		
+		// dynamic EObjects do not support new features, so replace it
+		final EAttribute added = addAttribute(eClass, "0");
+		eObjects.set(0, EcoreUtil.create(eClass));
+		eObjects.get(0).eSet(eClass.getEStructuralFeature("a"), "a");
+		eObjects.get(0).eSet(added, "added");
+		final String after = render(renderer);
+		
+		assertNotEquals(before, after);
+		assertEquals(new EmfStringRenderer(eObjects).render(), after);
+		assertTrue(after.indexOf("0=") < after.indexOf("a="), after);
+	}
+	
+	@Test
+	public void filterChanged() throws Exception {
+		final EObject root = RenderTestModel.createResource(1, 2, 2).getContents().get(0);
+		final FilterRenderer renderer = new FilterRenderer(root);
+		renderer.filter = RenderFilters.allOf(new OmitUnsetFilter(), RenderFilters.omitFeatures("name"));
+		final String before = render(renderer);
+		
+		renderer.filter = RenderFilters.allOf(new OmitUnsetFilter(), RenderFilters.omitFeatures("tags"));
+		final String after = render(renderer);
+		
+		final FilterRenderer expected = new FilterRenderer(root);
+		expected.filter = renderer.filter;
+		assertNotEquals(before, after);
+		assertEquals(expected.render(), after);
+	}
+	
+	/**
+	 * Renders without {@link EmfStringRenderer#render()}, which keeps its
+	 * result.
+	 */
+	private static String render(final EmfStringRenderer renderer) throws Exception {
+		final StringBuilder builder = new StringBuilder();
+		renderer.render(builder);
+		return builder.toString();
+	}
+	
+	private static EClass createEClass() {
+		final EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("featurecache");
+		ePackage.setNsPrefix("featurecache");
+		ePackage.setNsURI("http://espilce.org/commons/emf/textrenderer/test/featurecache");
+		final EClass result = EcoreFactory.eINSTANCE.createEClass();
+		result.setName("Sorted");
+		ePackage.getEClassifiers().add(result);
+		addAttribute(result, "b");
+		addAttribute(result, "a");
+		return result;
+	}
+	
+	private static EAttribute addAttribute(final EClass eClass, final String name) {
+		final EAttribute result = EcoreFactory.eINSTANCE.createEAttribute();
+		result.setName(name);
+		result.setEType(EcorePackage.Literals.ESTRING);
+		eClass.getEStructuralFeatures().add(result);
+		return result;
+	}
+	
+	private static final class FilterRenderer extends EmfStringRenderer {
+		IRenderFilter filter;
+		
+		FilterRenderer(final EObject eObject) {
+			super(eObject);
+		}
+		
+		@Override
+		protected boolean isFeatureRenderingCustomized() {
+			return false;
+		}
+		
+		@Override
+		protected IRenderFilter getFilter() {
+			return this.filter;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer.test.incremental;
+
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.BUDDY;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.DETAIL;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.ID;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.NAME;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.children;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.createResource;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.node;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.refs;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.tags;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.espilce.commons.emf.textrenderer.EmfStringRenderer;
+import org.espilce.commons.emf.textrenderer.IncrementalEmfStringRenderer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestIncrementalRender {
+	private Resource resource;
+	private IncrementalEmfStringRenderer renderer;
+	private String initial;
+	
+	@BeforeEach
+	public void createRenderer() {
+		this.resource = createResource(3, 3, 2);
+		this.renderer = new IncrementalEmfStringRenderer(this.resource);
+		this.initial = this.renderer.render();
+		assertEquals(new EmfStringRenderer(this.resource).render(), this.initial);
+	}
+	
+	@AfterEach
+	public void disposeRenderer() {
+		this.renderer.dispose();
+	}
+	
+	@Test
+	public void setAttribute() throws Exception {
+		children(children(root(1)).get(2)).get(0).eSet(NAME, "changed");
+		
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void setReference() throws Exception {
+		children(root(0)).get(1).eSet(BUDDY, children(root(2)).get(0));
+		
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void manyValued() throws Exception {
+		tags(children(root(0)).get(0)).add("added");
+		refs(root(2)).add(children(root(1)).get(1));
+		
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void move() throws Exception {
+		((EList<EObject>) children(root(1))).move(2, 0);
+		
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void moveReferencedTarget() throws Exception {
+		final EObject target = children(children(root(0)).get(1)).get(1);
+		root(2).eSet(BUDDY, target);
+		assertRenderedAfterChange();
+		
+		((EList<EObject>) children(children(root(0)).get(1))).move(0, 1);
+		
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void setContainment() throws Exception {
+		refs(root(2)).add((EObject) root(0).eGet(DETAIL));
+		assertRenderedAfterChange();
+		
+		root(0).eSet(DETAIL, node("replaced"));
+		
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void removeContent() throws Exception {
+		children(root(1)).remove(0);
+		
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void changeId() throws Exception {
+		final EObject target = children(root(0)).get(2);
+		refs(root(1)).add(target);
+		refs(children(root(2)).get(0)).add(children(target).get(0));
+		assertRenderedAfterChange();
+		
+		target.eSet(ID, "newId");
+		assertRenderedAfterChange();
+		
+		target.eUnset(ID);
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void addRoot() throws Exception {
+		this.resource.getContents().add(0, node("newRoot"));
+		
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void removeRoot() throws Exception {
+		this.resource.getContents().remove(0);
+		
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void changeResourceUri() throws Exception {
+		this.resource.setURI(URI.createURI("test:/renamed.rendertest"));
+		
+		assertRenderedAfterChange();
+	}
+	
+	@Test
+	public void severalChanges() throws Exception {
+		children(root(0)).get(0).eSet(NAME, "first");
+		this.resource.getContents().move(0, 2);
+		root(1).eSet(ID, "rootId");
+		this.resource.getContents().add(node("added"));
+		
+		assertRenderedAfterChange();
+		
+		children(root(2)).remove(1);
+		assertRenderedAfterChange();
+	}
+	
+	private EObject root(final int index) {
+		return this.resource.getContents().get(index);
+	}
+	
+	private void assertRenderedAfterChange() {
+		final String rendered = this.renderer.render();
+		
+		assertNotEquals(this.initial, rendered);
+		assertEquals(new EmfStringRenderer(this.resource).render(), rendered);
+		this.initial = rendered;
+	}
+}
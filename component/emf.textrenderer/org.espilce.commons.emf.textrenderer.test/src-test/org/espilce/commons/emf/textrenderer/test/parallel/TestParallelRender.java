@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer.test.parallel;
+
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.children;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.createResource;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.node;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.tags;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.espilce.commons.emf.textrenderer.EmfStringRenderer;
+import org.espilce.commons.emf.textrenderer.test.RenderTestModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TestParallelRender {
+	private static ForkJoinPool pool;
+	private static Resource resource;
+	private static String expected;
+	
+	@BeforeAll
+	public static void createModel() {
+		pool = new ForkJoinPool(4);
+		resource = createResource(100, 3, 2);
+		final EObject wide = resource.getContents().get(0);
+		for (int i = 0; i < 500; i++) {
+			children(wide).add(node("wide" + i));
+			tags(wide).add("tag" + i);
+		}
+		expected = new EmfStringRenderer(resource).render();
+	}
+	
+	@AfterAll
+	public static void shutdownPool() {
+		pool.shutdown();
+	}
+	
+	@Test
+	public void string() throws Exception {
+		assertEquals(expected, new EmfStringRenderer(resource).render(pool));
+	}
+	
+	@Test
+	public void appendable() throws Exception {
+		final StringBuilder builder = new StringBuilder();
+		
+		new EmfStringRenderer(resource).render(builder, pool);
+		
+		assertEquals(expected, builder.toString());
+	}
+	
+	@Test
+	public void writer() throws Exception {
+		final StringWriter writer = new StringWriter();
+		
+		new EmfStringRenderer(resource).render(writer, pool);
+		
+		assertEquals(expected, writer.toString());
+	}
+	
+	@Test
+	public void outputStream() throws Exception {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		
+		new EmfStringRenderer(resource).render(outputStream, StandardCharsets.UTF_8, pool);
+		
+		assertEquals(expected, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+	}
+	
+	@Test
+	public void eObjects() throws Exception {
+		final List<EObject> eObjects = new ArrayList<>(resource.getContents());
+		
+		assertEquals(new EmfStringRenderer(eObjects).render(), new EmfStringRenderer(eObjects).render(pool));
+	}
+	
+	@Test
+	public void subclass() throws Exception {
+		assertEquals(expected, new EmfStringRenderer(resource) {}.render());
+		assertEquals(expected, new EmfStringRenderer(resource) {}.render(pool));
+	}
+	
+	@Test
+	public void customizedFeature() throws Exception {
+		final String sequential = new SizeOmittingRenderer(resource).render();
+		
+		assertFalse(sequential.contains("size="));
+		assertEquals(sequential, new SizeOmittingRenderer(resource).render(pool));
+	}
+	
+	private static final class SizeOmittingRenderer extends EmfStringRenderer {
+		SizeOmittingRenderer(final Resource resource) {
+			super(resource);
+		}
+		
+		@Override
+		protected void renderEAttribute(final EAttribute attribute, final int indent, final EObject context) {
+			if (attribute != RenderTestModel.SIZE) {
+				super.renderEAttribute(attribute, indent, context);
+			}
+		}
+	}
+}
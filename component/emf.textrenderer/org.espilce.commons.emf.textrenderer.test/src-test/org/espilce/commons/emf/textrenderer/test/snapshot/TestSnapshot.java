@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer.test.snapshot;
+
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.NAME;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.children;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.createResource;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.node;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.espilce.commons.emf.textrenderer.EmfSnapshotReader;
+import org.espilce.commons.emf.textrenderer.EmfStringRenderer;
+import org.espilce.commons.emf.textrenderer.IncrementalEmfStringRenderer;
+import org.junit.jupiter.api.Test;
+
+public class TestSnapshot {
+	@Test
+	public void toText() throws Exception {
+		final Resource resource = createResource(3, 3, 3);
+		children(resource.getContents().get(0)).add(node("Ä€😀"));
+		
+		assertEquals(new EmfStringRenderer(resource).render(), toText(snapshot(new EmfStringRenderer(resource))));
+	}
+	
+	@Test
+	public void eObject() throws Exception {
+		final EObject eObject = createResource(2, 2, 2).getContents().get(1);
+		
+		assertEquals(new EmfStringRenderer(eObject).render(), toText(snapshot(new EmfStringRenderer(eObject))));
+	}
+	
+	@Test
+	public void afterRender() throws Exception {
+		final Resource resource = createResource(2, 2, 2);
+		final EmfStringRenderer renderer = new EmfStringRenderer(resource);
+		final String expected = renderer.render();
+		
+		assertEquals(expected, toText(snapshot(renderer)));
+	}
+	
+	@Test
+	public void incremental() throws Exception {
+		final Resource resource = createResource(2, 2, 2);
+		final IncrementalEmfStringRenderer renderer = new IncrementalEmfStringRenderer(resource);
+		try {
+			renderer.render();
+			children(resource.getContents().get(1)).get(0).eSet(NAME, "changed");
+			
+			assertEquals(new EmfStringRenderer(resource).render(), toText(snapshot(renderer)));
+		} finally {
+			renderer.dispose();
+		}
+	}
+	
+	@Test
+	public void customNewlineAndIndentation() throws Exception {
+		final Resource resource = createResource(2, 2, 2);
+		final EmfStringRenderer renderer = new EmfStringRenderer(resource) {
+			@Override
+			protected String getNewline() {
+				return "\r\n";
+			}
+			
+			@Override
+			protected String getIndentation() {
+				return "\t";
+			}
+		};
+		final StringBuilder text = new StringBuilder();
+		
+		try (EmfSnapshotReader reader = new EmfSnapshotReader(new ByteArrayInputStream(snapshot(renderer)))) {
+			reader.toText(text, "\r\n", "\t");
+		}
+		
+		assertEquals(renderer.render(), text.toString());
+	}
+	
+	@Test
+	public void mismatch() throws Exception {
+		final Resource resource = createResource(2, 2, 2);
+		final byte[] before = snapshot(new EmfStringRenderer(resource));
+		assertEquals(-1, mismatch(before, snapshot(new EmfStringRenderer(resource))));
+		
+		children(resource.getContents().get(1)).get(0).eSet(NAME, "changed");
+		final String after = new EmfStringRenderer(resource).render();
+		final long expectedLine = 1 + after.substring(0, after.indexOf("\"changed\"")).chars().filter(c -> c == '\n').count();
+		
+		assertEquals(expectedLine, mismatch(before, snapshot(new EmfStringRenderer(resource))));
+	}
+	
+	@Test
+	public void mismatchAddedLines() throws Exception {
+		final Resource resource = createResource(2, 2, 2);
+		final String before = new EmfStringRenderer(resource).render();
+		final byte[] snapshot = snapshot(new EmfStringRenderer(resource));
+		resource.getContents().add(node("added"));
+		final long expectedLine = 1 + before.chars().filter(c -> c == '\n').count();
+		
+		assertEquals(expectedLine, mismatch(snapshot, snapshot(new EmfStringRenderer(resource))));
+	}
+	
+	@Test
+	public void notASnapshot() throws Exception {
+		assertThrows(
+				IOException.class,
+				() -> new EmfSnapshotReader(new ByteArrayInputStream("Resource: ".getBytes("UTF-8")))
+		);
+	}
+	
+	private static byte[] snapshot(final EmfStringRenderer renderer) throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		renderer.renderSnapshot(outputStream);
+		return outputStream.toByteArray();
+	}
+	
+	private static String toText(final byte[] snapshot) throws IOException {
+		final StringBuilder text = new StringBuilder();
+		try (EmfSnapshotReader reader = new EmfSnapshotReader(new ByteArrayInputStream(snapshot))) {
+			reader.toText(text);
+		}
+		return text.toString();
+	}
+	
+	private static long mismatch(final byte[] first, final byte[] second) throws IOException {
+		try (
+				EmfSnapshotReader firstReader = new EmfSnapshotReader(new ByteArrayInputStream(first));
+				EmfSnapshotReader secondReader = new EmfSnapshotReader(new ByteArrayInputStream(second))
+		) {
+			return EmfSnapshotReader.mismatch(firstReader, secondReader);
+		}
+	}
+}
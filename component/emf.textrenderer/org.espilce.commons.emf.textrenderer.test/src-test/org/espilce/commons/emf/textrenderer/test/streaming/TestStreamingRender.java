@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer.test.streaming;
+
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.children;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.createResource;
+import static org.espilce.commons.emf.textrenderer.test.RenderTestModel.node;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.espilce.commons.emf.textrenderer.EmfStringRenderer;
+import org.junit.jupiter.api.Test;
+
+public class TestStreamingRender {
+	@Test
+	public void appendable() throws Exception {
+		final Resource resource = createResource(3, 3, 3);
+		final StringBuilder builder = new StringBuilder();
+		
+		new EmfStringRenderer(resource).render(builder);
+		
+		assertEquals(new EmfStringRenderer(resource).render(), builder.toString());
+	}
+	
+	@Test
+	public void writer() throws Exception {
+		final Resource resource = createResource(3, 3, 3);
+		final StringWriter writer = new StringWriter();
+		
+		new EmfStringRenderer(resource).render(writer);
+		
+		assertEquals(new EmfStringRenderer(resource).render(), writer.toString());
+	}
+	
+	@Test
+	public void outputStream() throws Exception {
+		final Resource resource = createResource(3, 3, 3);
+		children(resource.getContents().get(0)).add(node("Ä€😀"));
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		
+		new EmfStringRenderer(resource).render(outputStream, StandardCharsets.UTF_8);
+		
+		assertEquals(
+				new EmfStringRenderer(resource).render(),
+				new String(outputStream.toByteArray(), StandardCharsets.UTF_8)
+		);
+	}
+	
+	@Test
+	public void eObjects() throws Exception {
+		final Resource resource = createResource(3, 3, 3);
+		final List<EObject> eObjects = Arrays.asList(
+				children(resource.getContents().get(1)).get(0), resource.getContents().get(0)
+		);
+		final StringBuilder builder = new StringBuilder();
+		
+		new EmfStringRenderer(eObjects).render(builder);
+		
+		assertEquals(new EmfStringRenderer(eObjects).render(), builder.toString());
+	}
+	
+	@Test
+	public void afterRender() throws Exception {
+		final Resource resource = createResource(2, 2, 2);
+		final EmfStringRenderer renderer = new EmfStringRenderer(resource);
+		final String expected = renderer.render();
+		final StringBuilder builder = new StringBuilder();
+		
+		renderer.render(builder);
+		
+		assertEquals(expected, builder.toString());
+		assertSame(expected, renderer.render());
+	}
+	
+	@Test
+	public void failingAppendable() throws Exception {
+		final Resource resource = createResource(2, 2, 2);
+		final IOException failure = new IOException("full");
+		final Appendable appendable = new Appendable() {
+			@Override
+			public Appendable append(final CharSequence csq) throws IOException {
+				throw failure;
+			}
+			
+			@Override
+			public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+				throw failure;
+			}
+			
+			@Override
+			public Appendable append(final char c) throws IOException {
+				throw failure;
+			}
+		};
+		
+		assertSame(failure, assertThrows(IOException.class, () -> new EmfStringRenderer(resource).render(appendable)));
+	}
+}
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * {@link IRenderFilter} turned into decisions per EClass and feature.
+ *
+ * <p>
+ * {@link OmitUnsetFilter}, {@link RenderEverythingFilter},
+ * {@link DeclarativeRenderFilter}, and {@link CompositeRenderFilter}s of them
+ * are evaluated once per EClass or feature. Any other filter is kept, and
+ * asked for every element after the compiled decisions.
+ * </p>
+ *
+ * <p>
+ * Decides exactly like the source filter: Features of an
+ * {@link OmitUnsetFilter} are checked by
+ * {@link EObject#eIsSet(EStructuralFeature)} for every element, as generated
+ * or hand-written EObjects may override it. Safe to use concurrently.
+ * </p>
+ */
+final class CompiledRenderFilter implements IRenderFilter {
+	/**
+	 * Compiled decision on rendering a feature.
+	 */
+	enum Decision {
+		/** Never render the feature. */
+		OMIT,
+		/** Always render the feature. */
+		RENDER,
+		/** Render the feature if {@link EObject#eIsSet(EStructuralFeature)}. */
+		RENDER_IF_SET
+	}
+	
+	private final @NonNull IRenderFilter source;
+	private boolean omitUnset;
+	private int maxIndent = DeclarativeRenderFilter.UNLIMITED;
+	private final List<Predicate<? super EClass>> eClassPredicates = new ArrayList<>();
+	private final List<Predicate<? super EStructuralFeature>> featurePredicates = new ArrayList<>();
+	private final List<@NonNull IRenderFilter> dynamic = new ArrayList<>();
+	private final Map<EClass, Boolean> eClassDecisions = new ConcurrentHashMap<>();
+	private final Map<EStructuralFeature, Decision> featureDecisions = new ConcurrentHashMap<>();
+	private final Map<EClass, DecisionTable> tables = new ConcurrentHashMap<>();
+	
+	private CompiledRenderFilter(final @NonNull IRenderFilter source) {
+		this.source = source;
+		collect(source);
+	}
+	
+	/**
+	 * @return <code>filter</code> compiled, or itself if already compiled.
+	 */
+	static @NonNull CompiledRenderFilter compile(final @NonNull IRenderFilter filter) {
+		if (filter instanceof CompiledRenderFilter) {
+			return (CompiledRenderFilter) filter;
+		}
+		return new CompiledRenderFilter(filter);
+	}
+	
+	/**
+	 * @return The filter this one was compiled from.
+	 */
+	@NonNull
+	IRenderFilter getSource() {
+		return this.source;
+	}
+	
+	/**
+	 * @return Whether anything indented by <code>indent</code> might be
+	 *         rendered.
+	 */
+	boolean rendersAt(final int indent) {
+		return indent <= this.maxIndent;
+	}
+	
+	/**
+	 * @return Decisions on rendering <code>features</code> of
+	 *         <code>eClass</code>, in the same order.
+	 */
+	@NonNull
+	DecisionTable getDecisions(
+			final @NonNull EClass eClass,
+			final @NonNull EStructuralFeature @NonNull [] features
+	) {
+		final DecisionTable cached = this.tables.get(eClass);
+		if (cached != null && cached.features == features) {
+			return cached;
+		}
+		
+		final DecisionTable table = new DecisionTable(features);
+		for (int i = 0; i < features.length; i++) {
+			table.decisions[i] = getDecision(features[i]);
+		}
+		this.tables.put(eClass, table);
+		return table;
+	}
+	
+	/**
+	 * @return Whether all filters that could not be compiled render
+	 *         <code>object</code>.
+	 */
+	boolean shouldRenderDynamic(final Object object, final int indent, final EObject context) {
+		for (final IRenderFilter filter : this.dynamic) {
+			if (!filter.shouldRender(object, indent, context)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Override
+	public boolean shouldRender(final Object object, final int indent, final EObject context) {
+		if (!rendersAt(indent)) {
+			return false;
+		}
+		if (object instanceof EStructuralFeature && context != null) {
+			final EStructuralFeature feature = (EStructuralFeature) object;
+			switch (getDecision(feature)) {
+				case OMIT:
+					return false;
+				case RENDER_IF_SET:
+					if (!context.eIsSet(feature)) {
+						return false;
+					}
+					break;
+				default:
+					break;
+			}
+		} else if (object instanceof EObject) {
+			if (!getDecision(((EObject) object).eClass())) {
+				return false;
+			}
+		}
+		return shouldRenderDynamic(object, indent, context);
+	}
+	
+	private boolean getDecision(final @NonNull EClass eClass) {
+		return this.eClassDecisions.computeIfAbsent(eClass, c -> {
+			for (final Predicate<? super EClass> predicate : this.eClassPredicates) {
+				if (!predicate.test(c)) {
+					return false;
+				}
+			}
+			return true;
+		});
+	}
+	
+	private @NonNull Decision getDecision(final @NonNull EStructuralFeature feature) {
+		return this.featureDecisions.computeIfAbsent(feature, f -> {
+			for (final Predicate<? super EStructuralFeature> predicate : this.featurePredicates) {
+				if (!predicate.test(f)) {
+					return Decision.OMIT;
+				}
+			}
+			return this.omitUnset ? Decision.RENDER_IF_SET : Decision.RENDER;
+		});
+	}
+	
+	/**
+	 * Adds the decisions of <code>filter</code>; only called while
+	 * constructing.
+	 */
+	private void collect(final @NonNull IRenderFilter filter) {
+		if (filter instanceof CompiledRenderFilter) {
+			collect(((CompiledRenderFilter) filter).source);
+		} else if (filter instanceof CompositeRenderFilter) {
+			for (final IRenderFilter part : ((CompositeRenderFilter) filter).filters) {
+				collect(part);
+			}
+		} else if (filter instanceof DeclarativeRenderFilter) {
+			final DeclarativeRenderFilter declarative = (DeclarativeRenderFilter) filter;
+			if (declarative.eClasses != null) {
+				this.eClassPredicates.add(declarative.eClasses);
+			}
+			if (declarative.features != null) {
+				this.featurePredicates.add(declarative.features);
+			}
+			this.maxIndent = Math.min(this.maxIndent, declarative.maxIndent);
+		} else if (filter.getClass() == OmitUnsetFilter.class) {
+			this.omitUnset = true;
+		} else if (filter != RenderEverythingFilter.INSTANCE) {
+			// unknown or subclassed, so it might decide differently
+			this.dynamic.add(filter);
+		}
+	}
+	
+	/**
+	 * Decisions on rendering the features of one EClass.
+	 */
+	static final class DecisionTable {
+		final @NonNull EStructuralFeature @NonNull [] features;
+		final @NonNull Decision @NonNull [] decisions;
+		
+		DecisionTable(final @NonNull EStructuralFeature @NonNull [] features) {
+			this.features = features;
+			this.decisions = new @NonNull Decision[features.length];
+		}
+	}
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Filter rendering an element if all its filters render it.
+ *
+ * @see RenderFilters#allOf(IRenderFilter...)
+ */
+final class CompositeRenderFilter implements IRenderFilter {
+	final @NonNull List<@NonNull IRenderFilter> filters;
+	
+	CompositeRenderFilter(final @NonNull List<@NonNull IRenderFilter> filters) {
+		this.filters = filters;
+	}
+	
+	@Override
+	public boolean shouldRender(final Object object, final int indent, final EObject context) {
+		for (final IRenderFilter filter : this.filters) {
+			if (!filter.shouldRender(object, indent, context)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
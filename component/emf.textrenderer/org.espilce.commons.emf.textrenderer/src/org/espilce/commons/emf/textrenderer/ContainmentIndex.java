@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.impl.BasicEObjectImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Containment structure of the rendered contents, to resolve reference targets
+ * without walking containment chains.
+ *
+ * <p>
+ * Built in one pass over the contents, numbering all EObjects in pre-order.
+ * The contents of an EObject form the interval of numbers following its own,
+ * so ancestor checks compare two numbers. The fragment path of an EObject
+ * relative to its root is computed once when needed, based on the path of its
+ * container and its position known from the pass. The URIs of all other
+ * targets are computed by {@link EcoreUtil#getURI(EObject)}, once per target.
+ * </p>
+ *
+ * <p>
+ * The results equal those of {@link EcoreUtil}, as long as the contents do not
+ * change. Contents not reached by the pass, e.g. EObjects replacing resolved
+ * containment proxies, are left to {@link EcoreUtil}. Safe to use
+ * concurrently once built.
+ * </p>
+ */
+final class ContainmentIndex {
+	/**
+	 * Whether instances of a class compute their URI fragment segments like
+	 * {@link BasicEObjectImpl}, so we can compute them from the position.
+	 */
+	private static final ClassValue<Boolean> DEFAULT_SEGMENTS = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(final Class<?> type) {
+			try {
+				return type.getMethod("eURIFragmentSegment", EStructuralFeature.class, EObject.class)
+						.getDeclaringClass() == BasicEObjectImpl.class;
+			} catch (final NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+	
+	private final Map<EObject, Node> nodes = new IdentityHashMap<>();
+	private final Map<EObject, URI> uris = new ConcurrentHashMap<>();
+	
+	private ContainmentIndex() {
+		// use build()
+	}
+	
+	/**
+	 * Indexes <code>roots</code> and all their direct and indirect contents.
+	 */
+	static @NonNull ContainmentIndex build(final @NonNull Collection<? extends EObject> roots) {
+		final ContainmentIndex index = new ContainmentIndex();
+		final Set<EObject> rootSet = Collections.newSetFromMap(new IdentityHashMap<>());
+		rootSet.addAll(roots);
+		for (final EObject root : roots) {
+			if (!index.nodes.containsKey(root) && !hasAncestorIn(root, rootSet)) {
+				index.indexTree(root);
+			}
+		}
+		return index;
+	}
+	
+	/**
+	 * Like {@link EcoreUtil#isAncestor(EObject, EObject)}.
+	 */
+	boolean isAncestor(final @NonNull EObject ancestor, final @NonNull EObject eObject) {
+		final Node ancestorNode = this.nodes.get(ancestor);
+		final Node node = this.nodes.get(eObject);
+		if (ancestorNode == null || node == null) {
+			return EcoreUtil.isAncestor(ancestor, eObject);
+		}
+		return ancestorNode.contains(node);
+	}
+	
+	/**
+	 * Like {@link EcoreUtil#getRelativeURIFragmentPath(EObject, EObject)}.
+	 */
+	@NonNull
+	String getRelativeURIFragmentPath(final @NonNull EObject ancestor, final @NonNull EObject descendant) {
+		final Node ancestorNode = this.nodes.get(ancestor);
+		final Node node = this.nodes.get(descendant);
+		if (ancestorNode == null || node == null || !ancestorNode.contains(node)) {
+			return EcoreUtil.getRelativeURIFragmentPath(ancestor, descendant);
+		}
+		if (ancestorNode == node) {
+			return "";
+		}
+		final String path = node.getPath();
+		return ancestorNode.parent == null ? path : path.substring(ancestorNode.getPath().length() + 1);
+	}
+	
+	/**
+	 * Like {@link EcoreUtil#getURI(EObject)}.
+	 */
+	@NonNull
+	URI getURI(final @NonNull EObject eObject) {
+		return this.uris.computeIfAbsent(eObject, EcoreUtil::getURI);
+	}
+	
+	private static boolean hasAncestorIn(final @NonNull EObject eObject, final @NonNull Set<EObject> candidates) {
+		for (EObject container = ((InternalEObject) eObject).eInternalContainer(); container != null;
+				container = ((InternalEObject) container).eInternalContainer()) {
+			if (candidates.contains(container)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Numbers <code>root</code> and its contents in pre-order, iteratively to
+	 * cope with deep containment.
+	 */
+	private void indexTree(final @NonNull EObject root) {
+		int next = this.nodes.size();
+		final Deque<Node> open = new ArrayDeque<>();
+		final Deque<Node> pending = new ArrayDeque<>();
+		pending.push(new Node(root, null, null, -1));
+		
+		while (!pending.isEmpty()) {
+			final Node node = pending.pop();
+			while (!open.isEmpty() && open.peek() != node.parent) {
+				open.pop().last = next - 1;
+			}
+			node.number = next++;
+			this.nodes.put(node.eObject, node);
+			open.push(node);
+			
+			// pushed in reverse, so contents are numbered in their order
+			final Deque<Node> contents = new ArrayDeque<>();
+			addContents(node, contents);
+			while (!contents.isEmpty()) {
+				pending.push(contents.pollLast());
+			}
+		}
+		while (!open.isEmpty()) {
+			open.pop().last = next - 1;
+		}
+	}
+	
+	private void addContents(final @NonNull Node node, final @NonNull Deque<Node> contents) {
+		final EObject eObject = node.eObject;
+		if (eObject.eIsProxy()) {
+			return;
+		}
+		for (final EReference containment : eObject.eClass().getEAllContainments()) {
+			if (containment.isDerived() || !eObject.eIsSet(containment)) {
+				continue;
+			}
+			// without resolving, so indexing never loads other Resources
+			final Object value = ((InternalEObject) eObject).eGet(containment, false, true);
+			if (containment.isMany()) {
+				final List<?> list = value instanceof InternalEList<?>
+						? ((InternalEList<?>) value).basicList()
+						: (List<?>) value;
+				int position = 0;
+				for (final Object content : list) {
+					addContent(node, containment, position++, content, contents);
+				}
+			} else {
+				addContent(node, containment, -1, value, contents);
+			}
+		}
+	}
+	
+	private void addContent(
+			final @NonNull Node container, final @NonNull EReference containment, final int position,
+			final @Nullable Object content, final @NonNull Deque<Node> contents
+	) {
+		if (content instanceof EObject && !this.nodes.containsKey(content)) {
+			contents.add(new Node((EObject) content, container, containment, position));
+		}
+	}
+	
+	private static final class Node {
+		final EObject eObject;
+		final Node parent;
+		final EReference containment;
+		final int position;
+		int number;
+		int last;
+		volatile String path;
+		
+		Node(final @NonNull EObject eObject, final @Nullable Node parent, final @Nullable EReference containment,
+				final int position) {
+			this.eObject = eObject;
+			this.parent = parent;
+			this.containment = containment;
+			this.position = position;
+		}
+		
+		boolean contains(final @NonNull Node node) {
+			return this.number <= node.number && node.number <= this.last;
+		}
+		
+		/**
+		 * @return Fragment path relative to the root; computed for all
+		 *         containers missing one, which keeps them for later calls.
+		 */
+		@NonNull
+		String getPath() {
+			String result = this.path;
+			if (result != null) {
+				return result;
+			}
+			
+			final Deque<Node> missing = new ArrayDeque<>();
+			Node current = this;
+			while (current.parent != null && current.path == null) {
+				missing.push(current);
+				current = current.parent;
+			}
+			String parentPath = current.parent == null ? null : current.path;
+			for (final Node node : missing) {
+				final String segment = node.getSegment();
+				parentPath = parentPath == null ? segment : parentPath + '/' + segment;
+				node.path = parentPath;
+			}
+			return this.parent == null ? "" : this.path;
+		}
+		
+		/**
+		 * Like {@link InternalEObject#eURIFragmentSegment(EStructuralFeature, EObject)}
+		 * of the container, without searching the position for the default
+		 * implementation.
+		 */
+		private @NonNull String getSegment() {
+			final EObject container = this.parent.eObject;
+			if (DEFAULT_SEGMENTS.get(container.getClass()) && this.containment.getEKeys().isEmpty()
+					&& this.eObject.eContainingFeature() == this.containment) {
+				return this.position < 0
+						? '@' + this.containment.getName()
+						: '@' + this.containment.getName() + '.' + this.position;
+			}
+			return ((InternalEObject) container).eURIFragmentSegment(this.eObject.eContainingFeature(), this.eObject);
+		}
+	}
+}
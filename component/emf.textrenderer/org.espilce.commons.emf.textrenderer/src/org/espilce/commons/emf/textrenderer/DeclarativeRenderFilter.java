@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import java.util.function.Predicate;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Filter deciding by EClass, feature, and indentation only, so it can be
+ * {@linkplain CompiledRenderFilter compiled}.
+ *
+ * @see RenderFilters
+ */
+final class DeclarativeRenderFilter implements IRenderFilter {
+	static final int UNLIMITED = Integer.MAX_VALUE;
+	
+	final @Nullable Predicate<? super EClass> eClasses;
+	final @Nullable Predicate<? super EStructuralFeature> features;
+	final int maxIndent;
+	
+	DeclarativeRenderFilter(
+			final @Nullable Predicate<? super EClass> eClasses,
+			final @Nullable Predicate<? super EStructuralFeature> features, final int maxIndent
+	) {
+		this.eClasses = eClasses;
+		this.features = features;
+		this.maxIndent = maxIndent;
+	}
+	
+	@Override
+	public boolean shouldRender(final Object object, final int indent, final EObject context) {
+		if (indent > this.maxIndent) {
+			return false;
+		}
+		if (object instanceof EStructuralFeature && context != null) {
+			return this.features == null || this.features.test((EStructuralFeature) object);
+		}
+		if (object instanceof EObject) {
+			return this.eClasses == null || this.eClasses.test(((EObject) object).eClass());
+		}
+		return true;
+	}
+}
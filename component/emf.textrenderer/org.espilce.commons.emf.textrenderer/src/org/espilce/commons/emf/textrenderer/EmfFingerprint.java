@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * 128-bit fingerprint of the rendering of EMF contents.
+ *
+ * <p>
+ * Equal renderings have equal fingerprints. Different renderings have
+ * different fingerprints with overwhelming probability.
+ * </p>
+ *
+ * @see EmfFingerprintRenderer
+ * @since 0.2
+ */
+public final class EmfFingerprint {
+	private final long high;
+	private final long low;
+	
+	EmfFingerprint(final byte @NonNull [] digest) {
+		this.high = toLong(digest, 0);
+		this.low = toLong(digest, 8);
+	}
+	
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof EmfFingerprint)) {
+			return false;
+		}
+		final EmfFingerprint other = (EmfFingerprint) obj;
+		return this.high == other.high && this.low == other.low;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Long.hashCode(this.high ^ this.low);
+	}
+	
+	/**
+	 * @return The fingerprint as 32 hexadecimal digits.
+	 */
+	@Override
+	public @NonNull String toString() {
+		return toHex(this.high) + toHex(this.low);
+	}
+	
+	private static long toLong(final byte @NonNull [] bytes, final int offset) {
+		long result = 0;
+		for (int i = offset; i < offset + 8; i++) {
+			result = (result << 8) | (bytes[i] & 0xFF);
+		}
+		return result;
+	}
+	
+	private static @NonNull String toHex(final long value) {
+		final String hex = Long.toHexString(value);
+		return "0000000000000000".substring(hex.length()) + hex;
+	}
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Computes a {@linkplain EmfFingerprint fingerprint} of the rendering of EMF
+ * contents, without creating the rendering.
+ *
+ * <p>
+ * Feeds the text {@link EmfStringRenderer} would create into a hash, including
+ * all customizations of subclasses. As a side product, every rendered EObject
+ * gets a fingerprint of its subtree, available by
+ * {@link #getFingerprint(EObject)}. Equal subtrees at the same indentation have
+ * equal fingerprints, so comparing the fingerprints of two contents quickly
+ * leads to their first difference.
+ * </p>
+ *
+ * <p>
+ * Subtree fingerprints are nested: Within the fingerprint of a container, each
+ * of its contents is represented by its own fingerprint. Therefore,
+ * {@link #render()} of this class yields the text of the outermost level, with
+ * fingerprints in place of all EObjects.
+ * </p>
+ *
+ * @since 0.2
+ */
+public class EmfFingerprintRenderer extends EmfStringRenderer {
+	private static final String ALGORITHM = "MD5";
+	
+	private final Map<EObject, EmfFingerprint> fingerprints = new ConcurrentHashMap<>();
+	
+	public EmfFingerprintRenderer(final @NonNull Resource resource) {
+		super(resource);
+	}
+	
+	public EmfFingerprintRenderer(final @NonNull Collection<@NonNull EObject> eObjects) {
+		super(eObjects);
+	}
+	
+	public EmfFingerprintRenderer(final @NonNull EObject eObject) {
+		super(eObject);
+	}
+	
+	/**
+	 * Computes the fingerprint of the rendering, and of all rendered EObjects.
+	 *
+	 * @return Fingerprint of the complete rendering.
+	 */
+	public @NonNull EmfFingerprint fingerprint() {
+		final Hasher hasher = new Hasher();
+		try {
+			render(hasher);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return hasher.finish();
+	}
+	
+	/**
+	 * Computes the fingerprint like {@link #fingerprint()}, rendering large
+	 * collections on <code>pool</code> in parallel.
+	 *
+	 * @param pool
+	 *            Pool to render on.
+	 * @return Fingerprint of the complete rendering.
+	 * @see EmfStringRenderer Requirements of parallel rendering
+	 */
+	public @NonNull EmfFingerprint fingerprint(final @NonNull ForkJoinPool pool) {
+		final Hasher hasher = new Hasher();
+		try {
+			render(hasher, pool);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return hasher.finish();
+	}
+	
+	/**
+	 * @param eObject
+	 *            EObject to get the subtree fingerprint of.
+	 * @return Fingerprint of <code>eObject</code>'s rendering, including its
+	 *         contents; {@code null} if <code>eObject</code> has not been
+	 *         rendered (yet).
+	 */
+	public @Nullable EmfFingerprint getFingerprint(final @NonNull EObject eObject) {
+		return this.fingerprints.get(eObject);
+	}
+	
+	@Override
+	protected boolean isFeatureRenderingCustomized() {
+		// this class does not customize features, but its subclasses might
+		return getClass() != EmfFingerprintRenderer.class;
+	}
+	
+	@Override
+	protected void renderEObject(final @NonNull EObject eObject, final int indent, final @Nullable EObject context) {
+		final Hasher hasher = new Hasher();
+		renderRedirected(hasher, () -> super.renderEObject(eObject, indent, context));
+		final EmfFingerprint fingerprint = hasher.finish();
+		this.fingerprints.put(eObject, fingerprint);
+		write(fingerprint.toString());
+	}
+	
+	/**
+	 * Feeds all appended chars into a digest.
+	 */
+	private static final class Hasher implements Appendable {
+		private static final MessageDigest PROTOTYPE = createPrototype();
+		
+		private final MessageDigest digest;
+		private final byte[] buffer = new byte[256];
+		private int position;
+		
+		Hasher() {
+			try {
+				this.digest = (MessageDigest) PROTOTYPE.clone();
+			} catch (final CloneNotSupportedException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		
+		@Override
+		public Appendable append(final CharSequence csq) {
+			final CharSequence chars = csq != null ? csq : "null";
+			return append(chars, 0, chars.length());
+		}
+		
+		@Override
+		public Appendable append(final CharSequence csq, final int start, final int end) {
+			final CharSequence chars = csq != null ? csq : "null";
+			for (int i = start; i < end; i++) {
+				append(chars.charAt(i));
+			}
+			return this;
+		}
+		
+		@Override
+		public Appendable append(final char c) {
+			if (this.position == this.buffer.length) {
+				this.digest.update(this.buffer, 0, this.position);
+				this.position = 0;
+			}
+			this.buffer[this.position++] = (byte) (c >>> 8);
+			this.buffer[this.position++] = (byte) c;
+			return this;
+		}
+		
+		@NonNull
+		EmfFingerprint finish() {
+			this.digest.update(this.buffer, 0, this.position);
+			this.position = 0;
+			return new EmfFingerprint(this.digest.digest());
+		}
+		
+		private static MessageDigest createPrototype() {
+			try {
+				return MessageDigest.getInstance(ALGORITHM);
+			} catch (final NoSuchAlgorithmException e) {
+				// every Java platform supports MD5
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
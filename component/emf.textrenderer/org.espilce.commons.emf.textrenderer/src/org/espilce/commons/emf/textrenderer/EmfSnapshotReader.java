@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Reads a snapshot written by
+ * {@link EmfStringRenderer#renderSnapshot(java.io.OutputStream)} line by line.
+ *
+ * <p>
+ * Lines are decoded one at a time, so snapshots of any size can be converted
+ * to text or compared without loading them. Lines are numbered from 1; the
+ * first line holds the text before the first newline of the rendering.
+ * </p>
+ *
+ * @since 0.2
+ */
+public final class EmfSnapshotReader implements Closeable {
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final InputStream in;
+	private final List<String> tokens = new ArrayList<>();
+	private final StringBuilder builder = new StringBuilder();
+	private boolean ended;
+	private int nextIndent;
+	private long lineNumber;
+	private int indent;
+	private String text;
+	
+	/**
+	 * @param inputStream
+	 *            Snapshot to read; closed by {@link #close()}.
+	 * @throws IOException
+	 *             If <code>inputStream</code> fails, or does not start with a
+	 *             snapshot header.
+	 */
+	public EmfSnapshotReader(final @NonNull InputStream inputStream) throws IOException {
+		this.in = new BufferedInputStream(inputStream, BUFFER_SIZE);
+		final byte[] magic = new byte[SnapshotFormat.MAGIC.length];
+		if (readFully(magic) < magic.length || !Arrays.equals(magic, SnapshotFormat.MAGIC)) {
+			throw new IOException("Not a snapshot");
+		}
+		final int version = SnapshotFormat.readVarint(this.in);
+		if (version != SnapshotFormat.VERSION) {
+			throw new IOException("Unsupported snapshot version " + version);
+		}
+	}
+	
+	/**
+	 * Advances to the next line.
+	 *
+	 * @return <code>false</code> if there are no more lines.
+	 * @throws IOException
+	 *             If reading fails, or the snapshot is corrupt.
+	 */
+	public boolean next() throws IOException {
+		if (this.ended) {
+			this.text = null;
+			return false;
+		}
+		
+		this.builder.setLength(0);
+		this.indent = this.nextIndent;
+		this.lineNumber++;
+		while (true) {
+			final int record = SnapshotFormat.readVarint(this.in);
+			if (record == SnapshotFormat.END) {
+				this.ended = true;
+				break;
+			} else if (record == SnapshotFormat.LINE) {
+				this.nextIndent = SnapshotFormat.readVarint(this.in);
+				break;
+			} else if (record == SnapshotFormat.NEW_TOKEN) {
+				final byte[] bytes = new byte[SnapshotFormat.readVarint(this.in)];
+				if (readFully(bytes) < bytes.length) {
+					throw new EOFException("Truncated snapshot");
+				}
+				final String token = new String(bytes, StandardCharsets.UTF_8);
+				this.tokens.add(token);
+				this.builder.append(token);
+			} else {
+				final int index = record - SnapshotFormat.FIRST_TOKEN;
+				if (index >= this.tokens.size()) {
+					throw new IOException("Corrupt snapshot: unknown token " + index);
+				}
+				this.builder.append(this.tokens.get(index));
+			}
+		}
+		this.text = this.builder.toString();
+		return true;
+	}
+	
+	/**
+	 * @return Number of the current line, starting at 1.
+	 */
+	public long getLineNumber() {
+		return this.lineNumber;
+	}
+	
+	/**
+	 * @return Indentation level of the current line.
+	 */
+	public int getIndent() {
+		return this.indent;
+	}
+	
+	/**
+	 * @return Text of the current line without indentation;
+	 *         <code>null</code> before the first and after the last line.
+	 */
+	public @Nullable String getText() {
+		return this.text;
+	}
+	
+	/**
+	 * Writes all remaining lines to <code>target</code> like
+	 * {@link EmfStringRenderer} with its default newline and indentation.
+	 *
+	 * @see #toText(Appendable, String, String)
+	 */
+	public void toText(final @NonNull Appendable target) throws IOException {
+		toText(target, "\n", "  ");
+	}
+	
+	/**
+	 * Writes all remaining lines to <code>target</code>.
+	 *
+	 * @param target
+	 *            Where to write the text.
+	 * @param newline
+	 *            Written before every line but the first.
+	 * @param indentation
+	 *            Written once per indentation level.
+	 * @throws IOException
+	 *             If reading or writing fails.
+	 */
+	public void toText(
+			final @NonNull Appendable target, final @NonNull String newline,
+			final @NonNull String indentation
+	) throws IOException {
+		while (next()) {
+			if (this.lineNumber > 1) {
+				target.append(newline);
+				for (int i = 0; i < this.indent; i++) {
+					target.append(indentation);
+				}
+			}
+			target.append(this.text);
+		}
+	}
+	
+	/**
+	 * Advances both readers until their lines differ.
+	 *
+	 * <p>
+	 * Afterwards, both readers are positioned at the first differing line,
+	 * which is available through {@link #getIndent()} and {@link #getText()}.
+	 * The text of a reader that ran out of lines is <code>null</code>.
+	 * </p>
+	 *
+	 * @return Number of the first differing line; <code>-1</code> if both
+	 *         snapshots render the same text.
+	 * @throws IOException
+	 *             If reading fails, or a snapshot is corrupt.
+	 */
+	public static long mismatch(final @NonNull EmfSnapshotReader first, final @NonNull EmfSnapshotReader second)
+			throws IOException {
+		while (true) {
+			final boolean hasFirst = first.next();
+			final boolean hasSecond = second.next();
+			if (!hasFirst && !hasSecond) {
+				return -1;
+			}
+			if (hasFirst != hasSecond || first.indent != second.indent || !first.text.equals(second.text)) {
+				return Math.max(first.lineNumber, second.lineNumber);
+			}
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.in.close();
+	}
+	
+	private int readFully(final byte @NonNull [] bytes) throws IOException {
+		int read = 0;
+		while (read < bytes.length) {
+			final int count = this.in.read(bytes, read, bytes.length - read);
+			if (count < 0) {
+				break;
+			}
+			read += count;
+		}
+		return read;
+	}
+}
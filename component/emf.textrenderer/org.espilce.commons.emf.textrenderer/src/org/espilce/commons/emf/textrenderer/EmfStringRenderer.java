@@ -9,27 +9,87 @@
  ******************************************************************************/
 package org.espilce.commons.emf.textrenderer;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Consumer;
 
 import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.emf.textrenderer.CompiledRenderFilter.DecisionTable;
 
 /**
  * Creates a human-readable tree-like text rendering of EMF contents.
  * 
+ * <p>
+ * The rendering can either be retrieved as String by {@link #render()}, or be
+ * streamed to an {@link Appendable}, {@link Writer}, or {@link OutputStream}
+ * while it is created. Streaming never holds the complete rendering in memory,
+ * so it scales to contents whose rendering would not fit into one String.
+ * </p>
+ * 
+ * <p>
+ * All variants can render on a {@link ForkJoinPool}: The elements of large
+ * collections, e.g. the roots of a Resource, are then rendered in parallel into
+ * separate buffers, which are written in their original order. The result is
+ * identical to sequential rendering. This requires all overridden methods and
+ * the {@linkplain #getFilter() filter} to be safe to call concurrently, and the
+ * rendered contents and their metamodel to neither change nor contain
+ * unresolved proxies while rendering.
+ * </p>
+ * 
+ * <p>
+ * A renderer is not reentrant: It keeps the state of the current rendering,
+ * e.g. its target, in fields. Therefore, it must not start another rendering,
+ * neither from another thread nor from an overridden method, before the
+ * current one has finished. Parallel rendering coordinates its threads itself.
+ * </p>
+ * 
  * @since 0.1
  */
 public class EmfStringRenderer {
-	private final StringBuilder builder = new StringBuilder();
+	private static final int BUFFER_SIZE = 8192;
+	private static final int CHUNKS_PER_THREAD = 4;
+	private static final int MAX_CHUNK_SIZE = 64;
+	private static final int SURPLUS_TASK_LIMIT = 1;
+	private static final @NonNull IRenderFilter DEFAULT_FILTER = new OmitUnsetFilter();
+	private static final Comparator<EStructuralFeature> FEATURE_ORDER = Comparator
+			.comparing(EStructuralFeature::getName);
+	
+	private final Map<EClass, SortedFeatures> sortedFeatures = new ConcurrentHashMap<>();
+	private final Object containmentIndexLock = new Object();
+	private volatile ContainmentIndex containmentIndex;
+	private Appendable out;
+	private ThreadLocal<Appendable> parallelOut;
+	private CompiledRenderFilter filter;
+	private CompiledRenderFilter compiledFilter;
+	private String rendered;
 	private final Resource resource;
 	private final Collection<EObject> eObjects;
 	private final EObject eObject;
@@ -65,11 +125,215 @@ public class EmfStringRenderer {
 	 * Public API to render.
 	 */
 	public @NonNull String render() {
-		if (this.builder.length() == 0) {
-			doRender();
+		if (this.rendered == null) {
+			final StringBuilder builder = new StringBuilder();
+			renderTo(builder, null);
+			this.rendered = builder.toString();
 		}
 		
-		return this.builder.toString();
+		return this.rendered;
+	}
+	
+	/**
+	 * Renders like {@link #render()}, rendering large collections on
+	 * <code>pool</code> in parallel.
+	 * 
+	 * @param pool
+	 *            Pool to render on.
+	 * @see EmfStringRenderer Requirements of parallel rendering
+	 * @since 0.2
+	 */
+	public @NonNull String render(final @NonNull ForkJoinPool pool) {
+		if (this.rendered == null) {
+			final StringBuilder builder = new StringBuilder();
+			renderTo(builder, pool);
+			this.rendered = builder.toString();
+		}
+		
+		return this.rendered;
+	}
+	
+	/**
+	 * Renders to <code>appendable</code>, appending as rendering proceeds.
+	 * 
+	 * <p>
+	 * <code>appendable</code> is used as-is, i.e. it receives many short
+	 * appends. Use {@link #render(Writer)} to get buffered output.
+	 * </p>
+	 * 
+	 * @param appendable
+	 *            Target of the rendering.
+	 * @throws IOException
+	 *             If <code>appendable</code> fails.
+	 * @since 0.2
+	 */
+	public void render(final @NonNull Appendable appendable) throws IOException {
+		try {
+			renderTo(appendable, null);
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Renders like {@link #render(Appendable)}, rendering large collections on
+	 * <code>pool</code> in parallel.
+	 * 
+	 * <p>
+	 * <code>appendable</code> is only written from one thread at a time, but
+	 * not necessarily from the calling thread.
+	 * </p>
+	 * 
+	 * @param appendable
+	 *            Target of the rendering.
+	 * @param pool
+	 *            Pool to render on.
+	 * @throws IOException
+	 *             If <code>appendable</code> fails.
+	 * @see EmfStringRenderer Requirements of parallel rendering
+	 * @since 0.2
+	 */
+	public void render(final @NonNull Appendable appendable, final @NonNull ForkJoinPool pool) throws IOException {
+		try {
+			renderTo(appendable, pool);
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Renders to <code>writer</code> through a bounded buffer, and flushes
+	 * <code>writer</code> afterwards.
+	 * 
+	 * <p>
+	 * Does not close <code>writer</code>.
+	 * </p>
+	 * 
+	 * @param writer
+	 *            Target of the rendering.
+	 * @throws IOException
+	 *             If <code>writer</code> fails.
+	 * @since 0.2
+	 */
+	public void render(final @NonNull Writer writer) throws IOException {
+		final BufferedWriter bufferedWriter = new BufferedWriter(writer, BUFFER_SIZE);
+		render((Appendable) bufferedWriter);
+		bufferedWriter.flush();
+	}
+	
+	/**
+	 * Renders like {@link #render(Writer)}, rendering large collections on
+	 * <code>pool</code> in parallel.
+	 * 
+	 * @param writer
+	 *            Target of the rendering.
+	 * @param pool
+	 *            Pool to render on.
+	 * @throws IOException
+	 *             If <code>writer</code> fails.
+	 * @see EmfStringRenderer Requirements of parallel rendering
+	 * @since 0.2
+	 */
+	public void render(final @NonNull Writer writer, final @NonNull ForkJoinPool pool) throws IOException {
+		final BufferedWriter bufferedWriter = new BufferedWriter(writer, BUFFER_SIZE);
+		render((Appendable) bufferedWriter, pool);
+		bufferedWriter.flush();
+	}
+	
+	/**
+	 * Renders to <code>outputStream</code> in <code>charset</code> through a
+	 * bounded buffer, and flushes <code>outputStream</code> afterwards.
+	 * 
+	 * <p>
+	 * Does not close <code>outputStream</code>.
+	 * </p>
+	 * 
+	 * @param outputStream
+	 *            Target of the rendering.
+	 * @param charset
+	 *            Encoding of the rendering.
+	 * @throws IOException
+	 *             If <code>outputStream</code> fails.
+	 * @since 0.2
+	 */
+	public void render(final @NonNull OutputStream outputStream, final @NonNull Charset charset) throws IOException {
+		render(new OutputStreamWriter(outputStream, charset));
+	}
+	
+	/**
+	 * Renders like {@link #render(OutputStream, Charset)}, rendering large
+	 * collections on <code>pool</code> in parallel.
+	 * 
+	 * @param outputStream
+	 *            Target of the rendering.
+	 * @param charset
+	 *            Encoding of the rendering.
+	 * @param pool
+	 *            Pool to render on.
+	 * @throws IOException
+	 *             If <code>outputStream</code> fails.
+	 * @see EmfStringRenderer Requirements of parallel rendering
+	 * @since 0.2
+	 */
+	public void render(
+			final @NonNull OutputStream outputStream, final @NonNull Charset charset,
+			final @NonNull ForkJoinPool pool
+	) throws IOException {
+		render(new OutputStreamWriter(outputStream, charset), pool);
+	}
+	
+	/**
+	 * Renders to <code>outputStream</code> in a compact binary format.
+	 * 
+	 * <p>
+	 * The snapshot holds the same text as {@link #render()}, but stores every
+	 * distinct piece of text once, and line breaks and indentation as numbers.
+	 * Use {@link EmfSnapshotReader} to turn it back into text, or to compare
+	 * two snapshots. {@link #getNewline()} and {@link #getIndentation()} are
+	 * not part of the snapshot.
+	 * </p>
+	 * 
+	 * <p>
+	 * Does not close <code>outputStream</code>. Subclasses must not override
+	 * {@link #appendIndex(int)} to render snapshots.
+	 * </p>
+	 * 
+	 * @param outputStream
+	 *            Target of the snapshot.
+	 * @throws IOException
+	 *             If <code>outputStream</code> fails.
+	 * @since 0.2
+	 */
+	public void renderSnapshot(final @NonNull OutputStream outputStream) throws IOException {
+		final SnapshotEncoder encoder = new SnapshotEncoder(outputStream);
+		try {
+			renderTo(encoder, null);
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+		encoder.finish();
+	}
+	
+	private void renderTo(final @NonNull Appendable appendable, final @Nullable ForkJoinPool pool) {
+		this.out = appendable;
+		try {
+			if (this.rendered != null && !(appendable instanceof SnapshotEncoder)) {
+				write(this.rendered);
+			} else {
+				this.filter = compileFilter();
+				if (pool == null) {
+					doRender();
+				} else {
+					this.parallelOut = new ThreadLocal<>();
+					pool.invoke(ForkJoinTask.adapt(() -> renderChunk(appendable, this::doRender)));
+				}
+			}
+		} finally {
+			this.out = null;
+			this.filter = null;
+			this.parallelOut = null;
+			this.containmentIndex = null;
+		}
 	}
 	
 	/**
@@ -91,14 +355,17 @@ public class EmfStringRenderer {
 	 * {@link #render()} call, guarded by {@link #getFilter()}.
 	 */
 	protected void renderFiltered(final @NonNull Object object, final int indent, final @Nullable EObject context) {
-		if (getFilter().shouldRender(object, indent, context)) {
+		if (this.filter == null) {
+			this.filter = compileFilter();
+		}
+		if (this.filter.shouldRender(object, indent, context)) {
 			render(object, indent, context);
 		}
 	}
 	
 	protected void renderResource(final @NonNull Resource resource, final int indent, final @Nullable EObject context) {
 		append("Resource: ", indent);
-		this.builder.append(resource.getURI());
+		write(resource.getURI());
 		renderFiltered(resource.getContents(), (indent + 1), null);
 	}
 	
@@ -113,37 +380,46 @@ public class EmfStringRenderer {
 			final @NonNull Collection<@NonNull T> collection,
 			final int indent, final @Nullable EObject context, final @NonNull Consumer<@NonNull T> lineRenderer
 	) {
-		this.builder.append("[");
-		for (final T element : collection) {
-			{
-				append("", (indent + 1));
-				lineRenderer.accept(element);
+		write("[");
+		if (shouldRenderInParallel(collection)) {
+			renderInParallel(collection, indent, lineRenderer);
+		} else {
+			for (final T element : collection) {
+				{
+					append("", (indent + 1));
+					lineRenderer.accept(element);
+				}
 			}
 		}
 		append("]", indent);
 	}
 	
 	protected void renderEObject(final @NonNull EObject eObject, final int indent, final @Nullable EObject context) {
-		this.builder.append(eObject.eClass().getName());
+		write(eObject.eClass().getName());
 		if (!eObject.eIsProxy()) {
-			this.builder.append(" {");
-			eObject.eClass().getEAllStructuralFeatures().stream().sorted((a, b) -> a.getName().compareTo(b.getName()))
-					.forEachOrdered(feature -> renderFiltered(feature, (indent + 1), eObject));
+			write(" {");
+			renderFeatures(eObject, (indent + 1));
 			append("}", indent);
 		} else {
-			this.builder.append(" (");
-			this.builder.append(((InternalEObject) eObject).eProxyURI());
-			this.builder.append(")");
+			write(" (");
+			write(((InternalEObject) eObject).eProxyURI());
+			write(")");
 		}
 	}
 	
 	protected void renderEAttribute(
 			final @NonNull EAttribute attribute, final int indent,
 			final @NonNull EObject context
+	) {
+		renderEAttribute(attribute, indent, context, context.eGet(attribute));
+	}
+	
+	private void renderEAttribute(
+			final @NonNull EAttribute attribute, final int indent,
+			final @NonNull EObject context, final @Nullable Object value
 	) {
 		append(attribute.getName(), indent);
-		this.builder.append("=");
-		final Object value = context.eGet(attribute);
+		write("=");
 		if (attribute.isMany()) {
 			@SuppressWarnings("unchecked")
 			final Collection<Object> collection = (Collection<Object>) value;
@@ -161,25 +437,31 @@ public class EmfStringRenderer {
 			final @Nullable EObject context, final @Nullable Object value
 	) {
 		if (value instanceof CharSequence) {
-			this.builder.append("\"");
-			this.builder.append((CharSequence) value);
-			this.builder.append("\"");
+			write("\"");
+			write((CharSequence) value);
+			write("\"");
 		} else {
-			this.builder.append(value);
+			write(value);
 		}
 	}
 	
 	protected void renderEReference(
 			final @NonNull EReference reference, final int indent,
 			final @NonNull EObject context
+	) {
+		renderEReference(reference, indent, context, context.eGet(reference));
+	}
+	
+	private void renderEReference(
+			final @NonNull EReference reference, final int indent,
+			final @NonNull EObject context, final @Nullable Object value
 	) {
 		append(reference.getName(), indent);
 		if (reference.isContainment()) {
-			this.builder.append(": ");
-			renderFiltered(context.eGet(reference), indent, context);
+			write(": ");
+			renderFiltered(value, indent, context);
 		} else {
-			this.builder.append(" -> ");
-			final Object value = context.eGet(reference);
+			write(" -> ");
 			if (reference.isMany()) {
 				@SuppressWarnings("unchecked")
 				final Collection<EObject> collection = (Collection<EObject>) value;
@@ -200,16 +482,23 @@ public class EmfStringRenderer {
 		if (target != null) {
 			final String id = EcoreUtil.getID(target);
 			if (id != null && id.length() > 0) {
-				this.builder.append(id);
+				write(id);
 			} else {
-				if (EcoreUtil.isAncestor(context, target)) {
-					this.builder.append(EcoreUtil.getRelativeURIFragmentPath(context, target));
+				final ContainmentIndex index = getContainmentIndex();
+				if (index == null) {
+					if (EcoreUtil.isAncestor(context, target)) {
+						write(EcoreUtil.getRelativeURIFragmentPath(context, target));
+					} else {
+						write(EcoreUtil.getURI(target));
+					}
+				} else if (index.isAncestor(context, target)) {
+					write(index.getRelativeURIFragmentPath(context, target));
 				} else {
-					this.builder.append(EcoreUtil.getURI(target));
+					write(index.getURI(target));
 				}
 			}
 		} else {
-			this.builder.append("null");
+			write("null");
 		}
 	}
 	
@@ -219,20 +508,313 @@ public class EmfStringRenderer {
 	 */
 	protected void append(final @Nullable Object text, final int indent) {
 		appendIndex(indent);
-		this.builder.append(text);
+		write(text);
 	}
 	
 	protected void appendIndex(final int indent) {
-		this.builder.append(getNewline());
+		if (isRenderingSnapshot()) {
+			try {
+				((SnapshotEncoder) getOut()).line(indent);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return;
+		}
+		
+		write(getNewline());
 		for (int i = 0; (i < indent); i++) {
-			this.builder.append(getIndentation());
+			write(getIndentation());
+		}
+	}
+	
+	private void write(final @Nullable Object text) {
+		write(String.valueOf(text));
+	}
+	
+	void write(final @Nullable CharSequence text) {
+		try {
+			getOut().append(text);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * @return Where the current thread renders to.
+	 */
+	@NonNull
+	Appendable getOut() {
+		final ThreadLocal<Appendable> threadOut = this.parallelOut;
+		return threadOut != null ? threadOut.get() : this.out;
+	}
+	
+	/**
+	 * @return Whether the current thread renders a
+	 *         {@linkplain #renderSnapshot(OutputStream) snapshot}.
+	 */
+	boolean isRenderingSnapshot() {
+		return getOut() instanceof SnapshotEncoder;
+	}
+	
+	/**
+	 * Runs <code>renderer</code> with all output of the current thread going
+	 * to <code>target</code>, in both sequential and parallel rendering.
+	 */
+	void renderRedirected(final @NonNull Appendable target, final @NonNull Runnable renderer) {
+		if (this.parallelOut != null) {
+			renderChunk(target, renderer);
+			return;
+		}
+		
+		final Appendable previous = this.out;
+		this.out = target;
+		try {
+			renderer.run();
+		} finally {
+			this.out = previous;
+		}
+	}
+	
+	/**
+	 * Drops the String kept by {@link #render()}, so the next call renders
+	 * again.
+	 */
+	void discardRendered() {
+		this.rendered = null;
+	}
+	
+	/**
+	 * Renders the features of <code>eObject</code> like
+	 * {@link #renderFiltered(Object, int, EObject)} would, but decides by the
+	 * compiled filter's table, and fetches each value only once, unless
+	 * {@linkplain #isFeatureRenderingCustomized() customized}.
+	 */
+	private void renderFeatures(final @NonNull EObject eObject, final int indent) {
+		final EStructuralFeature[] features = getSortedFeatures(eObject.eClass());
+		final CompiledRenderFilter compiled = this.filter;
+		if (compiled == null || isFeatureRenderingCustomized()) {
+			for (final EStructuralFeature feature : features) {
+				renderFiltered(feature, indent, eObject);
+			}
+			return;
+		}
+		if (!compiled.rendersAt(indent)) {
+			return;
+		}
+		
+		final DecisionTable table = compiled.getDecisions(eObject.eClass(), features);
+		for (int i = 0; i < features.length; i++) {
+			final EStructuralFeature feature = features[i];
+			switch (table.decisions[i]) {
+				case OMIT:
+					break;
+				case RENDER_IF_SET:
+					if (eObject.eIsSet(feature) && compiled.shouldRenderDynamic(feature, indent, eObject)) {
+						renderFeature(feature, indent, eObject, eObject.eGet(feature));
+					}
+					break;
+				default:
+					if (compiled.shouldRenderDynamic(feature, indent, eObject)) {
+						renderFeature(feature, indent, eObject, eObject.eGet(feature));
+					}
+					break;
+			}
+		}
+	}
+	
+	private void renderFeature(
+			final @NonNull EStructuralFeature feature, final int indent, final @NonNull EObject context,
+			final @Nullable Object value
+	) {
+		if (feature instanceof EAttribute) {
+			renderEAttribute((EAttribute) feature, indent, context, value);
+		} else {
+			renderEReference((EReference) feature, indent, context, value);
+		}
+	}
+	
+	/**
+	 * Whether this renderer customizes how features are rendered, i.e.
+	 * overrides {@link #renderFiltered(Object, int, EObject)},
+	 * {@link #render(Object, int, EObject)},
+	 * {@link #renderEAttribute(EAttribute, int, EObject)}, or
+	 * {@link #renderEReference(EReference, int, EObject)}.
+	 * 
+	 * <p>
+	 * If not, the features of each EObject are decided by the compiled
+	 * {@linkplain #getFilter() filter} and rendered without calling these
+	 * methods. Returns {@code true} for all subclasses, so their
+	 * customizations are always honored; subclasses that do not override these
+	 * methods may return {@code false} to render faster.
+	 * </p>
+	 * 
+	 * @since 0.2
+	 */
+	protected boolean isFeatureRenderingCustomized() {
+		return getClass() != EmfStringRenderer.class;
+	}
+	
+	/**
+	 * @return {@link #getFilter()}, compiled once per filter.
+	 */
+	private @NonNull CompiledRenderFilter compileFilter() {
+		final IRenderFilter source = getFilter();
+		CompiledRenderFilter compiled = this.compiledFilter;
+		if (compiled == null || compiled.getSource() != source) {
+			compiled = CompiledRenderFilter.compile(source);
+			this.compiledFilter = compiled;
+		}
+		return compiled;
+	}
+	
+	/**
+	 * Whether reference targets are resolved by a {@link ContainmentIndex} of
+	 * the rendered contents, built once per rendering.
+	 */
+	boolean isIndexingContainment() {
+		return true;
+	}
+	
+	/**
+	 * @return Index of the rendered contents, built on first use within the
+	 *         current rendering; <code>null</code> if not rendering or not
+	 *         {@linkplain #isIndexingContainment() indexing}.
+	 */
+	private @Nullable ContainmentIndex getContainmentIndex() {
+		ContainmentIndex index = this.containmentIndex;
+		if (index != null || this.out == null || !isIndexingContainment()) {
+			return index;
+		}
+		
+		synchronized (this.containmentIndexLock) {
+			index = this.containmentIndex;
+			if (index == null) {
+				if (this.resource != null) {
+					index = ContainmentIndex.build(this.resource.getContents());
+				} else if (this.eObject != null) {
+					index = ContainmentIndex.build(Collections.singleton(this.eObject));
+				} else {
+					index = ContainmentIndex.build(this.eObjects);
+				}
+				this.containmentIndex = index;
+			}
+			return index;
+		}
+	}
+	
+	/**
+	 * Whether we render in parallel, <code>collection</code> is worth
+	 * splitting, and the current worker is not already busy enough.
+	 */
+	private boolean shouldRenderInParallel(final @NonNull Collection<?> collection) {
+		return this.parallelOut != null && collection.size() > 1 && ForkJoinTask.inForkJoinPool()
+				&& ForkJoinTask.getSurplusQueuedTaskCount() <= SURPLUS_TASK_LIMIT;
+	}
+	
+	/**
+	 * Renders the elements of <code>collection</code> in chunks on the current
+	 * pool, and writes the chunks in order as soon as they are done.
+	 * 
+	 * <p>
+	 * Only a window of chunks is in flight at any time, so the memory needed
+	 * for the buffers stays bounded even for huge collections.
+	 * </p>
+	 */
+	private <T extends Object> void renderInParallel(
+			final @NonNull Collection<@NonNull T> collection, final int indent,
+			final @NonNull Consumer<@NonNull T> lineRenderer
+	) {
+		@SuppressWarnings("unchecked")
+		final List<@NonNull T> elements = collection instanceof RandomAccess
+				? (List<@NonNull T>) collection
+				: new ArrayList<>(collection);
+		final int size = elements.size();
+		final int window = ForkJoinTask.getPool().getParallelism() * CHUNKS_PER_THREAD;
+		final int chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, size / window));
+		
+		final Deque<RenderChunk> pending = new ArrayDeque<>();
+		try {
+			int from = 0;
+			while (from < size || !pending.isEmpty()) {
+				while (from < size && pending.size() < window) {
+					final int start = from;
+					final int end = Math.min(size, start + chunkSize);
+					final RenderChunk chunk = new RenderChunk(() -> {
+						for (int i = start; i < end; i++) {
+							append("", (indent + 1));
+							lineRenderer.accept(elements.get(i));
+						}
+					});
+					chunk.fork();
+					pending.add(chunk);
+					from = end;
+				}
+				write(pending.remove().join());
+			}
+		} catch (final RuntimeException | Error e) {
+			for (final RenderChunk chunk : pending) {
+				chunk.cancel(false);
+				chunk.quietlyJoin();
+			}
+			throw e;
+		}
+	}
+	
+	/**
+	 * Runs <code>renderer</code> with all output of the current thread going
+	 * to <code>target</code>.
+	 */
+	private void renderChunk(final @NonNull Appendable target, final @NonNull Runnable renderer) {
+		final ThreadLocal<Appendable> threadOut = this.parallelOut;
+		final Appendable previous = threadOut.get();
+		threadOut.set(target);
+		try {
+			renderer.run();
+		} finally {
+			if (previous != null) {
+				threadOut.set(previous);
+			} else {
+				threadOut.remove();
+			}
+		}
+	}
+	
+	/**
+	 * All structural features of <code>eClass</code>, ordered by name.
+	 * 
+	 * <p>
+	 * Sorted once per EClass and renderer. The cached order is dropped if
+	 * <code>eClass</code>' features change.
+	 * </p>
+	 */
+	private @NonNull EStructuralFeature @NonNull [] getSortedFeatures(final @NonNull EClass eClass) {
+		final SortedFeatures cached = this.sortedFeatures.get(eClass);
+		if (cached != null && cached.source == eClass.getEAllStructuralFeatures()) {
+			return cached.sorted;
+		}
+		
+		// EMF computes the features lazily, which must not happen concurrently
+		synchronized (this.sortedFeatures) {
+			final List<EStructuralFeature> allFeatures = eClass.getEAllStructuralFeatures();
+			SortedFeatures result = this.sortedFeatures.get(eClass);
+			if (result == null || result.source != allFeatures) {
+				result = new SortedFeatures(allFeatures);
+				this.sortedFeatures.put(eClass, result);
+			}
+			return result.sorted;
 		}
 	}
 	
 	/**
 	 * Filter to prevent selected Ecore elements from being rendered.
+	 * 
+	 * <p>
+	 * Called once per rendering; the result is used for all elements.
+	 * </p>
+	 * 
+	 * @see RenderFilters Filters decided once per EClass and feature
 	 */
-	protected @NonNull IRenderFilter getFilter() { return new OmitUnsetFilter(); }
+	protected @NonNull IRenderFilter getFilter() { return DEFAULT_FILTER; }
 	
 	protected @NonNull String getNewline() { return "\n"; }
 	
@@ -262,4 +844,32 @@ public class EmfStringRenderer {
 			);
 		}
 	}
+	
+	private static final class SortedFeatures {
+		final List<EStructuralFeature> source;
+		final @NonNull EStructuralFeature @NonNull [] sorted;
+		
+		SortedFeatures(final List<EStructuralFeature> source) {
+			this.source = source;
+			this.sorted = source.toArray(new @NonNull EStructuralFeature[source.size()]);
+			Arrays.sort(this.sorted, FEATURE_ORDER);
+		}
+	}
+	
+	private final class RenderChunk extends RecursiveTask<StringBuilder> {
+		private static final long serialVersionUID = 1L;
+		
+		private final transient Runnable renderer;
+		
+		RenderChunk(final @NonNull Runnable renderer) {
+			this.renderer = renderer;
+		}
+		
+		@Override
+		protected StringBuilder compute() {
+			final StringBuilder builder = new StringBuilder();
+			renderChunk(builder, this.renderer);
+			return builder;
+		}
+	}
 }
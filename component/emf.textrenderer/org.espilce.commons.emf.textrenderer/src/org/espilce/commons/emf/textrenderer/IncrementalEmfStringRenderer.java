@@ -0,0 +1,336 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Renders a Resource like {@link EmfStringRenderer}, and keeps the rendering of
+ * every EObject to re-render only what changed.
+ *
+ * <p>
+ * Observes the Resource by an {@link EContentAdapter}. After a change, the next
+ * rendering re-renders the changed EObjects and their containers, and reuses
+ * the kept rendering of all other EObjects. EObjects referring to an EObject
+ * whose URI might have changed, e.g. by moving it within the Resource, are
+ * re-rendered as well.
+ * </p>
+ *
+ * <p>
+ * The rendering of an EObject is assumed to depend only on its contents, its
+ * indentation, and the EObjects it refers to. Overridden methods and the
+ * {@linkplain #getFilter() filter} must adhere to this. Changes to other
+ * Resources are not observed, i.e. references into other Resources are only
+ * re-rendered if the referring EObject changes.
+ * </p>
+ *
+ * <p>
+ * The Resource must not be changed while rendering. Call {@link #dispose()} to
+ * stop observing the Resource.
+ * </p>
+ *
+ * @since 0.2
+ */
+public class IncrementalEmfStringRenderer extends EmfStringRenderer {
+	private final Resource resource;
+	private final EContentAdapter adapter = new ChangeAdapter();
+	private final Map<EObject, Rendering> renderings = new ConcurrentHashMap<>();
+	private final Map<EObject, Set<EObject>> referrers = new ConcurrentHashMap<>();
+	private final Map<EObject, Set<EObject>> references = new ConcurrentHashMap<>();
+	
+	public IncrementalEmfStringRenderer(final @NonNull Resource resource) {
+		super(resource);
+		this.resource = resource;
+		resource.eAdapters().add(this.adapter);
+	}
+	
+	/**
+	 * Stops observing the Resource and drops all kept renderings.
+	 */
+	public void dispose() {
+		this.resource.eAdapters().remove(this.adapter);
+		this.renderings.clear();
+		this.referrers.clear();
+		this.references.clear();
+		discardRendered();
+	}
+	
+	/**
+	 * Re-rendering only what changed must not index all contents every time.
+	 */
+	@Override
+	boolean isIndexingContainment() {
+		return false;
+	}
+	
+	@Override
+	protected boolean isFeatureRenderingCustomized() {
+		// this class does not customize features, but its subclasses might
+		return getClass() != IncrementalEmfStringRenderer.class;
+	}
+	
+	@Override
+	protected void renderEObject(final @NonNull EObject eObject, final int indent, final @Nullable EObject context) {
+		if (isRenderingSnapshot()) {
+			// kept renderings are text, so snapshots are rendered in full
+			super.renderEObject(eObject, indent, context);
+			return;
+		}
+		
+		Rendering rendering = this.renderings.get(eObject);
+		if (rendering == null || rendering.indent != indent) {
+			rendering = new Rendering(indent);
+			final Segments segments = new Segments(rendering);
+			renderRedirected(segments, () -> super.renderEObject(eObject, indent, context));
+			segments.flush();
+			this.renderings.put(eObject, rendering);
+		}
+		
+		emit(rendering);
+	}
+	
+	@Override
+	protected void renderReference(
+			final @NonNull EReference reference, final int indent,
+			final @NonNull EObject context, final @Nullable EObject target
+	) {
+		if (target != null) {
+			this.referrers.computeIfAbsent(target, t -> ConcurrentHashMap.newKeySet()).add(context);
+			this.references.computeIfAbsent(context, c -> ConcurrentHashMap.newKeySet()).add(target);
+		}
+		super.renderReference(reference, indent, context, target);
+	}
+	
+	private void emit(final @NonNull Rendering rendering) {
+		final Appendable out = getOut();
+		if (out instanceof Segments) {
+			((Segments) out).add(rendering);
+			return;
+		}
+		
+		// outermost kept rendering, written as a whole from now on
+		String text = rendering.text;
+		if (text == null) {
+			final StringBuilder builder = new StringBuilder();
+			rendering.appendTo(builder);
+			text = builder.toString();
+			rendering.text = text;
+		}
+		write(text);
+	}
+	
+	/**
+	 * Drops the rendering of <code>eObject</code> and all its containers.
+	 */
+	private void invalidate(final @NonNull EObject eObject) {
+		for (EObject current = eObject; current != null; current = current.eContainer()) {
+			drop(current);
+		}
+	}
+	
+	private void invalidateReferrers(final @NonNull EObject target) {
+		final Set<EObject> targetReferrers = this.referrers.get(target);
+		if (targetReferrers != null) {
+			for (final EObject referrer : new ArrayList<>(targetReferrers)) {
+				invalidate(referrer);
+			}
+		}
+	}
+	
+	/**
+	 * Invalidates all referrers of <code>container</code> and its contents,
+	 * as their URIs might have changed.
+	 */
+	private void invalidateReferrersOfContents(final @NonNull EObject container) {
+		for (final EObject target : new ArrayList<>(this.referrers.keySet())) {
+			if (EcoreUtil.isAncestor(container, target)) {
+				invalidateReferrers(target);
+			}
+		}
+	}
+	
+	/**
+	 * Drops the renderings of <code>removed</code> and its contents, and
+	 * invalidates their referrers.
+	 */
+	private void dropRemoved(final @NonNull EObject removed) {
+		final Iterator<EObject> contents = EcoreUtil.getAllProperContents(Collections.singleton(removed), false);
+		while (contents.hasNext()) {
+			final EObject eObject = contents.next();
+			drop(eObject);
+			invalidateReferrers(eObject);
+		}
+	}
+	
+	private void drop(final @NonNull EObject eObject) {
+		this.renderings.remove(eObject);
+		final Set<EObject> targets = this.references.remove(eObject);
+		if (targets != null) {
+			for (final EObject target : targets) {
+				final Set<EObject> targetReferrers = this.referrers.get(target);
+				if (targetReferrers != null) {
+					targetReferrers.remove(eObject);
+					if (targetReferrers.isEmpty()) {
+						this.referrers.remove(target);
+					}
+				}
+			}
+		}
+	}
+	
+	private static @NonNull List<EObject> getRemoved(final @NonNull Notification notification) {
+		switch (notification.getEventType()) {
+			case Notification.SET:
+			case Notification.UNSET:
+			case Notification.REMOVE:
+				return notification.getOldValue() instanceof EObject
+						? Collections.singletonList((EObject) notification.getOldValue())
+						: Collections.emptyList();
+			case Notification.REMOVE_MANY:
+				@SuppressWarnings("unchecked")
+				final Collection<EObject> oldValues = (Collection<EObject>) notification.getOldValue();
+				return new ArrayList<>(oldValues);
+			default:
+				return Collections.emptyList();
+		}
+	}
+	
+	/**
+	 * Whether <code>attribute</code> contributes to the URI of
+	 * <code>eObject</code>, i.e. is its ID or a key of its containment.
+	 */
+	private static boolean isUriAttribute(final @NonNull EObject eObject, final @NonNull EAttribute attribute) {
+		if (attribute.isID()) {
+			return true;
+		}
+		final EReference containment = eObject.eContainmentFeature();
+		return containment != null && containment.getEKeys().contains(attribute);
+	}
+	
+	private final class ChangeAdapter extends EContentAdapter {
+		@Override
+		public void notifyChanged(final Notification notification) {
+			super.notifyChanged(notification);
+			
+			if (notification.isTouch()) {
+				return;
+			}
+			
+			final Object notifier = notification.getNotifier();
+			if (notifier instanceof Resource) {
+				final int featureID = notification.getFeatureID(Resource.class);
+				if (featureID == Resource.RESOURCE__CONTENTS) {
+					getRemoved(notification).forEach(IncrementalEmfStringRenderer.this::dropRemoved);
+				} else if (featureID != Resource.RESOURCE__URI) {
+					return;
+				}
+				// root positions or the Resource URI changed, so any URI might have changed
+				for (final EObject target : new ArrayList<>(IncrementalEmfStringRenderer.this.referrers.keySet())) {
+					invalidateReferrers(target);
+				}
+				discardRendered();
+			} else if (notifier instanceof EObject) {
+				final EObject eObject = (EObject) notifier;
+				final Object feature = notification.getFeature();
+				invalidate(eObject);
+				if (feature instanceof EReference && ((EReference) feature).isContainment()) {
+					getRemoved(notification).forEach(IncrementalEmfStringRenderer.this::dropRemoved);
+					invalidateReferrersOfContents(eObject);
+				} else if (feature instanceof EAttribute && isUriAttribute(eObject, (EAttribute) feature)) {
+					invalidateReferrersOfContents(eObject);
+				}
+				discardRendered();
+			}
+		}
+	}
+	
+	/**
+	 * Kept rendering of one EObject: its own text, interleaved with the
+	 * renderings of its contents.
+	 */
+	private static final class Rendering {
+		final int indent;
+		final List<Object> parts = new ArrayList<>();
+		volatile String text;
+		
+		Rendering(final int indent) {
+			this.indent = indent;
+		}
+		
+		void appendTo(final @NonNull StringBuilder builder) {
+			for (final Object part : this.parts) {
+				if (part instanceof Rendering) {
+					((Rendering) part).appendTo(builder);
+				} else {
+					builder.append((CharSequence) part);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Collects the output of rendering one EObject into its {@link Rendering}.
+	 */
+	private static final class Segments implements Appendable {
+		private final Rendering rendering;
+		private final StringBuilder text = new StringBuilder();
+		
+		Segments(final @NonNull Rendering rendering) {
+			this.rendering = rendering;
+		}
+		
+		void add(final @NonNull Rendering content) {
+			flush();
+			this.rendering.parts.add(content);
+		}
+		
+		void flush() {
+			if (this.text.length() > 0) {
+				this.rendering.parts.add(this.text.toString());
+				this.text.setLength(0);
+			}
+		}
+		
+		@Override
+		public Appendable append(final CharSequence csq) {
+			this.text.append(csq);
+			return this;
+		}
+		
+		@Override
+		public Appendable append(final CharSequence csq, final int start, final int end) {
+			this.text.append(csq, start, end);
+			return this;
+		}
+		
+		@Override
+		public Appendable append(final char c) {
+			this.text.append(c);
+			return this;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Declarative {@link IRenderFilter}s and their combination.
+ *
+ * <p>
+ * {@link EmfStringRenderer} compiles the filters created here, together with
+ * {@link OmitUnsetFilter} and {@link RenderEverythingFilter}, into a decision
+ * table per EClass. It consults the table instead of asking the filters for
+ * every element. All other filters are still asked for every element.
+ * </p>
+ *
+ * <p>
+ * Predicates passed to these filters are evaluated once per EClass or
+ * feature and renderer, so they must only depend on their argument.
+ * </p>
+ *
+ * @since 0.2
+ */
+public final class RenderFilters {
+	private RenderFilters() {
+		// static methods only
+	}
+	
+	/**
+	 * @return Filter rendering an element if all of <code>filters</code>
+	 *         render it.
+	 */
+	public static @NonNull IRenderFilter allOf(final @NonNull IRenderFilter @NonNull... filters) {
+		return new CompositeRenderFilter(new ArrayList<>(Arrays.asList(filters)));
+	}
+	
+	/**
+	 * @param shouldRender
+	 *            Whether to render EObjects of an EClass.
+	 * @return Filter rendering EObjects whose EClass matches
+	 *         <code>shouldRender</code>, and everything else.
+	 */
+	public static @NonNull IRenderFilter eClasses(final @NonNull Predicate<? super EClass> shouldRender) {
+		return new DeclarativeRenderFilter(shouldRender, null, DeclarativeRenderFilter.UNLIMITED);
+	}
+	
+	/**
+	 * @return Filter omitting EObjects that are instances of any of
+	 *         <code>omitted</code>.
+	 */
+	public static @NonNull IRenderFilter omitEClasses(final @NonNull EClass @NonNull... omitted) {
+		final Set<EClass> omittedSet = new HashSet<>(Arrays.asList(omitted));
+		return eClasses(eClass -> Collections.disjoint(omittedSet, eClass.getEAllSuperTypes())
+				&& !omittedSet.contains(eClass));
+	}
+	
+	/**
+	 * @param shouldRender
+	 *            Whether to render a feature.
+	 * @return Filter rendering features that match <code>shouldRender</code>,
+	 *         and everything else.
+	 */
+	public static @NonNull IRenderFilter features(final @NonNull Predicate<? super EStructuralFeature> shouldRender) {
+		return new DeclarativeRenderFilter(null, shouldRender, DeclarativeRenderFilter.UNLIMITED);
+	}
+	
+	/**
+	 * @return Filter omitting all features named like any of
+	 *         <code>names</code>.
+	 */
+	public static @NonNull IRenderFilter omitFeatures(final @NonNull String @NonNull... names) {
+		final Set<String> omittedNames = new HashSet<>(Arrays.asList(names));
+		return features(feature -> !omittedNames.contains(feature.getName()));
+	}
+	
+	/**
+	 * @return Filter omitting all elements indented deeper than
+	 *         <code>maxIndent</code>.
+	 */
+	public static @NonNull IRenderFilter maxIndent(final int maxIndent) {
+		return new DeclarativeRenderFilter(null, null, maxIndent);
+	}
+}
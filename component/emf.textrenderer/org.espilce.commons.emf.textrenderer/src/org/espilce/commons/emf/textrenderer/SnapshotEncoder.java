@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Receives a rendering and writes it in the {@link SnapshotFormat}.
+ *
+ * <p>
+ * Every text appended becomes one token; the renderer reports new lines by
+ * {@link #line(int)} instead of appending newline and indentation. Texts
+ * containing <code>/</code>, like URIs and fragment paths, are split into one
+ * token per path segment, as the segments repeat far more often than the
+ * complete texts.
+ * </p>
+ */
+final class SnapshotEncoder implements Appendable {
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final OutputStream out;
+	private final Map<String, Integer> tokens = new HashMap<>();
+	
+	SnapshotEncoder(final @NonNull OutputStream outputStream) throws IOException {
+		this.out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+		this.out.write(SnapshotFormat.MAGIC);
+		SnapshotFormat.writeVarint(this.out, SnapshotFormat.VERSION);
+	}
+	
+	/**
+	 * Starts a new line, indented by <code>indent</code> levels.
+	 */
+	void line(final int indent) throws IOException {
+		SnapshotFormat.writeVarint(this.out, SnapshotFormat.LINE);
+		SnapshotFormat.writeVarint(this.out, indent);
+	}
+	
+	/**
+	 * Ends the snapshot, and flushes the underlying stream.
+	 */
+	void finish() throws IOException {
+		SnapshotFormat.writeVarint(this.out, SnapshotFormat.END);
+		this.out.flush();
+	}
+	
+	@Override
+	public Appendable append(final CharSequence csq) throws IOException {
+		token(String.valueOf(csq));
+		return this;
+	}
+	
+	@Override
+	public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+		token(String.valueOf(csq).substring(start, end));
+		return this;
+	}
+	
+	@Override
+	public Appendable append(final char c) throws IOException {
+		token(String.valueOf(c));
+		return this;
+	}
+	
+	private void token(final @NonNull String text) throws IOException {
+		int start = 0;
+		for (int end = text.indexOf('/', 1); end > 0; end = text.indexOf('/', end + 1)) {
+			segment(text.substring(start, end));
+			start = end;
+		}
+		segment(start == 0 ? text : text.substring(start));
+	}
+	
+	private void segment(final @NonNull String text) throws IOException {
+		if (text.isEmpty()) {
+			return;
+		}
+		
+		final Integer index = this.tokens.get(text);
+		if (index != null) {
+			SnapshotFormat.writeVarint(this.out, SnapshotFormat.FIRST_TOKEN + index);
+			return;
+		}
+		
+		this.tokens.put(text, this.tokens.size());
+		final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		SnapshotFormat.writeVarint(this.out, SnapshotFormat.NEW_TOKEN);
+		SnapshotFormat.writeVarint(this.out, bytes.length);
+		this.out.write(bytes);
+	}
+}
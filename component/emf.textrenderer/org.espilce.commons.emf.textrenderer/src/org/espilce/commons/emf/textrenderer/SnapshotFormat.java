@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf.textrenderer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Binary snapshot format shared by {@link SnapshotEncoder} and
+ * {@link EmfSnapshotReader}.
+ *
+ * <p>
+ * A snapshot starts with {@link #MAGIC} and the {@link #VERSION}, followed by
+ * records. Each record starts with an unsigned
+ * <a href="https://en.wikipedia.org/wiki/LEB128">LEB128</a> varint:
+ * </p>
+ *
+ * <ul>
+ * <li>{@link #END}: End of the snapshot.</li>
+ * <li>{@link #LINE}: Starts a new line; followed by a varint indentation
+ * level.</li>
+ * <li>{@link #NEW_TOKEN}: Text; followed by a varint byte length and the
+ * UTF-8 bytes. The text is appended to the table of tokens.</li>
+ * <li>{@link #FIRST_TOKEN} + n: Text of the n-th token of the table.</li>
+ * </ul>
+ */
+final class SnapshotFormat {
+	static final byte @NonNull [] MAGIC = { 'E', 'S', 'N', 'P' };
+	static final int VERSION = 1;
+	
+	static final int END = 0;
+	static final int LINE = 1;
+	static final int NEW_TOKEN = 2;
+	static final int FIRST_TOKEN = 3;
+	
+	private static final int MAX_VARINT_SHIFT = 28;
+	
+	private SnapshotFormat() {
+		// constants and helpers only
+	}
+	
+	static void writeVarint(final @NonNull OutputStream out, final int value) throws IOException {
+		int remaining = value;
+		while ((remaining & ~0x7F) != 0) {
+			out.write((remaining & 0x7F) | 0x80);
+			remaining >>>= 7;
+		}
+		out.write(remaining);
+	}
+	
+	static int readVarint(final @NonNull InputStream in) throws IOException {
+		int result = 0;
+		for (int shift = 0; shift <= MAX_VARINT_SHIFT; shift += 7) {
+			final int b = in.read();
+			if (b < 0) {
+				throw new EOFException("Truncated snapshot");
+			}
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				if (result < 0) {
+					break;
+				}
+				return result;
+			}
+		}
+		throw new IOException("Corrupt snapshot: invalid number");
+	}
+}
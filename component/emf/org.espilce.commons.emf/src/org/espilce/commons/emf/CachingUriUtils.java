@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.emf;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Path;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.exception.UnconvertibleException;
+import org.espilce.commons.lang.CachingConversionUtils;
+import org.espilce.commons.lang.ConversionCache;
+
+/**
+ * Memoizing facade over {@link UriUtils}.
+ *
+ * <p>
+ * Relative {@linkplain java.io.File Java Files} and
+ * {@linkplain java.nio.file.Path Java Paths} are resolved against the current
+ * working directory when converted to EMF URIs; these conversions are not
+ * cached.
+ * </p>
+ *
+ * <p>
+ * EMF URIs are cached by themselves, as {@link URI#equals(Object)} compares
+ * their exact string form.
+ * </p>
+ *
+ * @see CachingConversionUtils
+ * @since 0.2
+ */
+public class CachingUriUtils extends CachingConversionUtils {
+	private static final UriUtils URI_UTILS = new UriUtils();
+	
+	private final ConversionCache<URI, java.net.URI> emfUriToJavaUri = createCache();
+	private final ConversionCache<URI, URL> emfUriToJavaUrl = createCache();
+	private final ConversionCache<URI, Path> emfUriToJavaPath = createCache();
+	private final ConversionCache<URI, File> emfUriToJavaFile = createCache();
+	private final ConversionCache<String, URI> javaUrlToEmfUri = createCache();
+	private final ConversionCache<String, URI> javaUriToEmfUri = createCache();
+	private final ConversionCache<String, URI> javaFileToEmfUri = createCache();
+	private final ConversionCache<String, URI> javaPathToEmfUri = createCache();
+	
+	/**
+	 * Creates a facade with caches of {@link #DEFAULT_MAXIMUM_SIZE}.
+	 */
+	public CachingUriUtils() {
+		super();
+	}
+	
+	/**
+	 * Creates a facade with caches of <code>maximumSize</code>.
+	 *
+	 * @param maximumSize
+	 *            Maximum number of cached results per conversion; must be
+	 *            positive.
+	 * @throws IllegalArgumentException
+	 *             If <code>maximumSize</code> is not positive.
+	 */
+	public CachingUriUtils(final int maximumSize) {
+		super(maximumSize);
+	}
+	
+	/**
+	 * @see UriUtils#toJavaUri(URI)
+	 */
+	public java.net.@Nullable URI toJavaUri(final @Nullable URI emfUri) {
+		if (emfUri == null) {
+			return null;
+		}
+		return this.emfUriToJavaUri.get(emfUri, UriUtils::toJavaUri);
+	}
+	
+	/**
+	 * @see UriUtils#asJavaUri(URI)
+	 */
+	public java.net.@NonNull URI asJavaUri(final @NonNull URI emfUri) throws UnconvertibleException {
+		final java.net.URI result = toJavaUri(emfUri);
+		if (result != null) {
+			return result;
+		}
+		return UriUtils.asJavaUri(emfUri);
+	}
+	
+	/**
+	 * @see UriUtils#toJavaUrl(URI)
+	 */
+	public @Nullable URL toJavaUrl(final @Nullable URI emfUri) {
+		if (emfUri == null) {
+			return null;
+		}
+		return this.emfUriToJavaUrl.get(emfUri, UriUtils::toJavaUrl);
+	}
+	
+	/**
+	 * @see UriUtils#asJavaUrl(URI)
+	 */
+	public @NonNull URL asJavaUrl(final @NonNull URI emfUri) throws UnconvertibleException {
+		final URL result = toJavaUrl(emfUri);
+		if (result != null) {
+			return result;
+		}
+		return UriUtils.asJavaUrl(emfUri);
+	}
+	
+	/**
+	 * @see UriUtils#toJavaPath(URI)
+	 */
+	public @Nullable Path toJavaPath(final @Nullable URI emfUri) {
+		if (emfUri == null) {
+			return null;
+		}
+		return this.emfUriToJavaPath.get(emfUri, URI_UTILS::toJavaPath);
+	}
+	
+	/**
+	 * @see UriUtils#asJavaPath(URI)
+	 */
+	public @NonNull Path asJavaPath(final @NonNull URI emfUri) throws UnconvertibleException {
+		final Path result = toJavaPath(emfUri);
+		if (result != null) {
+			return result;
+		}
+		return URI_UTILS.asJavaPath(emfUri);
+	}
+	
+	/**
+	 * @see UriUtils#toJavaFile(URI)
+	 */
+	public @Nullable File toJavaFile(final @Nullable URI emfUri) {
+		if (emfUri == null) {
+			return null;
+		}
+		return this.emfUriToJavaFile.get(emfUri, URI_UTILS::toJavaFile);
+	}
+	
+	/**
+	 * @see UriUtils#asJavaFile(URI)
+	 */
+	public @NonNull File asJavaFile(final @NonNull URI emfUri) throws UnconvertibleException {
+		final File result = toJavaFile(emfUri);
+		if (result != null) {
+			return result;
+		}
+		return URI_UTILS.asJavaFile(emfUri);
+	}
+	
+	/**
+	 * @see UriUtils#toEmfUri(URL)
+	 */
+	public @Nullable URI toEmfUri(final @Nullable URL javaUrl) {
+		if (javaUrl == null) {
+			return null;
+		}
+		return this.javaUrlToEmfUri.get(javaUrl.toExternalForm(), s -> UriUtils.toEmfUri(javaUrl));
+	}
+	
+	/**
+	 * @see UriUtils#asEmfUri(URL)
+	 */
+	public @NonNull URI asEmfUri(final @NonNull URL javaUrl) throws UnconvertibleException {
+		final URI result = toEmfUri(javaUrl);
+		if (result != null) {
+			return result;
+		}
+		return UriUtils.asEmfUri(javaUrl);
+	}
+	
+	/**
+	 * @see UriUtils#toEmfUri(java.net.URI)
+	 */
+	public @Nullable URI toEmfUri(final java.net.@Nullable URI javaUri) {
+		if (javaUri == null) {
+			return null;
+		}
+		return this.javaUriToEmfUri.get(javaUri.toString(), s -> UriUtils.toEmfUri(javaUri));
+	}
+	
+	/**
+	 * @see UriUtils#asEmfUri(java.net.URI)
+	 */
+	public @NonNull URI asEmfUri(final java.net.@NonNull URI javaUri) throws UnconvertibleException {
+		final URI result = toEmfUri(javaUri);
+		if (result != null) {
+			return result;
+		}
+		return UriUtils.asEmfUri(javaUri);
+	}
+	
+	/**
+	 * @see UriUtils#toEmfUri(File)
+	 */
+	public @Nullable URI toEmfUri(final @Nullable File file) {
+		if (file == null) {
+			return null;
+		}
+		if (!file.isAbsolute()) {
+			return UriUtils.toEmfUri(file);
+		}
+		return this.javaFileToEmfUri.get(file.getPath(), s -> UriUtils.toEmfUri(file));
+	}
+	
+	/**
+	 * @see UriUtils#asEmfUri(File)
+	 */
+	public @NonNull URI asEmfUri(final @NonNull File file) throws UnconvertibleException {
+		final URI result = toEmfUri(file);
+		if (result != null) {
+			return result;
+		}
+		return UriUtils.asEmfUri(file);
+	}
+	
+	/**
+	 * @see UriUtils#toEmfUri(Path)
+	 */
+	public @Nullable URI toEmfUri(final @Nullable Path path) {
+		if (path == null) {
+			return null;
+		}
+		if (!path.isAbsolute()) {
+			return UriUtils.toEmfUri(path);
+		}
+		return getByPath(this.javaPathToEmfUri, path, UriUtils::toEmfUri);
+	}
+	
+	/**
+	 * @see UriUtils#asEmfUri(Path)
+	 */
+	public @NonNull URI asEmfUri(final @NonNull Path path) throws UnconvertibleException {
+		final URI result = toEmfUri(path);
+		if (result != null) {
+			return result;
+		}
+		return UriUtils.asEmfUri(path);
+	}
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this bundle with the {@linkplain GCProfiler GC
+ * profiler} enabled, so the report contains both ops/s and allocation rate
+ * (<tt>gc.alloc.rate.norm</tt>) per conversion pair.
+ *
+ * <p>
+ * Accepts all regular JMH command line options (except <tt>-prof gc</tt>,
+ * which is always active), e.g.
+ * </p>
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar JavaUriConversionBenchmark -p input=file:////some/path/MyFile.ext
+ * </pre>
+ */
+public class BenchmarkMain {
+	public static void main(final String[] args) throws Exception {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		
+		if (commandLineOptions.shouldHelp()) {
+			commandLineOptions.showHelp();
+			return;
+		}
+		
+		final Options options = new OptionsBuilder()
+				.parent(commandLineOptions)
+				.addProfiler(GCProfiler.class)
+				.build();
+		
+		final Runner runner = new Runner(options);
+		if (commandLineOptions.shouldList()) {
+			runner.list();
+			return;
+		}
+		
+		runner.run();
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang.benchmark;
+
+import java.io.File;
+
+import org.espilce.commons.exception.UnconvertibleException;
+import org.espilce.commons.lang.ConversionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks conversions from {@linkplain java.io.File Java File}.
+ */
+public class JavaFileConversionBenchmark extends AConversionBenchmark {
+	@Param({
+			"",
+			"some/path/MyFile.ext",
+			"/some/path/MyFile.ext",
+			"////some/path/MyFile.ext",
+			"/c:/some/path/MyFile.ext",
+			"c:/some/path/MyFile.ext",
+			"c:\\some\\path\\MyFile.ext",
+			"myProject/myFolder%23query",
+			"myProject/myFolder?query#fragment"
+	})
+	public String input;
+	
+	private File javaFile;
+	
+	@Setup
+	public void setup() {
+		this.javaFile = new File(this.input);
+	}
+	
+	@Benchmark
+	public Object toJavaPath() {
+		return ConversionUtils.toJavaPath(this.javaFile);
+	}
+	
+	@Benchmark
+	public Object asJavaPath() {
+		try {
+			return ConversionUtils.asJavaPath(this.javaFile);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+	
+	@Benchmark
+	public Object toJavaUri() {
+		return ConversionUtils.toJavaUri(this.javaFile);
+	}
+	
+	@Benchmark
+	public Object asJavaUri() {
+		try {
+			return ConversionUtils.asJavaUri(this.javaFile);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+	
+	@Benchmark
+	public Object toJavaUrl() {
+		return ConversionUtils.toJavaUrl(this.javaFile);
+	}
+	
+	@Benchmark
+	public Object asJavaUrl() {
+		try {
+			return ConversionUtils.asJavaUrl(this.javaFile);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+}
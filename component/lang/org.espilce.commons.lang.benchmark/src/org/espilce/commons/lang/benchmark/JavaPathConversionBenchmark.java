@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang.benchmark;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.espilce.commons.exception.UnconvertibleException;
+import org.espilce.commons.lang.ConversionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks conversions from {@linkplain java.nio.file.Path Java Path}.
+ *
+ * <p>
+ * Only inputs accepted by {@link Paths#get(String, String...)} on all
+ * platforms are used.
+ * </p>
+ */
+public class JavaPathConversionBenchmark extends AConversionBenchmark {
+	@Param({
+			"",
+			"some/path/MyFile.ext",
+			"/some/path/MyFile.ext",
+			"////some/path/MyFile.ext",
+			"c:/some/path/MyFile.ext",
+			"c:\\some\\path\\MyFile.ext",
+			"myProject/myFolder%23query"
+	})
+	public String input;
+	
+	private Path javaPath;
+	
+	@Setup
+	public void setup() {
+		this.javaPath = Paths.get(this.input);
+	}
+	
+	@Benchmark
+	public Object toJavaFile() {
+		return ConversionUtils.toJavaFile(this.javaPath);
+	}
+	
+	@Benchmark
+	public Object asJavaFile() {
+		try {
+			return ConversionUtils.asJavaFile(this.javaPath);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+	
+	@Benchmark
+	public Object toJavaUri() {
+		return ConversionUtils.toJavaUri(this.javaPath);
+	}
+	
+	@Benchmark
+	public Object asJavaUri() {
+		try {
+			return ConversionUtils.asJavaUri(this.javaPath);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+	
+	@Benchmark
+	public Object toJavaUrl() {
+		return ConversionUtils.toJavaUrl(this.javaPath);
+	}
+	
+	@Benchmark
+	public Object asJavaUrl() {
+		try {
+			return ConversionUtils.asJavaUrl(this.javaPath);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+}
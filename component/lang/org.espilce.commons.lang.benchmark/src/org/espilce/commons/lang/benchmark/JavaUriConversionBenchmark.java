@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang.benchmark;
+
+import java.net.URI;
+
+import org.espilce.commons.exception.UnconvertibleException;
+import org.espilce.commons.lang.ConversionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks conversions from {@linkplain java.net.URI Java URI}.
+ */
+public class JavaUriConversionBenchmark extends AConversionBenchmark {
+	@Param({
+			"",
+			"some/path/MyFile.ext",
+			"file:/some/path/MyFile.ext",
+			"file:////some/path/MyFile.ext",
+			"file://c:/some/path/MyFile.ext",
+			"file:/c:/some/path/MyFile.ext",
+			"c%3A/some/path/MyFile.ext",
+			"file:/myProject/myFolder%23query",
+			"file:/myProject/myFolder?query#fragment",
+			"c:/some/path/MyFile.ext",
+			"http://example.com"
+	})
+	public String input;
+	
+	private URI javaUri;
+	
+	@Setup
+	public void setup() throws Exception {
+		this.javaUri = new URI(this.input);
+	}
+	
+	@Benchmark
+	public Object toJavaPath() {
+		return ConversionUtils.toJavaPath(this.javaUri);
+	}
+	
+	@Benchmark
+	public Object asJavaPath() {
+		try {
+			return ConversionUtils.asJavaPath(this.javaUri);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+	
+	@Benchmark
+	public Object toJavaFile() {
+		return ConversionUtils.toJavaFile(this.javaUri);
+	}
+	
+	@Benchmark
+	public Object asJavaFile() {
+		try {
+			return ConversionUtils.asJavaFile(this.javaUri);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+	
+	@Benchmark
+	public Object toJavaUrl() {
+		return ConversionUtils.toJavaUrl(this.javaUri);
+	}
+	
+	@Benchmark
+	public Object asJavaUrl() {
+		try {
+			return ConversionUtils.asJavaUrl(this.javaUri);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+}
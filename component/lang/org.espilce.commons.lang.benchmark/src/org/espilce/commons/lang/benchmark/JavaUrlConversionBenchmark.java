@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang.benchmark;
+
+import java.net.URL;
+
+import org.espilce.commons.exception.UnconvertibleException;
+import org.espilce.commons.lang.ConversionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks conversions from {@linkplain java.net.URL Java URL}.
+ */
+public class JavaUrlConversionBenchmark extends AConversionBenchmark {
+	@Param({
+			"file:",
+			"file:some/path/MyFile.ext",
+			"file:/some/path/MyFile.ext",
+			"file:////some/path/MyFile.ext",
+			"file:/c:/some/path/MyFile.ext",
+			"file:c:/some/path/MyFile.ext",
+			"file:\\some\\path\\MyFile.ext",
+			"file:/myProject/myFolder%23query",
+			"file:/myProject/myFolder?query#fragment",
+			"http://example.com"
+	})
+	public String input;
+	
+	private URL javaUrl;
+	
+	@Setup
+	public void setup() throws Exception {
+		this.javaUrl = new URL(this.input);
+	}
+	
+	@Benchmark
+	public Object toJavaPath() {
+		return ConversionUtils.toJavaPath(this.javaUrl);
+	}
+	
+	@Benchmark
+	public Object asJavaPath() {
+		try {
+			return ConversionUtils.asJavaPath(this.javaUrl);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+	
+	@Benchmark
+	public Object toJavaFile() {
+		return ConversionUtils.toJavaFile(this.javaUrl);
+	}
+	
+	@Benchmark
+	public Object asJavaFile() {
+		try {
+			return ConversionUtils.asJavaFile(this.javaUrl);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+	
+	@Benchmark
+	public Object toJavaUri() {
+		return ConversionUtils.toJavaUri(this.javaUrl);
+	}
+	
+	@Benchmark
+	public Object asJavaUri() {
+		try {
+			return ConversionUtils.asJavaUri(this.javaUrl);
+		} catch (final UnconvertibleException e) {
+			return e;
+		}
+	}
+}
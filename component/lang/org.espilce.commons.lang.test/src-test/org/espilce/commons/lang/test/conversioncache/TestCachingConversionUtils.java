@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang.test.conversioncache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import org.espilce.commons.exception.UnconvertibleException;
+import org.espilce.commons.lang.CachingConversionUtils;
+import org.espilce.commons.lang.ConversionCacheStatistics;
+import org.espilce.commons.lang.ConversionUtils;
+import org.junit.jupiter.api.Test;
+
+public class TestCachingConversionUtils {
+	@Test
+	public void sameResult() throws Exception {
+		final CachingConversionUtils utils = new CachingConversionUtils();
+		final File file = new File("some/path/MyFile.ext");
+		final Path path = Paths.get("some/path/MyFile.ext");
+		final URI uri = new URI("file:/some/path/MyFile.ext");
+		final URL url = new URL("file:/some/path/MyFile.ext");
+		
+		assertEquals(ConversionUtils.asJavaUri(file), utils.asJavaUri(file));
+		assertEquals(ConversionUtils.asJavaUrl(file), utils.asJavaUrl(file));
+		assertEquals(ConversionUtils.asJavaPath(file), utils.asJavaPath(file));
+		assertEquals(ConversionUtils.asJavaUri(path), utils.asJavaUri(path));
+		assertEquals(ConversionUtils.asJavaFile(path), utils.asJavaFile(path));
+		assertEquals(ConversionUtils.asJavaPath(uri), utils.asJavaPath(uri));
+		assertEquals(ConversionUtils.asJavaFile(uri), utils.asJavaFile(uri));
+		assertEquals(ConversionUtils.asJavaUrl(uri), utils.asJavaUrl(uri));
+		assertEquals(ConversionUtils.asJavaUri(url), utils.asJavaUri(url));
+		assertEquals(ConversionUtils.asJavaPath(url), utils.asJavaPath(url));
+	}
+	
+	@Test
+	public void cached() throws Exception {
+		final CachingConversionUtils utils = new CachingConversionUtils();
+		final URI uri = new URI("file:/some/path/MyFile.ext");
+		
+		final Path first = utils.asJavaPath(uri);
+		final Path second = utils.toJavaPath(new URI("file:/some/path/MyFile.ext"));
+		
+		assertSame(first, second);
+		assertEquals(new ConversionCacheStatistics(1, 1, 0), utils.getStatistics());
+	}
+	
+	@Test
+	public void equalUrisCachedSeparately() throws Exception {
+		final CachingConversionUtils utils = new CachingConversionUtils();
+		final URI upper = new URI("http://EXAMPLE.com/some/path/MyFile.ext");
+		final URI lower = new URI("http://example.com/some/path/MyFile.ext");
+		
+		assertEquals(upper, lower);
+		assertEquals(ConversionUtils.asJavaUrl(upper).toExternalForm(), utils.asJavaUrl(upper).toExternalForm());
+		assertEquals(ConversionUtils.asJavaUrl(lower).toExternalForm(), utils.asJavaUrl(lower).toExternalForm());
+		assertEquals(new ConversionCacheStatistics(0, 2, 0), utils.getStatistics());
+	}
+	
+	@Test
+	public void otherFileSystemPathsNotCached() throws Exception {
+		final CachingConversionUtils utils = new CachingConversionUtils();
+		final Path zipFile = Files.createTempFile(getClass().getSimpleName(), ".zip");
+		Files.delete(zipFile);
+		final URI zipUri = new URI("jar:" + zipFile.toUri());
+		try (FileSystem zipFileSystem = FileSystems.newFileSystem(zipUri, Collections.singletonMap("create", "true"))) {
+			final Path zipPath = zipFileSystem.getPath("/some/path/MyFile.ext");
+			final Path defaultPath = Paths.get("/some/path/MyFile.ext");
+			
+			assertEquals(zipPath.toString(), defaultPath.toString());
+			assertEquals(ConversionUtils.toJavaUri(zipPath), utils.toJavaUri(zipPath));
+			assertEquals(ConversionUtils.toJavaUri(defaultPath), utils.toJavaUri(defaultPath));
+			assertEquals(ConversionUtils.toJavaUri(zipPath), utils.toJavaUri(zipPath));
+			assertEquals(new ConversionCacheStatistics(0, 1, 0), utils.getStatistics());
+		} finally {
+			Files.deleteIfExists(zipFile);
+		}
+	}
+	
+	@Test
+	public void unconvertible() throws Exception {
+		final CachingConversionUtils utils = new CachingConversionUtils();
+		final URI uri = new URI("http://example.com");
+		
+		assertNull(utils.toJavaPath(uri));
+		final UnconvertibleException e = assertThrows(UnconvertibleException.class, () -> utils.asJavaPath(uri));
+		assertEquals(uri, e.getSource());
+		assertEquals(new ConversionCacheStatistics(1, 1, 0), utils.getStatistics());
+	}
+	
+	@Test
+	public void nullSource() throws Exception {
+		final CachingConversionUtils utils = new CachingConversionUtils();
+		
+		assertNull(utils.toJavaUri((File) null));
+		assertEquals(ConversionCacheStatistics.EMPTY, utils.getStatistics());
+	}
+	
+	@Test
+	public void invalidateAll() throws Exception {
+		final CachingConversionUtils utils = new CachingConversionUtils(1);
+		final File file = new File("/some/path/MyFile.ext");
+		
+		final URI first = utils.asJavaUri(file);
+		utils.invalidateAll();
+		final URI second = utils.asJavaUri(file);
+		
+		assertEquals(first, second);
+		assertEquals(new ConversionCacheStatistics(0, 2, 0), utils.getStatistics());
+	}
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang.test.conversioncache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.espilce.commons.lang.ConversionCache;
+import org.espilce.commons.lang.ConversionCacheStatistics;
+import org.junit.jupiter.api.Test;
+
+public class TestConversionCache {
+	private static final int THREADS = 8;
+	
+	@Test
+	public void invalidMaximumSize() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> new ConversionCache<>(0));
+	}
+	
+	@Test
+	public void hit() throws Exception {
+		final ConversionCache<String, Integer> cache = new ConversionCache<>(10);
+		final Integer first = cache.get("1234", String::length);
+		final Integer second = cache.get("1234", s -> {
+			throw new AssertionError("should be cached");
+		});
+		
+		assertEquals(Integer.valueOf(4), first);
+		assertSame(first, second);
+		assertEquals(new ConversionCacheStatistics(1, 1, 0), cache.getStatistics());
+	}
+	
+	@Test
+	public void nullResult() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+		final ConversionCache<String, Integer> cache = new ConversionCache<>(10);
+		final Function<String, Integer> conversion = s -> {
+			calls.incrementAndGet();
+			return null;
+		};
+		
+		assertNull(cache.get("a", conversion));
+		assertNull(cache.get("a", conversion));
+		assertEquals(1, calls.get());
+	}
+	
+	@Test
+	public void eviction() throws Exception {
+		final ConversionCache<Integer, Integer> cache = new ConversionCache<>(3);
+		for (int i = 0; i < 10; i++) {
+			cache.get(i, Function.identity());
+		}
+		
+		assertEquals(3, cache.size());
+		assertEquals(new ConversionCacheStatistics(0, 10, 7), cache.getStatistics());
+	}
+	
+	@Test
+	public void evictionKeepsRecentlyUsed() throws Exception {
+		final ConversionCache<Integer, Integer> cache = new ConversionCache<>(3);
+		cache.get(1, Function.identity());
+		cache.get(2, Function.identity());
+		cache.get(3, Function.identity());
+		cache.get(1, Function.identity());
+		cache.get(4, Function.identity());
+		
+		final AtomicInteger calls = new AtomicInteger();
+		cache.get(1, i -> {
+			calls.incrementAndGet();
+			return i;
+		});
+		assertEquals(0, calls.get());
+		assertEquals(3, cache.size());
+	}
+	
+	@Test
+	public void invalidate() throws Exception {
+		final ConversionCache<String, Integer> cache = new ConversionCache<>(10);
+		cache.get("a", String::length);
+		cache.get("bb", String::length);
+		
+		cache.invalidate("a");
+		assertEquals(1, cache.size());
+		
+		cache.invalidateAll();
+		assertEquals(0, cache.size());
+		assertEquals(new ConversionCacheStatistics(0, 2, 0), cache.getStatistics());
+	}
+	
+	@Test
+	public void concurrentInvalidation() throws Exception {
+		final int maximumSize = 16;
+		final ConversionCache<Integer, Integer> cache = new ConversionCache<>(maximumSize);
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			final List<Future<?>> workers = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				workers.add(executor.submit(() -> {
+					final ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int j = 0; j < 200_000; j++) {
+						final int key = random.nextInt(2 * maximumSize);
+						final int operation = random.nextInt(10);
+						if (operation == 0) {
+							cache.invalidateAll();
+						} else if (operation < 4) {
+							cache.invalidate(key);
+						} else {
+							cache.get(key, Function.identity());
+						}
+					}
+				}));
+			}
+			for (final Future<?> worker : workers) {
+				worker.get(1, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		// entries lost by the eviction queue would never be evicted
+		for (int i = 0; i < 10 * maximumSize; i++) {
+			cache.get(-1 - i, Function.identity());
+		}
+		assertEquals(maximumSize, cache.size());
+	}
+	
+	@Test
+	public void hitRate() throws Exception {
+		assertEquals(1.0, ConversionCacheStatistics.EMPTY.getHitRate());
+		assertEquals(0.25, new ConversionCacheStatistics(1, 3, 0).getHitRate());
+		assertEquals(new ConversionCacheStatistics(3, 5, 7),
+				new ConversionCacheStatistics(1, 2, 3).plus(new ConversionCacheStatistics(2, 3, 4)));
+	}
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang.test.conversionresults;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.espilce.commons.exception.UnconvertibleException;
+import org.espilce.commons.lang.ConversionResult;
+import org.espilce.commons.lang.ConversionResults;
+import org.espilce.commons.lang.ConversionUtils;
+import org.junit.jupiter.api.Test;
+
+public class TestConvertAll {
+	@Test
+	public void empty() throws Exception {
+		final ConversionResults<URI, Path> results = ConversionUtils.convertAll(Collections.<URI> emptyList(),
+				ConversionUtils::asJavaPath);
+		
+		assertTrue(results.isEmpty());
+		assertFalse(results.hasFailures());
+		assertTrue(results.getResultsOrThrow().isEmpty());
+	}
+	
+	@Test
+	public void collection() throws Exception {
+		final List<URI> sources = Arrays.asList(new URI("file:/some/path"), new URI("http://example.com"),
+				new URI("some/path"));
+		
+		final ConversionResults<URI, Path> results = ConversionUtils.convertAll(sources, ConversionUtils::asJavaPath);
+		
+		assertEquals(3, results.size());
+		assertEquals(1, results.getFailureCount());
+		assertEquals(Arrays.asList(Paths.get("/some/path"), null, Paths.get("some/path")), results.getResults());
+		
+		final ConversionResult<URI, Path> failed = results.get(1);
+		assertSame(sources.get(1), failed.getSource());
+		assertFalse(failed.isConverted());
+		assertNull(failed.getResult());
+		assertEquals(sources.get(1), failed.getFailure().getSource());
+		assertEquals(Collections.singletonList(failed), results.getFailures());
+		
+		assertThrows(UnconvertibleException.class, () -> results.getResultsOrThrow());
+	}
+	
+	@Test
+	public void toConversion() throws Exception {
+		final List<URI> sources = Arrays.asList(new URI("file:/some/path"), new URI("http://example.com"));
+		
+		final ConversionResults<URI, Path> results = ConversionUtils.convertAll(sources, ConversionUtils::toJavaPath);
+		
+		assertFalse(results.hasFailures());
+		assertEquals(Arrays.asList(Paths.get("/some/path"), null), results.getResultsOrThrow());
+	}
+	
+	@Test
+	public void stream() throws Exception {
+		final ConversionResults<Path, URI> results = ConversionUtils
+				.convertAll(IntStream.range(0, 100).mapToObj(i -> Paths.get("dir" + i)), ConversionUtils::asJavaUri);
+		
+		assertEquals(expectedUris(100), results.getResultsOrThrow());
+	}
+	
+	@Test
+	public void parallelStream() throws Exception {
+		final ConversionResults<Path, URI> results = IntStream.range(0, 10000).parallel()
+				.mapToObj(i -> Paths.get("dir" + i))
+				.collect(ConversionUtils.toConversionResults(ConversionUtils::asJavaUri));
+		
+		assertEquals(expectedUris(10000), results.getResultsOrThrow());
+	}
+	
+	@Test
+	public void forkJoinPool() throws Exception {
+		final List<URI> sources = IntStream.range(0, ConversionUtils.PARALLEL_THRESHOLD * 4)
+				.mapToObj(i -> URI.create(i % 7 == 0 ? "http://example.com/" + i : "dir" + i))
+				.collect(Collectors.toList());
+		
+		final ConversionResults<URI, Path> results = ConversionUtils.convertAll(sources, ConversionUtils::asJavaPath,
+				ForkJoinPool.commonPool());
+		
+		assertEquals(sources.size(), results.size());
+		for (int i = 0; i < sources.size(); i++) {
+			final ConversionResult<URI, Path> result = results.get(i);
+			assertSame(sources.get(i), result.getSource());
+			assertEquals(i % 7 != 0, result.isConverted());
+			if (result.isConverted()) {
+				assertEquals(Paths.get("dir" + i), result.getResult());
+			}
+		}
+	}
+	
+	private List<URI> expectedUris(final int count) {
+		final List<URI> result = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			result.add(URI.create("dir" + i));
+		}
+		return result;
+	}
+}
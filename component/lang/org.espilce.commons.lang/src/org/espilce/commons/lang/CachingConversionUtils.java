@@ -0,0 +1,436 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.exception.UnconvertibleException;
+
+/**
+ * Memoizing facade over {@link ConversionUtils}.
+ *
+ * <p>
+ * Every conversion is backed by its own {@link ConversionCache} of
+ * {@linkplain #getMaximumSize() maximum size}. Results are identical to the
+ * ones of ConversionUtils; <code>as*()</code> methods re-run the original
+ * conversion for unconvertible sources to report the cause.
+ * </p>
+ *
+ * <p>
+ * {@linkplain java.net.URL Java URLs} are cached by their
+ * {@linkplain URL#toExternalForm() external form}, as
+ * {@link URL#equals(Object)} might resolve host names. Likewise,
+ * {@linkplain java.net.URI Java URIs} are cached by their
+ * {@linkplain URI#toString() string form}, as {@link URI#equals(Object)}
+ * ignores the case of scheme, host, and escaped octets.
+ * {@linkplain File Files} and {@linkplain Path paths} are cached by their
+ * string form as well, as their equality ignores case on Windows. Paths of
+ * other than the default file system are not cached.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe and meant to be shared, e.g. per resource set.
+ * Subclasses add the conversions of the respective utility subclasses; they
+ * only cache conversions that do not depend on mutable state like the Eclipse
+ * workspace.
+ * </p>
+ *
+ * @since 0.6
+ */
+public class CachingConversionUtils {
+	/**
+	 * Default {@linkplain #getMaximumSize() maximum size} of each conversion's
+	 * cache.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+	
+	private final int maximumSize;
+	private final List<ConversionCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+	
+	private final ConversionCache<String, Path> javaUriToJavaPath;
+	private final ConversionCache<String, File> javaUriToJavaFile;
+	private final ConversionCache<String, URL> javaUriToJavaUrl;
+	private final ConversionCache<String, Path> javaUrlToJavaPath;
+	private final ConversionCache<String, File> javaUrlToJavaFile;
+	private final ConversionCache<String, URI> javaUrlToJavaUri;
+	private final ConversionCache<String, Path> javaFileToJavaPath;
+	private final ConversionCache<String, URI> javaFileToJavaUri;
+	private final ConversionCache<String, URL> javaFileToJavaUrl;
+	private final ConversionCache<String, File> javaPathToJavaFile;
+	private final ConversionCache<String, URI> javaPathToJavaUri;
+	private final ConversionCache<String, URL> javaPathToJavaUrl;
+	
+	/**
+	 * Creates a facade with caches of {@link #DEFAULT_MAXIMUM_SIZE}.
+	 */
+	public CachingConversionUtils() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+	
+	/**
+	 * Creates a facade with caches of <code>maximumSize</code>.
+	 *
+	 * @param maximumSize
+	 *            Maximum number of cached results per conversion; must be
+	 *            positive.
+	 * @throws IllegalArgumentException
+	 *             If <code>maximumSize</code> is not positive.
+	 */
+	public CachingConversionUtils(final int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+		}
+		this.maximumSize = maximumSize;
+		
+		this.javaUriToJavaPath = createCache();
+		this.javaUriToJavaFile = createCache();
+		this.javaUriToJavaUrl = createCache();
+		this.javaUrlToJavaPath = createCache();
+		this.javaUrlToJavaFile = createCache();
+		this.javaUrlToJavaUri = createCache();
+		this.javaFileToJavaPath = createCache();
+		this.javaFileToJavaUri = createCache();
+		this.javaFileToJavaUrl = createCache();
+		this.javaPathToJavaFile = createCache();
+		this.javaPathToJavaUri = createCache();
+		this.javaPathToJavaUrl = createCache();
+	}
+	
+	/**
+	 * Creates and registers a new cache for one conversion.
+	 *
+	 * <p>
+	 * Subclasses call this while initializing their fields.
+	 * </p>
+	 *
+	 * @return New cache of {@linkplain #getMaximumSize() maximum size}.
+	 */
+	protected <S, T> @NonNull ConversionCache<S, T> createCache() {
+		final ConversionCache<S, T> result = new ConversionCache<>(this.maximumSize);
+		this.caches.add(result);
+		return result;
+	}
+	
+	/**
+	 * Converts <code>javaPath</code> using <code>cache</code>, keyed by the
+	 * path's string form.
+	 *
+	 * <p>
+	 * Paths of other than the default file system are converted uncached, as
+	 * their string form might equal the one of a default path.
+	 * </p>
+	 *
+	 * @param cache
+	 *            Cache of the conversion.
+	 * @param javaPath
+	 *            Path to convert.
+	 * @param conversion
+	 *            Conversion to apply on cache miss.
+	 * @return Result of <code>conversion</code> for <code>javaPath</code>.
+	 */
+	protected <T> @Nullable T getByPath(
+			final @NonNull ConversionCache<String, T> cache,
+			final @NonNull Path javaPath,
+			final @NonNull Function<? super Path, ? extends T> conversion
+	) {
+		if (javaPath.getFileSystem() != FileSystems.getDefault()) {
+			return conversion.apply(javaPath);
+		}
+		return cache.get(javaPath.toString(), s -> conversion.apply(javaPath));
+	}
+	
+	/**
+	 * @return Maximum number of cached results per conversion.
+	 */
+	public int getMaximumSize() {
+		return this.maximumSize;
+	}
+	
+	/**
+	 * @return Sum of the counters of all conversion caches.
+	 */
+	public @NonNull ConversionCacheStatistics getStatistics() {
+		ConversionCacheStatistics result = ConversionCacheStatistics.EMPTY;
+		for (final ConversionCache<?, ?> cache : this.caches) {
+			result = result.plus(cache.getStatistics());
+		}
+		return result;
+	}
+	
+	/**
+	 * Removes all cached results of all conversions.
+	 */
+	public void invalidateAll() {
+		for (final ConversionCache<?, ?> cache : this.caches) {
+			cache.invalidateAll();
+		}
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaPath(URI)
+	 */
+	public @Nullable Path toJavaPath(final @Nullable URI javaUri) {
+		if (javaUri == null) {
+			return null;
+		}
+		return this.javaUriToJavaPath.get(javaUri.toString(), s -> ConversionUtils.toJavaPath(javaUri));
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaPath(URI)
+	 */
+	public @NonNull Path asJavaPath(final @NonNull URI javaUri) throws UnconvertibleException {
+		final Path result = toJavaPath(javaUri);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaPath(javaUri);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaPath(URL)
+	 */
+	public @Nullable Path toJavaPath(final @Nullable URL javaUrl) {
+		if (javaUrl == null) {
+			return null;
+		}
+		return this.javaUrlToJavaPath.get(javaUrl.toExternalForm(), s -> ConversionUtils.toJavaPath(javaUrl));
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaPath(URL)
+	 */
+	public @NonNull Path asJavaPath(final @NonNull URL javaUrl) throws UnconvertibleException {
+		final Path result = toJavaPath(javaUrl);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaPath(javaUrl);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaPath(File)
+	 */
+	public @Nullable Path toJavaPath(final @Nullable File javaFile) {
+		if (javaFile == null) {
+			return null;
+		}
+		return this.javaFileToJavaPath.get(javaFile.getPath(), s -> ConversionUtils.toJavaPath(javaFile));
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaPath(File)
+	 */
+	public @NonNull Path asJavaPath(final @NonNull File javaFile) throws UnconvertibleException {
+		final Path result = toJavaPath(javaFile);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaPath(javaFile);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaFile(URI)
+	 */
+	public @Nullable File toJavaFile(final @Nullable URI javaUri) {
+		if (javaUri == null) {
+			return null;
+		}
+		return this.javaUriToJavaFile.get(javaUri.toString(), s -> ConversionUtils.toJavaFile(javaUri));
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaFile(URI)
+	 */
+	public @NonNull File asJavaFile(final @NonNull URI javaUri) throws UnconvertibleException {
+		final File result = toJavaFile(javaUri);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaFile(javaUri);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaFile(URL)
+	 */
+	public @Nullable File toJavaFile(final @Nullable URL javaUrl) {
+		if (javaUrl == null) {
+			return null;
+		}
+		return this.javaUrlToJavaFile.get(javaUrl.toExternalForm(), s -> ConversionUtils.toJavaFile(javaUrl));
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaFile(URL)
+	 */
+	public @NonNull File asJavaFile(final @NonNull URL javaUrl) throws UnconvertibleException {
+		final File result = toJavaFile(javaUrl);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaFile(javaUrl);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaFile(Path)
+	 */
+	public @Nullable File toJavaFile(final @Nullable Path javaPath) {
+		if (javaPath == null) {
+			return null;
+		}
+		return getByPath(this.javaPathToJavaFile, javaPath, ConversionUtils::toJavaFile);
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaFile(Path)
+	 */
+	public @NonNull File asJavaFile(final @NonNull Path javaPath) throws UnconvertibleException {
+		final File result = toJavaFile(javaPath);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaFile(javaPath);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaUri(File)
+	 */
+	public @Nullable URI toJavaUri(final @Nullable File javaFile) {
+		if (javaFile == null) {
+			return null;
+		}
+		return this.javaFileToJavaUri.get(javaFile.getPath(), s -> ConversionUtils.toJavaUri(javaFile));
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaUri(File)
+	 */
+	public @NonNull URI asJavaUri(final @NonNull File javaFile) throws UnconvertibleException {
+		final URI result = toJavaUri(javaFile);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaUri(javaFile);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaUri(URL)
+	 */
+	public @Nullable URI toJavaUri(final @Nullable URL javaUrl) {
+		if (javaUrl == null) {
+			return null;
+		}
+		return this.javaUrlToJavaUri.get(javaUrl.toExternalForm(), s -> ConversionUtils.toJavaUri(javaUrl));
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaUri(URL)
+	 */
+	public @NonNull URI asJavaUri(final @NonNull URL javaUrl) throws UnconvertibleException {
+		final URI result = toJavaUri(javaUrl);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaUri(javaUrl);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaUri(Path)
+	 */
+	public @Nullable URI toJavaUri(final @Nullable Path javaPath) {
+		if (javaPath == null) {
+			return null;
+		}
+		return getByPath(this.javaPathToJavaUri, javaPath, ConversionUtils::toJavaUri);
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaUri(Path)
+	 */
+	public @NonNull URI asJavaUri(final @NonNull Path javaPath) throws UnconvertibleException {
+		final URI result = toJavaUri(javaPath);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaUri(javaPath);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaUrl(URI)
+	 */
+	public @Nullable URL toJavaUrl(final @Nullable URI javaUri) {
+		if (javaUri == null) {
+			return null;
+		}
+		return this.javaUriToJavaUrl.get(javaUri.toString(), s -> ConversionUtils.toJavaUrl(javaUri));
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaUrl(URI)
+	 */
+	public @NonNull URL asJavaUrl(final @NonNull URI javaUri) throws UnconvertibleException {
+		final URL result = toJavaUrl(javaUri);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaUrl(javaUri);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaUrl(File)
+	 */
+	public @Nullable URL toJavaUrl(final @Nullable File javaFile) {
+		if (javaFile == null) {
+			return null;
+		}
+		return this.javaFileToJavaUrl.get(javaFile.getPath(), s -> ConversionUtils.toJavaUrl(javaFile));
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaUrl(File)
+	 */
+	public @NonNull URL asJavaUrl(final @NonNull File javaFile) throws UnconvertibleException {
+		final URL result = toJavaUrl(javaFile);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaUrl(javaFile);
+	}
+	
+	/**
+	 * @see ConversionUtils#toJavaUrl(Path)
+	 */
+	public @Nullable URL toJavaUrl(final @Nullable Path javaPath) {
+		if (javaPath == null) {
+			return null;
+		}
+		return getByPath(this.javaPathToJavaUrl, javaPath, ConversionUtils::toJavaUrl);
+	}
+	
+	/**
+	 * @see ConversionUtils#asJavaUrl(Path)
+	 */
+	public @NonNull URL asJavaUrl(final @NonNull Path javaPath) throws UnconvertibleException {
+		final URL result = toJavaUrl(javaPath);
+		if (result != null) {
+			return result;
+		}
+		return ConversionUtils.asJavaUrl(javaPath);
+	}
+}
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Bounded, thread-safe memo for the results of a pure conversion.
+ *
+ * <p>
+ * Hits never lock. Once the cache exceeds its maximum size, entries are
+ * evicted in approximated least-recently-used order (second chance / CLOCK):
+ * An entry that has been read since the eviction hand last passed it survives
+ * one more round. Misses and invalidations update the eviction queue under a
+ * lock, so every cached entry stays in the queue exactly once.
+ * </p>
+ *
+ * <p>
+ * {@code null} results are cached as well, so repeatedly failing conversions
+ * are not recomputed.
+ * </p>
+ *
+ * @param <S>
+ *            Type of the conversion source; must be immutable and implement
+ *            {@link Object#equals(Object) equals()} and
+ *            {@link Object#hashCode() hashCode()} cheaply.
+ * @param <T>
+ *            Type of the conversion result.
+ *
+ * @see CachingConversionUtils
+ * @since 0.6
+ */
+public class ConversionCache<S, T> {
+	private static final Object NULL_RESULT = new Object();
+	
+	private final int maximumSize;
+	private final ConcurrentHashMap<S, Entry<S, T>> entries;
+	/**
+	 * Entries in eviction order; guarded by {@link #evictionLock}, which is also
+	 * held while removing entries.
+	 */
+	private final Queue<Entry<S, T>> evictionQueue = new ArrayDeque<>();
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+	
+	/**
+	 * Creates a cache holding at most <code>maximumSize</code> results.
+	 *
+	 * @param maximumSize
+	 *            Maximum number of cached results; must be positive.
+	 * @throws IllegalArgumentException
+	 *             If <code>maximumSize</code> is not positive.
+	 */
+	public ConversionCache(final int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+		}
+		
+		this.maximumSize = maximumSize;
+		this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+	}
+	
+	/**
+	 * Returns the cached result for <code>source</code>, or converts and caches
+	 * it.
+	 *
+	 * <p>
+	 * Concurrent misses for the same source might convert more than once; the
+	 * first stored result wins.
+	 * </p>
+	 *
+	 * @param source
+	 *            Source to convert.
+	 * @param conversion
+	 *            Conversion to apply on cache miss; must not depend on mutable
+	 *            state.
+	 * @return Result of <code>conversion</code> for <code>source</code>.
+	 */
+	public @Nullable T get(final @NonNull S source, final @NonNull Function<? super S, ? extends T> conversion) {
+		Objects.requireNonNull(source, "source");
+		
+		final Entry<S, T> cached = this.entries.get(source);
+		if (cached != null) {
+			this.hitCount.increment();
+			if (!cached.referenced) {
+				cached.referenced = true;
+			}
+			return cached.getValue();
+		}
+		
+		this.missCount.increment();
+		final T result = conversion.apply(source);
+		
+		final Entry<S, T> entry = new Entry<>(source, result);
+		final Entry<S, T> existing = this.entries.putIfAbsent(source, entry);
+		if (existing != null) {
+			return existing.getValue();
+		}
+		
+		this.evictionLock.lock();
+		try {
+			// skip if invalidated meanwhile
+			if (this.entries.get(source) == entry) {
+				this.evictionQueue.offer(entry);
+			}
+			evict();
+		} finally {
+			this.evictionLock.unlock();
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Removes the cached result for <code>source</code>, if any.
+	 *
+	 * <p>
+	 * Takes linear time in the size of the cache.
+	 * </p>
+	 *
+	 * @param source
+	 *            Source to forget.
+	 */
+	public void invalidate(final @NonNull S source) {
+		this.evictionLock.lock();
+		try {
+			final Entry<S, T> removed = this.entries.remove(source);
+			if (removed != null) {
+				this.evictionQueue.remove(removed);
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+	
+	/**
+	 * Removes all cached results. Does not reset the statistics.
+	 */
+	public void invalidateAll() {
+		this.evictionLock.lock();
+		try {
+			this.entries.clear();
+			this.evictionQueue.clear();
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+	
+	/**
+	 * @return Current number of cached results.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+	
+	/**
+	 * @return Maximum number of cached results.
+	 */
+	public int getMaximumSize() {
+		return this.maximumSize;
+	}
+	
+	/**
+	 * @return Snapshot of this cache's counters.
+	 */
+	public @NonNull ConversionCacheStatistics getStatistics() {
+		return new ConversionCacheStatistics(this.hitCount.sum(), this.missCount.sum(), this.evictionCount.sum());
+	}
+	
+	/**
+	 * Called holding {@link #evictionLock}.
+	 */
+	private void evict() {
+		// every entry is passed at most twice: once to clear its reference, once to evict
+		int remainingSteps = 2 * this.maximumSize + 2;
+		while (this.entries.size() > this.maximumSize && remainingSteps-- > 0) {
+			final Entry<S, T> candidate = this.evictionQueue.poll();
+			if (candidate == null) {
+				return;
+			}
+			
+			if (candidate.referenced) {
+				candidate.referenced = false;
+				this.evictionQueue.offer(candidate);
+			} else if (this.entries.remove(candidate.key, candidate)) {
+				this.evictionCount.increment();
+			}
+		}
+	}
+	
+	private static final class Entry<S, T> {
+		private final S key;
+		private final Object value;
+		private volatile boolean referenced;
+		
+		Entry(final S key, final @Nullable T value) {
+			this.key = key;
+			this.value = value != null ? value : NULL_RESULT;
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Nullable
+		T getValue() {
+			return this.value != NULL_RESULT ? (T) this.value : null;
+		}
+	}
+}
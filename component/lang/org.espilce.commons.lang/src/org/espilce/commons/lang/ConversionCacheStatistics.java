@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Immutable snapshot of the counters of one or more
+ * {@linkplain ConversionCache ConversionCaches}.
+ *
+ * @since 0.6
+ */
+public final class ConversionCacheStatistics {
+	/**
+	 * Statistics of a cache that has not been used yet.
+	 */
+	public static final @NonNull ConversionCacheStatistics EMPTY = new ConversionCacheStatistics(0, 0, 0);
+	
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+	
+	public ConversionCacheStatistics(final long hitCount, final long missCount, final long evictionCount) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+	}
+	
+	/**
+	 * @return Number of lookups answered from the cache.
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+	
+	/**
+	 * @return Number of lookups that had to convert.
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+	
+	/**
+	 * @return Number of results removed to stay within the maximum size.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount;
+	}
+	
+	/**
+	 * @return Number of all lookups.
+	 */
+	public long getRequestCount() {
+		return this.hitCount + this.missCount;
+	}
+	
+	/**
+	 * @return Ratio of hits to all lookups, or {@code 1.0} if there were no
+	 *         lookups.
+	 */
+	public double getHitRate() {
+		final long requestCount = getRequestCount();
+		return requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount;
+	}
+	
+	/**
+	 * Sums up the counters of <code>this</code> and <code>other</code>.
+	 *
+	 * @param other
+	 *            Statistics to add.
+	 * @return New statistics containing both counters.
+	 */
+	public @NonNull ConversionCacheStatistics plus(final @NonNull ConversionCacheStatistics other) {
+		return new ConversionCacheStatistics(this.hitCount + other.hitCount, this.missCount + other.missCount,
+				this.evictionCount + other.evictionCount);
+	}
+	
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ConversionCacheStatistics)) {
+			return false;
+		}
+		final ConversionCacheStatistics other = (ConversionCacheStatistics) obj;
+		return this.hitCount == other.hitCount && this.missCount == other.missCount
+				&& this.evictionCount == other.evictionCount;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Long.hashCode(this.hitCount) * 31 * 31 + Long.hashCode(this.missCount) * 31
+				+ Long.hashCode(this.evictionCount);
+	}
+	
+	@Override
+	public String toString() {
+		return "ConversionCacheStatistics [hitCount=" + this.hitCount + ", missCount=" + this.missCount
+				+ ", evictionCount=" + this.evictionCount + "]";
+	}
+}
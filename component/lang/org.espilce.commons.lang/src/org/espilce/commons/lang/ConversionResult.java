@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang;
+
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.exception.UnconvertibleException;
+
+/**
+ * Outcome of converting one element of a batch.
+ *
+ * <p>
+ * Either {@link #getResult()} or {@link #getFailure()} is set, unless the
+ * conversion itself returned {@code null} (e.g. for
+ * <code>to<i>TargetType</i>()</code> conversions).
+ * </p>
+ *
+ * @param <S>
+ *            Type of the conversion source.
+ * @param <T>
+ *            Type of the conversion result.
+ *
+ * @see ConversionResults
+ * @since 0.6
+ */
+public final class ConversionResult<S, T> {
+	private final S source;
+	private final @Nullable T result;
+	private final @Nullable UnconvertibleException failure;
+	
+	ConversionResult(final S source, final @Nullable T result, final @Nullable UnconvertibleException failure) {
+		this.source = source;
+		this.result = result;
+		this.failure = failure;
+	}
+	
+	/**
+	 * @return The converted element.
+	 */
+	public S getSource() {
+		return this.source;
+	}
+	
+	/**
+	 * @return The conversion result, or {@code null} if the conversion failed.
+	 */
+	public @Nullable T getResult() {
+		return this.result;
+	}
+	
+	/**
+	 * @return The reason the conversion failed, or {@code null} if it
+	 *         succeeded.
+	 */
+	public @Nullable UnconvertibleException getFailure() {
+		return this.failure;
+	}
+	
+	/**
+	 * @return {@code true} if the conversion did not fail.
+	 */
+	public boolean isConverted() {
+		return this.failure == null;
+	}
+	
+	/**
+	 * @return The conversion result.
+	 * @throws UnconvertibleException
+	 *             If the conversion failed.
+	 */
+	public T getResultOrThrow() throws UnconvertibleException {
+		if (this.failure != null) {
+			throw this.failure;
+		}
+		return this.result;
+	}
+	
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ConversionResult)) {
+			return false;
+		}
+		final ConversionResult<?, ?> other = (ConversionResult<?, ?>) obj;
+		return Objects.equals(this.source, other.source) && Objects.equals(this.result, other.result)
+				&& Objects.equals(this.failure, other.failure);
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.source, this.result, this.failure);
+	}
+	
+	@Override
+	public @NonNull String toString() {
+		if (this.failure != null) {
+			return "ConversionResult [source=" + this.source + ", failure=" + this.failure + "]";
+		}
+		return "ConversionResult [source=" + this.source + ", result=" + this.result + "]";
+	}
+}
@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.lang;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.exception.UnconvertibleException;
+
+/**
+ * Outcomes of a batch conversion, in the order of the sources.
+ *
+ * <p>
+ * Failing elements do not abort the batch; their
+ * {@linkplain ConversionResult#getFailure() failure} is reported alongside the
+ * other results.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable.
+ * </p>
+ *
+ * @param <S>
+ *            Type of the conversion sources.
+ * @param <T>
+ *            Type of the conversion results.
+ *
+ * @see ConversionUtils#convertAll(Collection, Function)
+ * @since 0.6
+ */
+public final class ConversionResults<S, T> extends AbstractList<ConversionResult<S, T>>
+		implements RandomAccess {
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int SEQUENTIAL_CHUNK_SIZE = 512;
+	
+	private final Object[] sources;
+	private final Object[] results;
+	/** {@code null} if there are no failures */
+	private final UnconvertibleException[] failures;
+	private final int size;
+	private final int failureCount;
+	
+	private ConversionResults(final Object[] sources, final Object[] results,
+			final UnconvertibleException[] failures, final int size) {
+		this.sources = sources;
+		this.results = results;
+		this.size = size;
+		
+		int count = 0;
+		if (failures != null) {
+			for (int i = 0; i < size; i++) {
+				if (failures[i] != null) {
+					count++;
+				}
+			}
+		}
+		this.failureCount = count;
+		this.failures = count > 0 ? failures : null;
+	}
+	
+	@Override
+	public @NonNull ConversionResult<S, T> get(final int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+		return new ConversionResult<>(getSource(index), getResult(index), getFailure(index));
+	}
+	
+	@Override
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * @return {@code true} if at least one element could not be converted.
+	 */
+	public boolean hasFailures() {
+		return this.failureCount > 0;
+	}
+	
+	/**
+	 * @return Number of elements that could not be converted.
+	 */
+	public int getFailureCount() {
+		return this.failureCount;
+	}
+	
+	/**
+	 * @return Conversion results in source order; {@code null} for failed
+	 *         elements.
+	 */
+	public @NonNull List<T> getResults() {
+		return new AbstractResultList<T>() {
+			@Override
+			public @Nullable T get(final int index) {
+				checkIndex(index);
+				return getResult(index);
+			}
+		};
+	}
+	
+	/**
+	 * @return Conversion results in source order.
+	 * @throws UnconvertibleException
+	 *             The failure of the first element that could not be converted.
+	 */
+	public @NonNull List<T> getResultsOrThrow() throws UnconvertibleException {
+		final UnconvertibleException[] localFailures = this.failures;
+		if (localFailures != null) {
+			for (int i = 0; i < this.size; i++) {
+				if (localFailures[i] != null) {
+					throw localFailures[i];
+				}
+			}
+		}
+		return getResults();
+	}
+	
+	/**
+	 * @return All outcomes that failed, in source order.
+	 */
+	public @NonNull List<ConversionResult<S, T>> getFailures() {
+		final UnconvertibleException[] localFailures = this.failures;
+		if (localFailures == null) {
+			return Collections.emptyList();
+		}
+		
+		final List<ConversionResult<S, T>> result = new ArrayList<>(this.failureCount);
+		for (int i = 0; i < this.size; i++) {
+			if (localFailures[i] != null) {
+				result.add(get(i));
+			}
+		}
+		return Collections.unmodifiableList(result);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private S getSource(final int index) {
+		return (S) this.sources[index];
+	}
+	
+	@SuppressWarnings("unchecked")
+	private @Nullable T getResult(final int index) {
+		return (T) this.results[index];
+	}
+	
+	private @Nullable UnconvertibleException getFailure(final int index) {
+		final UnconvertibleException[] localFailures = this.failures;
+		return localFailures != null ? localFailures[index] : null;
+	}
+	
+	/**
+	 * Converts <code>sources</code> on <code>pool</code>, splitting them into
+	 * chunks.
+	 */
+	static <S, T> @NonNull ConversionResults<S, T> convertParallel(final @NonNull Collection<? extends S> sources,
+			final @NonNull Function<? super S, ? extends T> conversion, final @NonNull ForkJoinPool pool) {
+		final Object[] sourceArray = sources.toArray();
+		final Object[] results = new Object[sourceArray.length];
+		final UnconvertibleException[] failures = new UnconvertibleException[sourceArray.length];
+		
+		pool.invoke(new ConvertRange<>(sourceArray, results, failures, conversion, 0, sourceArray.length));
+		
+		return new ConversionResults<>(sourceArray, results, failures, sourceArray.length);
+	}
+	
+	private abstract class AbstractResultList<E> extends AbstractList<E> implements RandomAccess {
+		@Override
+		public int size() {
+			return ConversionResults.this.size;
+		}
+		
+		protected void checkIndex(final int index) {
+			if (index < 0 || index >= ConversionResults.this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + ConversionResults.this.size);
+			}
+		}
+	}
+	
+	private static final class ConvertRange<S, T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final Object[] sources;
+		private final Object[] results;
+		private final UnconvertibleException[] failures;
+		private final Function<? super S, ? extends T> conversion;
+		private final int from;
+		private final int to;
+		
+		ConvertRange(final Object[] sources, final Object[] results, final UnconvertibleException[] failures,
+				final Function<? super S, ? extends T> conversion, final int from, final int to) {
+			this.sources = sources;
+			this.results = results;
+			this.failures = failures;
+			this.conversion = conversion;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		protected void compute() {
+			if (this.to - this.from <= SEQUENTIAL_CHUNK_SIZE) {
+				for (int i = this.from; i < this.to; i++) {
+					try {
+						this.results[i] = this.conversion.apply((S) this.sources[i]);
+					} catch (final UnconvertibleException e) {
+						this.failures[i] = e;
+					}
+				}
+				return;
+			}
+			
+			final int middle = (this.from + this.to) >>> 1;
+			invokeAll(new ConvertRange<>(this.sources, this.results, this.failures, this.conversion, this.from, middle),
+					new ConvertRange<>(this.sources, this.results, this.failures, this.conversion, middle, this.to));
+		}
+	}
+	
+	/**
+	 * Collects sources and converts them right away.
+	 */
+	static final class Builder<S, T> {
+		private final Function<? super S, ? extends T> conversion;
+		
+		private Object[] sources;
+		private Object[] results;
+		/** allocated on first failure */
+		private UnconvertibleException[] failures;
+		private int size;
+		
+		Builder(final @NonNull Function<? super S, ? extends T> conversion, final int expectedSize) {
+			this.conversion = conversion;
+			final int capacity = Math.max(expectedSize, INITIAL_CAPACITY);
+			this.sources = new Object[capacity];
+			this.results = new Object[capacity];
+		}
+		
+		void add(final S source) {
+			ensureCapacity(this.size + 1);
+			
+			this.sources[this.size] = source;
+			try {
+				this.results[this.size] = this.conversion.apply(source);
+			} catch (final UnconvertibleException e) {
+				UnconvertibleException[] localFailures = this.failures;
+				if (localFailures == null) {
+					localFailures = new UnconvertibleException[this.sources.length];
+					this.failures = localFailures;
+				}
+				localFailures[this.size] = e;
+			}
+			this.size++;
+		}
+		
+		Builder<S, T> addAll(final Builder<S, T> other) {
+			ensureCapacity(this.size + other.size);
+			
+			System.arraycopy(other.sources, 0, this.sources, this.size, other.size);
+			System.arraycopy(other.results, 0, this.results, this.size, other.size);
+			final UnconvertibleException[] otherFailures = other.failures;
+			if (otherFailures != null) {
+				UnconvertibleException[] localFailures = this.failures;
+				if (localFailures == null) {
+					localFailures = new UnconvertibleException[this.sources.length];
+					this.failures = localFailures;
+				}
+				System.arraycopy(otherFailures, 0, localFailures, this.size, other.size);
+			}
+			this.size += other.size;
+			
+			return this;
+		}
+		
+		@NonNull
+		ConversionResults<S, T> build() {
+			return new ConversionResults<>(this.sources, this.results, this.failures, this.size);
+		}
+		
+		private void ensureCapacity(final int minCapacity) {
+			if (minCapacity <= this.sources.length) {
+				return;
+			}
+			
+			final int capacity = Math.max(minCapacity, this.sources.length + (this.sources.length >> 1));
+			this.sources = Arrays.copyOf(this.sources, capacity);
+			this.results = Arrays.copyOf(this.results, capacity);
+			final UnconvertibleException[] localFailures = this.failures;
+			if (localFailures != null) {
+				this.failures = Arrays.copyOf(localFailures, capacity);
+			}
+		}
+	}
+}
@@ -11,8 +11,13 @@ import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.Objects;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -61,13 +66,26 @@ import org.espilce.commons.exception.UnconvertibleException;
  * @since 0.5
  */
 public class ConversionUtils {
+	/**
+	 * Minimum number of sources for
+	 * {@link #convertAll(Collection, Function, ForkJoinPool)} to fan out.
+	 * 
+	 * @since 0.6
+	 */
+	public static final int PARALLEL_THRESHOLD = 2048;
+	
 	private static final String URI_ENCODING = "UTF-8";
 	private static final int UNDEFINED_PORT = -1;
 	private static final String ESCAPED_COLON = "%3A";
 	private static final String EMPTY_STRING = "";
 	private static final String SEPARATOR_INVALID_AUTHORITY = "//";
 	private static final String SEPARATOR_SCHEME = ":";
+	private static final char SEPARATOR_SCHEME_CHAR = ':';
 	private static final String SEPARATOR_URL_PATH = "/";
+	private static final char SEPARATOR_URL_PATH_CHAR = '/';
+	private static final String URI_PATH_PUNCTUATION = "-_.!~*'():@&=+$,;/";
+	private static final String URI_ILLEGAL_CHARACTERS = "\"<>\\^`{|}";
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
 	private static final String SCHEME_FILE = "file";
 	private static final String SCHEME_FILE_SEPARATOR = SCHEME_FILE + SEPARATOR_SCHEME;
 	
@@ -1261,7 +1279,16 @@ public class ConversionUtils {
 			throw new UnconvertibleException(javaUri, URI.class, Path.class);
 		}
 		
+		if (hasQueryOrFragment(javaUri)) {
+			// we cannot represent any of the conditions in a Path
+			throw new UnconvertibleException(javaUri, URI.class, Path.class);
+		}
+		
 		try {
+			if (!isFileSystemUri(javaUri)) {
+				return Paths.get(javaUri.getSchemeSpecificPart());
+			}
+			
 			try {
 				final URI adjustedJavaUri = getFixedInvalid(javaUri);
 				
@@ -1274,18 +1301,10 @@ public class ConversionUtils {
 				
 				return stripLeadingInvalidAuthority(result);
 			} catch (final IllegalArgumentException | FileSystemNotFoundException | URISyntaxException e) {
-				if (hasQueryOrFragment(javaUri)) {
-					// we cannot represent any of the conditions in a Path
-					throw e;
-				}
-				try {
-					final String schemeSpecificPart = javaUri.getSchemeSpecificPart();
-					return Paths.get(schemeSpecificPart);
-				} catch (final FileSystemNotFoundException ex) {
-					throw ex;
-				}
+				// e.g. invalid characters for the file system; the plain path decides
+				return Paths.get(javaUri.getSchemeSpecificPart());
 			}
-		} catch (final IllegalArgumentException | FileSystemNotFoundException | URISyntaxException e) {
+		} catch (final IllegalArgumentException | FileSystemNotFoundException e) {
 			throw new UnconvertibleException(javaUri, URI.class, Path.class, e);
 		}
 	}
@@ -1327,39 +1346,50 @@ public class ConversionUtils {
 	 * @since 0.5
 	 */
 	public static @NonNull URI asJavaUri(final @NonNull URL javaUrl) throws UnconvertibleException {
-		try {
-			return javaUrl.toURI();
-		} catch (final URISyntaxException e) {
+		final String externalForm = javaUrl.toExternalForm();
+		if (!containsIllegalUriCharacter(externalForm)) {
 			try {
-				final String scheme = decodeUrlPart(javaUrl.getProtocol());
-				final String userInfo = decodeUrlPart(javaUrl.getUserInfo());
-				final String host = !isEmpty(javaUrl.getHost()) ? decodeUrlPart(javaUrl.getHost()) : null;
-				final int port = javaUrl.getPort();
-				final String path = decodeUrlPart(javaUrl.getPath());
-				final String query = decodeUrlPart(javaUrl.getQuery());
-				final String fragment = decodeUrlPart(javaUrl.getRef());
-				
+				// same as javaUrl.toURI()
+				return new URI(externalForm);
+			} catch (final URISyntaxException e) {
+				// fall-through
+			}
+		}
+		
+		try {
+			final String scheme = decodeUrlPart(javaUrl.getProtocol());
+			final String userInfo = decodeUrlPart(javaUrl.getUserInfo());
+			final String host = !isEmpty(javaUrl.getHost()) ? decodeUrlPart(javaUrl.getHost()) : null;
+			final int port = javaUrl.getPort();
+			final String path = decodeUrlPart(javaUrl.getPath());
+			final String query = decodeUrlPart(javaUrl.getQuery());
+			final String fragment = decodeUrlPart(javaUrl.getRef());
+			
+			if (!isRelativePathInAbsoluteUri(scheme, path)) {
 				try {
 					return new URI(scheme, userInfo, host, port, path, query, fragment);
-				} catch (final URISyntaxException e1) {
-					try {
-						final URI uri = new URI(null, userInfo, host, port, path, query, fragment);
-						if (!hasScheme(uri)) {
-							return uri;
-						}
-					} catch (final URISyntaxException e2) {
-						// fall-through
-					}
-					
-					try {
-						return asJavaUriColonSafe(userInfo, host, port, path, query, fragment);
-					} catch (final URISyntaxException e3) {
-						throw new UnconvertibleException(javaUrl, URL.class, URI.class, e);
-					}
+				} catch (final URISyntaxException e) {
+					// fall-through
+				}
+			}
+			
+			if (path != null && userInfo == null && host == null && port == UNDEFINED_PORT && query == null
+					&& fragment == null) {
+				return asJavaUriColonSafe(path);
+			}
+			
+			try {
+				final URI uri = new URI(null, userInfo, host, port, path, query, fragment);
+				if (!hasScheme(uri)) {
+					return uri;
 				}
-			} catch (final UnsupportedEncodingException e4) {
-				throw new UnconvertibleException(javaUrl, URL.class, URI.class, e);
+			} catch (final URISyntaxException e) {
+				// fall-through
 			}
+			
+			return asJavaUriColonSafe(userInfo, host, port, path, query, fragment);
+		} catch (final UnsupportedEncodingException | URISyntaxException e) {
+			throw new UnconvertibleException(javaUrl, URL.class, URI.class, e);
 		}
 	}
 	
@@ -1388,13 +1418,261 @@ public class ConversionUtils {
 		}
 	}
 	
-	private static URI asJavaUriColonSafe(final String adjustedSeparators) throws URISyntaxException {
-		return asJavaUriColonSafe(null, null, UNDEFINED_PORT, adjustedSeparators, null, null);
+	/**
+	 * Converts all <code>sources</code>, collecting per-element failures instead
+	 * of aborting.
+	 * 
+	 * <p>
+	 * Any conversion of this class or its subclasses can be used; an
+	 * {@link UnconvertibleException} thrown by <code>conversion</code> is
+	 * reported as {@linkplain ConversionResult#getFailure() failure} of the
+	 * respective element.
+	 * </p>
+	 * 
+	 * <pre>
+	 * convertAll(uris, ConversionUtils::asJavaPath)
+	 * convertAll(paths, UriUtils::asEmfUri)
+	 * </pre>
+	 * 
+	 * @param sources
+	 *            Elements to convert; must not contain {@code null}.
+	 * @param conversion
+	 *            Conversion to apply to each element.
+	 * @return Outcomes in the order of <code>sources</code>.
+	 * @since 0.6
+	 */
+	public static <S, T> @NonNull ConversionResults<S, T> convertAll(final @NonNull Collection<? extends S> sources,
+			final @NonNull Function<? super S, ? extends T> conversion) {
+		final ConversionResults.Builder<S, T> builder = new ConversionResults.Builder<>(conversion, sources.size());
+		for (final S source : sources) {
+			builder.add(source);
+		}
+		return builder.build();
+	}
+	
+	/**
+	 * Converts all <code>sources</code>, collecting per-element failures instead
+	 * of aborting.
+	 * 
+	 * <p>
+	 * If <code>sources</code> contains at least {@value #PARALLEL_THRESHOLD}
+	 * elements, the conversions are distributed on <code>pool</code>.
+	 * <code>conversion</code> must be thread-safe.
+	 * </p>
+	 * 
+	 * @param sources
+	 *            Elements to convert; must not contain {@code null}.
+	 * @param conversion
+	 *            Conversion to apply to each element.
+	 * @param pool
+	 *            Pool to run the conversions on.
+	 * @return Outcomes in the order of <code>sources</code>.
+	 * @see #convertAll(Collection, Function)
+	 * @since 0.6
+	 */
+	public static <S, T> @NonNull ConversionResults<S, T> convertAll(final @NonNull Collection<? extends S> sources,
+			final @NonNull Function<? super S, ? extends T> conversion, final @NonNull ForkJoinPool pool) {
+		if (sources.size() < PARALLEL_THRESHOLD) {
+			return convertAll(sources, conversion);
+		}
+		return ConversionResults.convertParallel(sources, conversion, pool);
+	}
+	
+	/**
+	 * Converts all <code>sources</code>, collecting per-element failures instead
+	 * of aborting.
+	 * 
+	 * @param sources
+	 *            Elements to convert; must not contain {@code null}. Parallel
+	 *            streams are converted in parallel.
+	 * @param conversion
+	 *            Conversion to apply to each element.
+	 * @return Outcomes in the encounter order of <code>sources</code>.
+	 * @see #convertAll(Collection, Function)
+	 * @since 0.6
+	 */
+	public static <S, T> @NonNull ConversionResults<S, T> convertAll(final @NonNull Stream<? extends S> sources,
+			final @NonNull Function<? super S, ? extends T> conversion) {
+		return sources.collect(toConversionResults(conversion));
+	}
+	
+	/**
+	 * Returns a {@link Collector} converting all elements, collecting
+	 * per-element failures instead of aborting.
+	 * 
+	 * <pre>
+	 * Files.walk(root).collect(toConversionResults(ConversionUtils::asJavaUri))
+	 * </pre>
+	 * 
+	 * @param conversion
+	 *            Conversion to apply to each element.
+	 * @return Collector of outcomes in encounter order.
+	 * @see #convertAll(Collection, Function)
+	 * @since 0.6
+	 */
+	public static <S, T> @NonNull Collector<S, ?, ConversionResults<S, T>> toConversionResults(
+			final @NonNull Function<? super S, ? extends T> conversion) {
+		return Collector.of(
+				() -> new ConversionResults.Builder<S, T>(conversion, 0),
+				ConversionResults.Builder::add,
+				ConversionResults.Builder::addAll,
+				ConversionResults.Builder::build);
+	}
+	
+	/**
+	 * Single pass equivalent of
+	 * {@link #asJavaUriColonSafe(String, String, int, String, String, String)}
+	 * for a plain path.
+	 * 
+	 * <p>
+	 * Quotes <code>path</code> like {@link URI#URI(String, String, String, String)
+	 * new URI(null, null, path, null)} would, but escapes any colon in the first
+	 * segment right away instead of reparsing the result.
+	 * </p>
+	 */
+	private static URI asJavaUriColonSafe(final String path) throws URISyntaxException {
+		if (path.startsWith(SEPARATOR_INVALID_AUTHORITY)) {
+			// would be parsed as authority, keep the exact semantics
+			return asJavaUriColonSafe(null, null, UNDEFINED_PORT, path, null, null);
+		}
+		
+		final int length = path.length();
+		final int firstSlash = path.indexOf(SEPARATOR_URL_PATH_CHAR);
+		final int firstSegmentEnd = firstSlash > -1 ? firstSlash : length;
+		
+		StringBuilder result = null;
+		boolean escapedColon = false;
+		boolean nonAscii = false;
+		for (int i = 0; i < length; i++) {
+			final char c = path.charAt(i);
+			if (c < '\u0080') {
+				if (c == SEPARATOR_SCHEME_CHAR && i < firstSegmentEnd) {
+					result = startQuoting(result, path, i);
+					result.append(ESCAPED_COLON);
+					escapedColon = true;
+				} else if (!isUriPathChar(c)) {
+					result = startQuoting(result, path, i);
+					appendEscaped(result, c);
+				} else if (result != null) {
+					result.append(c);
+				}
+			} else {
+				nonAscii = true;
+				if (Character.isSpaceChar(c) || Character.isISOControl(c)) {
+					result = startQuoting(result, path, i);
+					appendEscapedUtf8(result, c);
+				} else if (result != null) {
+					result.append(c);
+				}
+			}
+		}
+		
+		if (escapedColon && nonAscii) {
+			// the ASCII form is normalized before escaping the scheme separator
+			return asJavaUriColonSafe(null, null, UNDEFINED_PORT, path, null, null);
+		}
+		
+		return new URI(result != null ? result.toString() : path);
+	}
+	
+	private static StringBuilder startQuoting(final @Nullable StringBuilder result, final String str, final int index) {
+		if (result != null) {
+			return result;
+		}
+		
+		final StringBuilder quoted = new StringBuilder(str.length() + 16);
+		quoted.append(str, 0, index);
+		return quoted;
+	}
+	
+	/**
+	 * Characters {@link URI} does not quote within a path: <i>unreserved</i>,
+	 * <i>punct</i>, and the separators <tt>;</tt> and <tt>/</tt>.
+	 */
+	private static boolean isUriPathChar(final char c) {
+		if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+			return true;
+		}
+		
+		return URI_PATH_PUNCTUATION.indexOf(c) > -1;
+	}
+	
+	private static void appendEscaped(final StringBuilder result, final int b) {
+		result.append('%');
+		result.append(HEX_DIGITS[(b >> 4) & 0x0F]);
+		result.append(HEX_DIGITS[b & 0x0F]);
+	}
+	
+	private static void appendEscapedUtf8(final StringBuilder result, final char c) {
+		// only called for non-surrogate characters >= U+0080
+		if (c < '\u0800') {
+			appendEscaped(result, 0xC0 | (c >> 6));
+		} else {
+			appendEscaped(result, 0xE0 | (c >> 12));
+			appendEscaped(result, 0x80 | ((c >> 6) & 0x3F));
+		}
+		appendEscaped(result, 0x80 | (c & 0x3F));
+	}
+	
+	/**
+	 * Checks for characters that are not allowed anywhere in a {@link URI}, so
+	 * parsing <code>str</code> would fail anyway.
+	 */
+	private static boolean containsIllegalUriCharacter(final String str) {
+		final int length = str.length();
+		for (int i = 0; i < length; i++) {
+			final char c = str.charAt(i);
+			if (c <= ' ' || c == '\u007F') {
+				return true;
+			} else if (c == '%') {
+				if (i + 2 >= length || !isHexDigit(str.charAt(i + 1)) || !isHexDigit(str.charAt(i + 2))) {
+					return true;
+				}
+			} else if (c < '\u0080') {
+				if (URI_ILLEGAL_CHARACTERS.indexOf(c) > -1) {
+					return true;
+				}
+			} else if (Character.isSpaceChar(c) || Character.isISOControl(c)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static boolean isHexDigit(final char c) {
+		return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+	}
+	
+	/**
+	 * {@link URI} rejects a relative path if a scheme is given.
+	 */
+	private static boolean isRelativePathInAbsoluteUri(final @Nullable String scheme, final @Nullable String path) {
+		return scheme != null && !isEmpty(path) && path.charAt(0) != SEPARATOR_URL_PATH_CHAR;
+	}
+	
+	/**
+	 * Checks whether <code>javaUri</code> might be accepted by
+	 * {@link Paths#get(URI)}, i.e. it is absolute, hierarchical and has either
+	 * no authority or an invalid one we {@linkplain #getFixedInvalid(URI) fix}.
+	 * 
+	 * <p>
+	 * Expects a {@code file} or no scheme, and no query or fragment.
+	 * </p>
+	 */
+	private static boolean isFileSystemUri(final URI javaUri) {
+		if (!hasScheme(javaUri) || javaUri.isOpaque()) {
+			return false;
+		}
+		
+		final String authority = javaUri.getRawAuthority();
+		return authority == null || authority.endsWith(SEPARATOR_SCHEME);
 	}
 	
 	private static Path stripLeadingInvalidAuthority(Path result) {
-		while (result.toString().startsWith(SEPARATOR_INVALID_AUTHORITY)) {
-			result = Paths.get(result.toString().substring(1));
+		String str;
+		while ((str = result.toString()).startsWith(SEPARATOR_INVALID_AUTHORITY)) {
+			result = Paths.get(str.substring(1));
 		}
 		
 		return result;
@@ -1415,9 +1693,8 @@ public class ConversionUtils {
 	
 	private static String createUniqueMarker(final String asciiString) {
 		final StringBuilder tmp = new StringBuilder("__tmp__");
-		final Random random = new Random();
 		while (asciiString.contains(tmp)) {
-			tmp.append(random.nextInt());
+			tmp.append(ThreadLocalRandom.current().nextInt());
 			tmp.append("__");
 		}
 		return tmp.toString();
@@ -1432,7 +1709,7 @@ public class ConversionUtils {
 	}
 	
 	private static boolean hasQueryOrFragment(final URI javaUri) {
-		return javaUri.getQuery() != null || javaUri.getFragment() != null;
+		return javaUri.getRawQuery() != null || javaUri.getRawFragment() != null;
 	}
 	
 	private static @Nullable String decodeUrlPart(@Nullable final String str) throws UnsupportedEncodingException {
@@ -1473,11 +1750,16 @@ public class ConversionUtils {
 	}
 	
 	private static String replaceSeparatorFileUrl(final String path) {
-		return path.replace(File.separator, SEPARATOR_URL_PATH);
+		// char-based replace is a no-op on Unix, and avoids the regex of replace(CharSequence, CharSequence)
+		return path.replace(File.separatorChar, SEPARATOR_URL_PATH_CHAR);
 	}
 	
 	private static String replaceSeparatorPathUrl(final Path javaPath) {
-		return javaPath.toString().replace(javaPath.getFileSystem().getSeparator(), SEPARATOR_URL_PATH);
+		final String separator = javaPath.getFileSystem().getSeparator();
+		if (separator.length() == 1) {
+			return javaPath.toString().replace(separator.charAt(0), SEPARATOR_URL_PATH_CHAR);
+		}
+		return javaPath.toString().replace(separator, SEPARATOR_URL_PATH);
 	}
 	
 	/**
@@ -1507,7 +1789,17 @@ public class ConversionUtils {
 	}
 
 	private static boolean isBlank(@Nullable final String str) {
-		return str == null || str.isEmpty() || str.chars().allMatch(Character::isWhitespace);
+		if (str == null) {
+			return true;
+		}
+		
+		for (int i = 0; i < str.length(); i++) {
+			if (!Character.isWhitespace(str.charAt(i))) {
+				return false;
+			}
+		}
+		
+		return true;
 	}
 
 	private static boolean isEmpty(@Nullable final String str) {
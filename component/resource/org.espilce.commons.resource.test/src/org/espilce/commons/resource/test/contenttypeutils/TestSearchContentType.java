@@ -15,6 +15,8 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.content.IContentType;
 import org.espilce.commons.exception.UnmappableException;
 import org.espilce.commons.resource.ContentTypeUtils;
 import org.espilce.commons.testsupport.resource.builder.ProjectBuilder;
@@ -67,6 +69,37 @@ public class TestSearchContentType {
 		assertNull(ContentTypeUtils.searchContentType(this.project.getFile("fileWithoutExtension")));
 	}
 	
+	@SuppressWarnings("null")
+	@Test
+	public void searchTextFileName() {
+		assertEquals("org.eclipse.core.runtime.text", ContentTypeUtils.searchContentType("textFile.txt").getId());
+		assertEquals("org.eclipse.core.runtime.text", ContentTypeUtils.searchContentType("TEXTFILE.TXT").getId());
+		assertEquals("org.eclipse.core.runtime.text", ContentTypeUtils.searchContentType("dir/textFile.txt").getId());
+	}
+	
+	@Test
+	public void findFileNameWithoutExtension() {
+		assertThrows(UnmappableException.class, () -> ContentTypeUtils.findContentType("fileWithoutExtension"));
+		assertNull(ContentTypeUtils.searchContentType("fileWithoutExtension."));
+	}
+	
+	@SuppressWarnings("null")
+	@Test
+	public void searchFileNamePattern() throws Exception {
+		final IContentType xml = Platform.getContentTypeManager().getContentType("org.eclipse.core.runtime.xml");
+		assertNull(ContentTypeUtils.searchContentType("espilce-pattern.cfg"));
+		
+		xml.addFileSpec("espilce-*.cfg", IContentType.FILE_PATTERN_SPEC);
+		try {
+			assertEquals("org.eclipse.core.runtime.xml", ContentTypeUtils.searchContentType("espilce-pattern.cfg").getId());
+			assertNull(ContentTypeUtils.searchContentType("other.cfg"));
+		} finally {
+			xml.removeFileSpec("espilce-*.cfg", IContentType.FILE_PATTERN_SPEC);
+		}
+		
+		assertNull(ContentTypeUtils.searchContentType("espilce-pattern.cfg"));
+	}
+	
 	@AfterEach
 	public void destroyProjects() throws Exception {
 		destroyProject(this.project);
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.resource;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.exception.UnconvertibleException;
+import org.espilce.commons.lang.CachingConversionUtils;
+import org.espilce.commons.lang.ConversionCache;
+
+/**
+ * Memoizing facade over the {@linkplain org.eclipse.core.runtime.IPath Eclipse
+ * IPath} conversions of {@link ResourceUtils}.
+ *
+ * <p>
+ * Conversions from or to {@linkplain org.eclipse.core.resources.IResource
+ * Eclipse IResources} depend on the workspace state and are therefore not
+ * offered here; use {@link ResourceUtils} directly.
+ * </p>
+ *
+ * @see CachingConversionUtils
+ * @since 0.6
+ */
+public class CachingResourceUtils extends CachingConversionUtils {
+	private final ConversionCache<IPath, URL> iPathToJavaUrl = createCache();
+	private final ConversionCache<IPath, URI> iPathToJavaUri = createCache();
+	private final ConversionCache<IPath, java.nio.file.Path> iPathToJavaPath = createCache();
+	private final ConversionCache<IPath, File> iPathToJavaFile = createCache();
+	private final ConversionCache<String, IPath> javaUrlToIPath = createCache();
+	private final ConversionCache<String, IPath> javaUriToIPath = createCache();
+	private final ConversionCache<String, IPath> javaPathToIPath = createCache();
+	private final ConversionCache<String, IPath> javaFileToIPath = createCache();
+	
+	/**
+	 * Creates a facade with caches of {@link #DEFAULT_MAXIMUM_SIZE}.
+	 */
+	public CachingResourceUtils() {
+		super();
+	}
+	
+	/**
+	 * Creates a facade with caches of <code>maximumSize</code>.
+	 *
+	 * @param maximumSize
+	 *            Maximum number of cached results per conversion; must be
+	 *            positive.
+	 * @throws IllegalArgumentException
+	 *             If <code>maximumSize</code> is not positive.
+	 */
+	public CachingResourceUtils(final int maximumSize) {
+		super(maximumSize);
+	}
+	
+	/**
+	 * @see ResourceUtils#toJavaUrl(IPath)
+	 */
+	public @Nullable URL toJavaUrl(final @Nullable IPath iPath) {
+		if (iPath == null) {
+			return null;
+		}
+		return this.iPathToJavaUrl.get(iPath, ResourceUtils::toJavaUrl);
+	}
+	
+	/**
+	 * @see ResourceUtils#asJavaUrl(IPath)
+	 */
+	public @NonNull URL asJavaUrl(final @NonNull IPath iPath) throws UnconvertibleException {
+		final URL result = toJavaUrl(iPath);
+		if (result != null) {
+			return result;
+		}
+		return ResourceUtils.asJavaUrl(iPath);
+	}
+	
+	/**
+	 * @see ResourceUtils#toJavaUri(IPath)
+	 */
+	public @Nullable URI toJavaUri(final @Nullable IPath iPath) {
+		if (iPath == null) {
+			return null;
+		}
+		return this.iPathToJavaUri.get(iPath, ResourceUtils::toJavaUri);
+	}
+	
+	/**
+	 * @see ResourceUtils#asJavaUri(IPath)
+	 */
+	public @NonNull URI asJavaUri(final @NonNull IPath iPath) throws UnconvertibleException {
+		final URI result = toJavaUri(iPath);
+		if (result != null) {
+			return result;
+		}
+		return ResourceUtils.asJavaUri(iPath);
+	}
+	
+	/**
+	 * @see ResourceUtils#toJavaPath(IPath)
+	 */
+	public java.nio.file.@Nullable Path toJavaPath(final @Nullable IPath iPath) {
+		if (iPath == null) {
+			return null;
+		}
+		return this.iPathToJavaPath.get(iPath, ResourceUtils::toJavaPath);
+	}
+	
+	/**
+	 * @see ResourceUtils#asJavaPath(IPath)
+	 */
+	public java.nio.file.@NonNull Path asJavaPath(final @NonNull IPath iPath) throws UnconvertibleException {
+		final java.nio.file.Path result = toJavaPath(iPath);
+		if (result != null) {
+			return result;
+		}
+		return ResourceUtils.asJavaPath(iPath);
+	}
+	
+	/**
+	 * @see ResourceUtils#toJavaFile(IPath)
+	 */
+	public @Nullable File toJavaFile(final @Nullable IPath iPath) {
+		if (iPath == null) {
+			return null;
+		}
+		return this.iPathToJavaFile.get(iPath, ResourceUtils::toJavaFile);
+	}
+	
+	/**
+	 * @see ResourceUtils#asJavaFile(IPath)
+	 */
+	public @NonNull File asJavaFile(final @NonNull IPath iPath) throws UnconvertibleException {
+		final File result = toJavaFile(iPath);
+		if (result != null) {
+			return result;
+		}
+		return ResourceUtils.asJavaFile(iPath);
+	}
+	
+	/**
+	 * @see ResourceUtils#toIPath(URL)
+	 */
+	public @Nullable IPath toIPath(final @Nullable URL javaUrl) {
+		if (javaUrl == null) {
+			return null;
+		}
+		return this.javaUrlToIPath.get(javaUrl.toExternalForm(), s -> ResourceUtils.toIPath(javaUrl));
+	}
+	
+	/**
+	 * @see ResourceUtils#asIPath(URL)
+	 */
+	public @NonNull IPath asIPath(final @NonNull URL javaUrl) throws UnconvertibleException {
+		final IPath result = toIPath(javaUrl);
+		if (result != null) {
+			return result;
+		}
+		return ResourceUtils.asIPath(javaUrl);
+	}
+	
+	/**
+	 * @see ResourceUtils#toIPath(URI)
+	 */
+	public @Nullable IPath toIPath(final @Nullable URI javaUri) {
+		if (javaUri == null) {
+			return null;
+		}
+		return this.javaUriToIPath.get(javaUri.toString(), s -> ResourceUtils.toIPath(javaUri));
+	}
+	
+	/**
+	 * @see ResourceUtils#asIPath(URI)
+	 */
+	public @NonNull IPath asIPath(final @NonNull URI javaUri) throws UnconvertibleException {
+		final IPath result = toIPath(javaUri);
+		if (result != null) {
+			return result;
+		}
+		return ResourceUtils.asIPath(javaUri);
+	}
+	
+	/**
+	 * @see ResourceUtils#toIPath(java.nio.file.Path)
+	 */
+	public @Nullable IPath toIPath(final java.nio.file.@Nullable Path javaPath) {
+		if (javaPath == null) {
+			return null;
+		}
+		return getByPath(this.javaPathToIPath, javaPath, ResourceUtils::toIPath);
+	}
+	
+	/**
+	 * @see ResourceUtils#asIPath(java.nio.file.Path)
+	 */
+	public @NonNull IPath asIPath(final java.nio.file.@NonNull Path javaPath) throws UnconvertibleException {
+		final IPath result = toIPath(javaPath);
+		if (result != null) {
+			return result;
+		}
+		return ResourceUtils.asIPath(javaPath);
+	}
+	
+	/**
+	 * @see ResourceUtils#toIPath(File)
+	 */
+	public @Nullable IPath toIPath(final @Nullable File javaFile) {
+		if (javaFile == null) {
+			return null;
+		}
+		return this.javaFileToIPath.get(javaFile.getPath(), s -> ResourceUtils.toIPath(javaFile));
+	}
+	
+	/**
+	 * @see ResourceUtils#asIPath(File)
+	 */
+	public @NonNull IPath asIPath(final @NonNull File javaFile) throws UnconvertibleException {
+		final IPath result = toIPath(javaFile);
+		if (result != null) {
+			return result;
+		}
+		return ResourceUtils.asIPath(javaFile);
+	}
+}
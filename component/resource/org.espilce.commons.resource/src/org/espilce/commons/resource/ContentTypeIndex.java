@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.resource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.content.IContentTypeManager;
+import org.eclipse.core.runtime.content.IContentTypeManager.ContentTypeChangeEvent;
+import org.eclipse.core.runtime.content.IContentTypeManager.IContentTypeChangeListener;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.lang.ConversionCache;
+
+/**
+ * Content Types of the platform, indexed by the file names and file extensions
+ * they are associated with.
+ *
+ * <p>
+ * File patterns cannot be indexed; Content Types associated with a file pattern
+ * are confirmed by the Content Type Manager for every file name looked up.
+ * </p>
+ *
+ * <p>
+ * The index is built on first use and dropped whenever a Content Type changes,
+ * e.g. by adding a user-defined file association; it is rebuilt on the next
+ * lookup. The results of recent lookups are cached with the index.
+ * </p>
+ *
+ * <p>
+ * Like {@link IContentType#isAssociatedWith(String)}, a Content Type without
+ * pre-defined file associations is associated with the files of its base type.
+ * If several Content Types are associated with a file name, the one the
+ * {@linkplain IContentTypeManager#findContentTypesFor(String) Content Type
+ * Manager} prefers is returned.
+ * </p>
+ */
+final class ContentTypeIndex implements IContentTypeChangeListener {
+	private static final int CACHE_SIZE = 1024;
+	
+	private static final int PRE_DEFINED_SPECS = IContentType.FILE_NAME_SPEC | IContentType.FILE_EXTENSION_SPEC
+			| IContentType.FILE_PATTERN_SPEC | IContentType.IGNORE_USER_DEFINED;
+	
+	private static final ContentTypeIndex INSTANCE = new ContentTypeIndex();
+	
+	private IContentTypeManager listeningTo;
+	private final AtomicInteger generation = new AtomicInteger();
+	private volatile Index index;
+	
+	private ContentTypeIndex() {
+	}
+	
+	static @NonNull ContentTypeIndex getInstance() {
+		return INSTANCE;
+	}
+	
+	/**
+	 * Looks up the Content Type for a file name.
+	 *
+	 * @param fileName
+	 *            File name to look up.
+	 * @return Content Type of <code>fileName</code>, if any.
+	 */
+	@NonNull
+	Optional<IContentType> lookup(final @NonNull String fileName) {
+		return Optional.ofNullable(getIndex().lookup(fileName));
+	}
+	
+	private @NonNull Index getIndex() {
+		final IContentTypeManager manager = Platform.getContentTypeManager();
+		final Index current = this.index;
+		if (current != null && current.manager == manager) {
+			return current;
+		}
+		
+		synchronized (this) {
+			if (this.listeningTo != manager) {
+				if (this.listeningTo != null) {
+					this.listeningTo.removeContentTypeChangeListener(this);
+				}
+				manager.addContentTypeChangeListener(this);
+				this.listeningTo = manager;
+			}
+			
+			// Change events are not synchronized with this lock; an index built
+			// while Content Types change is used once, but not kept
+			final int buildGeneration = this.generation.get();
+			final Index built = new Index(manager);
+			if (buildGeneration == this.generation.get()) {
+				this.index = built;
+			}
+			return built;
+		}
+	}
+	
+	@Override
+	public void contentTypeChanged(final ContentTypeChangeEvent event) {
+		this.generation.incrementAndGet();
+		this.index = null;
+	}
+	
+	private static final class Index {
+		final IContentTypeManager manager;
+		private final Map<String, List<IContentType>> byFileName = new HashMap<>();
+		private final Map<String, List<IContentType>> byFileExtension = new HashMap<>();
+		private final List<IContentType> byFilePattern = new ArrayList<>();
+		private final ConversionCache<String, IContentType> results = new ConversionCache<>(CACHE_SIZE);
+		
+		Index(final @NonNull IContentTypeManager manager) {
+			this.manager = manager;
+			for (final IContentType contentType : manager.getAllContentTypes()) {
+				IContentType associated = contentType;
+				while (associated != null) {
+					add(this.byFileName, associated.getFileSpecs(IContentType.FILE_NAME_SPEC), contentType);
+					add(this.byFileExtension, associated.getFileSpecs(IContentType.FILE_EXTENSION_SPEC), contentType);
+					if (associated.getFileSpecs(IContentType.FILE_PATTERN_SPEC).length > 0
+							&& !this.byFilePattern.contains(contentType)) {
+						this.byFilePattern.add(contentType);
+					}
+					associated = associated.getFileSpecs(PRE_DEFINED_SPECS).length == 0 ? associated.getBaseType()
+							: null;
+				}
+			}
+		}
+		
+		@Nullable
+		IContentType lookup(final @NonNull String fileName) {
+			return this.results.get(fileName, this::resolve);
+		}
+		
+		private @Nullable IContentType resolve(final @NonNull String fileName) {
+			final List<IContentType> matches = new ArrayList<>(2);
+			addMatches(matches, this.byFileName.get(key(fileName)), fileName);
+			final String fileExtension = getFileExtension(fileName);
+			if (fileExtension != null) {
+				addMatches(matches, this.byFileExtension.get(key(fileExtension)), fileName);
+			}
+			
+			IContentType[] preferredOrder = null;
+			if (!this.byFilePattern.isEmpty()) {
+				// IContentType#isAssociatedWith() does not match file patterns on all platform versions
+				preferredOrder = this.manager.findContentTypesFor(fileName);
+				final List<IContentType> associated = Arrays.asList(preferredOrder);
+				for (final IContentType candidate : this.byFilePattern) {
+					if (!matches.contains(candidate)
+							&& (associated.contains(candidate) || candidate.isAssociatedWith(fileName))) {
+						matches.add(candidate);
+					}
+				}
+			}
+			
+			if (matches.size() <= 1) {
+				return matches.isEmpty() ? null : matches.get(0);
+			}
+			
+			if (preferredOrder == null) {
+				preferredOrder = this.manager.findContentTypesFor(fileName);
+			}
+			for (final IContentType preferred : preferredOrder) {
+				if (matches.contains(preferred)) {
+					return preferred;
+				}
+			}
+			return matches.get(0);
+		}
+		
+		private static void addMatches(
+				final @NonNull List<IContentType> matches,
+				final @Nullable List<IContentType> candidates,
+				final @NonNull String fileName
+		) {
+			if (candidates == null) {
+				return;
+			}
+			
+			// The index ignores the scope of user-defined associations, so confirm each candidate
+			for (final IContentType candidate : candidates) {
+				if (!matches.contains(candidate) && candidate.isAssociatedWith(fileName)) {
+					matches.add(candidate);
+				}
+			}
+		}
+		
+		private static void add(
+				final @NonNull Map<String, List<IContentType>> index,
+				final String @NonNull [] fileSpecs,
+				final @NonNull IContentType contentType
+		) {
+			for (final String fileSpec : fileSpecs) {
+				final List<IContentType> contentTypes = index.computeIfAbsent(key(fileSpec), k -> new ArrayList<>(1));
+				if (contentTypes.isEmpty() || contentTypes.get(contentTypes.size() - 1) != contentType) {
+					contentTypes.add(contentType);
+				}
+			}
+		}
+		
+		private static @Nullable String getFileExtension(final @NonNull String fileName) {
+			final int dotPosition = fileName.lastIndexOf('.');
+			return dotPosition == -1 || dotPosition == fileName.length() - 1 ? null : fileName.substring(dotPosition + 1);
+		}
+		
+		private static @NonNull String key(final @NonNull String fileSpec) {
+			// File specs are matched ignoring case
+			return fileSpec.toLowerCase(Locale.ROOT);
+		}
+	}
+}
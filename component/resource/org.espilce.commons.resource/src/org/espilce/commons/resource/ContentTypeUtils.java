@@ -154,8 +154,7 @@ public class ContentTypeUtils {
 	}
 	
 	private static Optional<IContentType> lookupContentType(final String fileName) {
-		return Arrays.asList(Platform.getContentTypeManager().getAllContentTypes()).stream()
-				.filter(ct -> ct.isAssociatedWith(fileName)).findAny();
+		return ContentTypeIndex.getInstance().lookup(fileName);
 	}
 	
 	/**
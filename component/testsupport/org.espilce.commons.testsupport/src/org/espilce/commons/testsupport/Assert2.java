@@ -12,6 +12,8 @@ package org.espilce.commons.testsupport;
 import static org.espilce.commons.assertion.Assertion.assertEquals;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.text.NewlineInsensitiveMismatch;
+import org.espilce.commons.text.NewlineNormalizer;
 import org.espilce.commons.text.StringUtils2;
 
 public class Assert2 {
@@ -23,14 +25,32 @@ public class Assert2 {
 		if (expected == null || actual == null) {
 			assertEquals(expected, actual, message);
 		} else {
+			final String expectedString = expected.toString();
+			final String actualString = actual.toString();
+			final NewlineInsensitiveMismatch mismatch = NewlineNormalizer.mismatchIgnoringNewlineStyle(
+					expectedString,
+					actualString
+			);
+			if (mismatch == null) {
+				return;
+			}
+			
 			assertEquals(
-					StringUtils2.normalizeNewline(expected.toString()),
-					StringUtils2.normalizeNewline(actual.toString()),
-					message
+					StringUtils2.normalizeNewline(expectedString),
+					StringUtils2.normalizeNewline(actualString),
+					describeMismatch(message, mismatch)
 			);
 		}
 	}
 	
+	private static String describeMismatch(
+			final @Nullable String message,
+			final NewlineInsensitiveMismatch mismatch
+	) {
+		final String position = "first difference at line " + mismatch.getLine() + ", column " + mismatch.getColumn();
+		return message != null ? message + " (" + position + ")" : position;
+	}
+	
 	public static void assertEqualsNormalizedNewline(final @Nullable Object expected, final @Nullable Object actual) {
 		assertEqualsNormalizedNewline(null, expected, actual);
 	}
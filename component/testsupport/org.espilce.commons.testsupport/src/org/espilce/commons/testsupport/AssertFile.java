@@ -15,10 +15,14 @@ import static org.espilce.commons.assertion.Assertion.assertNotNull;
 import static org.espilce.commons.assertion.Assertion.assertTrue;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.jdt.annotation.Nullable;
+import org.espilce.commons.text.NewlineNormalizer;
 
 public class AssertFile {
 	@SuppressWarnings("null")
@@ -121,6 +125,19 @@ public class AssertFile {
 		assertCanRead(message, actual);
 		
 		try {
+			try (
+					final InputStream expectedStream = new FileInputStream(expected);
+					final InputStream actualStream = new FileInputStream(actual)
+			) {
+				if (NewlineNormalizer.equalsIgnoringNewlineStyle(
+						expectedStream,
+						actualStream,
+						Charset.defaultCharset()
+				)) {
+					return;
+				}
+			}
+			
 			final String expectedContent = FileUtils.readFileToString(expected);
 			final String actualContent = FileUtils.readFileToString(actual);
 			
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text.test.newlinenormalizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.espilce.commons.text.NewlineInsensitiveMismatch;
+import org.espilce.commons.text.NewlineNormalizer;
+import org.junit.jupiter.api.Test;
+
+public class TestEqualsIgnoringNewlineStyle {
+	@Test
+	public void nulls() throws Exception {
+		assertTrue(NewlineNormalizer.equalsIgnoringNewlineStyle((String) null, null));
+		assertFalse(NewlineNormalizer.equalsIgnoringNewlineStyle("a", null));
+		assertFalse(NewlineNormalizer.equalsIgnoringNewlineStyle(null, "a"));
+	}
+	
+	@Test
+	public void equal() throws Exception {
+		assertTrue(NewlineNormalizer.equalsIgnoringNewlineStyle("", ""));
+		assertTrue(NewlineNormalizer.equalsIgnoringNewlineStyle("Some text", "Some text"));
+		assertTrue(NewlineNormalizer.equalsIgnoringNewlineStyle("a\nb", "a\r\nb"));
+		assertTrue(NewlineNormalizer.equalsIgnoringNewlineStyle("a\n\rb", "a\rb"));
+		assertTrue(NewlineNormalizer.equalsIgnoringNewlineStyle("a\r\n\rb\n", "a\n\nb\r"));
+		assertTrue(NewlineNormalizer.equalsIgnoringNewlineStyle(new StringBuilder("a\r\n"), "a\n"));
+	}
+	
+	@Test
+	public void different() throws Exception {
+		assertFalse(NewlineNormalizer.equalsIgnoringNewlineStyle("a\n\nb", "a\r\nb"));
+		assertFalse(NewlineNormalizer.equalsIgnoringNewlineStyle("a\nb", "a b"));
+		assertFalse(NewlineNormalizer.equalsIgnoringNewlineStyle("a\n", "a"));
+		assertFalse(NewlineNormalizer.equalsIgnoringNewlineStyle("a", "a\r\n"));
+	}
+	
+	@Test
+	public void mismatchNone() throws Exception {
+		assertNull(NewlineNormalizer.mismatchIgnoringNewlineStyle("a\r\nb", "a\nb"));
+	}
+	
+	@Test
+	public void mismatchPosition() throws Exception {
+		final NewlineInsensitiveMismatch mismatch = NewlineNormalizer
+				.mismatchIgnoringNewlineStyle("line1\r\nline2\r\nlineX", "line1\nline2\nlineY");
+		
+		assertEquals(18, mismatch.getFirstOffset());
+		assertEquals(16, mismatch.getSecondOffset());
+		assertEquals(3, mismatch.getLine());
+		assertEquals(5, mismatch.getColumn());
+	}
+	
+	@Test
+	public void mismatchPrefix() throws Exception {
+		final NewlineInsensitiveMismatch mismatch = NewlineNormalizer.mismatchIgnoringNewlineStyle("ab\r\n", "ab\n\n");
+		
+		assertEquals(4, mismatch.getFirstOffset());
+		assertEquals(3, mismatch.getSecondOffset());
+		assertEquals(2, mismatch.getLine());
+		assertEquals(1, mismatch.getColumn());
+	}
+	
+	@Test
+	public void readerMatchesCharSequence() throws Exception {
+		final List<String> texts = Arrays.asList("", "a", "a\n", "a\r", "a\r\n", "a\n\r", "a\n\n", "\r\n\r", "\n\r\n",
+				"line1\r\nline2\nlineX", "line1\nline2\r\nlineY");
+		for (final String first : texts) {
+			for (final String second : texts) {
+				final NewlineInsensitiveMismatch expected = NewlineNormalizer.mismatchIgnoringNewlineStyle(first,
+						second);
+				
+				assertEquals(expected, NewlineNormalizer.mismatchIgnoringNewlineStyle(new OneCharReader(first),
+						new OneCharReader(second)), first + " / " + second);
+				assertEquals(expected == null, NewlineNormalizer.equalsIgnoringNewlineStyle(first, second));
+				assertEquals(expected == null,
+						NewlineNormalizer.equalsIgnoringNewlineStyle(NewlineNormalizer.LF.normalize(first),
+								NewlineNormalizer.LF.normalize(second)));
+			}
+		}
+	}
+	
+	@Test
+	public void readerLarge() throws Exception {
+		final StringBuilder first = new StringBuilder();
+		final StringBuilder second = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			first.append("line ").append(i).append("\r\n");
+			second.append("line ").append(i).append("\n");
+		}
+		second.setCharAt(second.length() - 3, 'X');
+		
+		final NewlineInsensitiveMismatch mismatch = NewlineNormalizer
+				.mismatchIgnoringNewlineStyle(new StringReader(first.toString()), new StringReader(second.toString()));
+		
+		assertEquals(10000, mismatch.getLine());
+		assertEquals(first.length() - 4, mismatch.getFirstOffset());
+		assertEquals(second.length() - 3, mismatch.getSecondOffset());
+	}
+	
+	@Test
+	public void inputStream() throws Exception {
+		assertTrue(NewlineNormalizer.equalsIgnoringNewlineStyle(
+				new ByteArrayInputStream("\u00e4\r\n\u20ac".getBytes(StandardCharsets.UTF_8)),
+				new ByteArrayInputStream("\u00e4\n\u20ac".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+		assertFalse(NewlineNormalizer.equalsIgnoringNewlineStyle(
+				new ByteArrayInputStream("\u00e4\r\n\u20ac".getBytes(StandardCharsets.UTF_8)),
+				new ByteArrayInputStream("\u00e4\n\n\u20ac".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Hands out one character per read, to split all newline pairs.
+	 */
+	private static final class OneCharReader extends Reader {
+		private final StringReader delegate;
+		
+		OneCharReader(final String str) {
+			this.delegate = new StringReader(str);
+		}
+		
+		@Override
+		public int read(final char[] cbuf, final int off, final int len) throws IOException {
+			return this.delegate.read(cbuf, off, Math.min(len, 1));
+		}
+		
+		@Override
+		public void close() {
+			this.delegate.close();
+		}
+	}
+}
@@ -11,6 +11,7 @@ package org.espilce.commons.text.test.newlinenormalizer;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.espilce.commons.text.NewlineNormalizer;
 import org.junit.jupiter.api.Test;
@@ -62,4 +63,21 @@ public class TestMultiString {
 				NewlineNormalizer.LF.normalize(new String[] { "hello\rthere!\r\n", "Some\nlonger\rstrange\r\ntext\n\r" })
 		);
 	}
+	
+	@Test
+	public void noOpSameElements() throws Exception {
+		final String[] strs = new String[] { "hello\n", "there" };
+		final String[] result = NewlineNormalizer.LF.normalize(strs);
+		
+		assertSame(strs[0], result[0]);
+		assertSame(strs[1], result[1]);
+	}
+	
+	@Test
+	public void multiShrinkingAndGrowing() throws Exception {
+		assertArrayEquals(
+				new String[] { "a\r\nb", "\r\n\r\n", "x", null, "Some\r\nlonger\r\ntext" },
+				NewlineNormalizer.CRLF.normalize(new String[] { "a\rb", "\n\r\r\n", "x", null, "Some\nlonger\rtext" })
+		);
+	}
 }
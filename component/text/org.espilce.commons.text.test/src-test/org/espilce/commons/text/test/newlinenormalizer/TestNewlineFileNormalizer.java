@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text.test.newlinenormalizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import org.espilce.commons.text.NewlineFileNormalizer;
+import org.espilce.commons.text.NewlineNormalizer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestNewlineFileNormalizer {
+	private Path dir;
+	
+	@BeforeEach
+	public void createDir() throws IOException {
+		this.dir = Files.createTempDirectory(getClass().getSimpleName());
+	}
+	
+	@AfterEach
+	public void deleteDir() throws IOException {
+		try (Stream<Path> paths = Files.walk(this.dir)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		}
+	}
+	
+	@Test
+	public void inPlace() throws Exception {
+		final Path file = write("a.txt", "Some\r\nlonger\rstrange\n\rtext\n");
+		
+		assertTrue(new NewlineFileNormalizer(NewlineNormalizer.LF).normalize(file));
+		assertEquals("Some\nlonger\nstrange\ntext\n", read(file));
+	}
+	
+	@Test
+	public void inPlaceGrowing() throws Exception {
+		final Path file = write("a.txt", "a\nb\nc");
+		
+		assertTrue(new NewlineFileNormalizer(NewlineNormalizer.CRLF).normalize(file));
+		assertEquals("a\r\nb\r\nc", read(file));
+	}
+	
+	@Test
+	public void inPlaceShrinkingAtEnd() throws Exception {
+		final Path file = write("a.txt", "a\nb\n\r");
+		
+		assertTrue(new NewlineFileNormalizer(NewlineNormalizer.LF).normalize(file));
+		assertEquals("a\nb\n", read(file));
+	}
+	
+	@Test
+	public void alreadyNormalizedNotWritten() throws Exception {
+		final Path file = write("a.txt", "Some\r\ntext\r\n");
+		final FileTime lastModified = FileTime.fromMillis(1000000000000L);
+		Files.setLastModifiedTime(file, lastModified);
+		
+		assertFalse(new NewlineFileNormalizer(NewlineNormalizer.CRLF).normalize(file));
+		assertEquals(lastModified, Files.getLastModifiedTime(file));
+		assertEquals("Some\r\ntext\r\n", read(file));
+	}
+	
+	@Test
+	public void empty() throws Exception {
+		final Path file = write("a.txt", "");
+		
+		assertFalse(new NewlineFileNormalizer(NewlineNormalizer.LF).normalize(file));
+		assertEquals("", read(file));
+	}
+	
+	@Test
+	public void toTarget() throws Exception {
+		final Path source = write("a.txt", "a\rb");
+		final Path target = this.dir.resolve("b.txt");
+		
+		assertTrue(new NewlineFileNormalizer(NewlineNormalizer.LF).normalize(source, target));
+		assertEquals("a\nb", read(target));
+		assertEquals("a\rb", read(source));
+	}
+	
+	@Test
+	public void toTargetAlreadyNormalized() throws Exception {
+		final Path source = write("a.txt", "a\nb");
+		final Path target = write("b.txt", "old content");
+		
+		assertTrue(new NewlineFileNormalizer(NewlineNormalizer.LF).normalize(source, target));
+		assertEquals("a\nb", read(target));
+	}
+	
+	@Test
+	public void largeInPlace() throws Exception {
+		final StringBuilder expected = new StringBuilder();
+		final Path file = write("large.txt", largeContent(expected));
+		
+		final NewlineFileNormalizer fileNormalizer = new NewlineFileNormalizer(NewlineNormalizer.CRLF);
+		assertTrue(fileNormalizer.normalize(file));
+		assertEquals(expected.toString(), read(file));
+		assertFalse(fileNormalizer.normalize(file));
+	}
+	
+	@Test
+	public void largeMappedToTarget() throws Exception {
+		final StringBuilder expected = new StringBuilder();
+		final Path source = write("large.txt", largeContent(expected));
+		final Path target = write("b.txt", "old content");
+		
+		assertTrue(new NewlineFileNormalizer(NewlineNormalizer.CRLF).normalize(source, target));
+		assertEquals(expected.toString(), read(target));
+	}
+	
+	@Test
+	public void symbolicLinkWrittenThrough() throws Exception {
+		final Path file = write("a.txt", "a\r\nb");
+		final Path link = createSymbolicLink("link.txt", file);
+		
+		assertTrue(new NewlineFileNormalizer(NewlineNormalizer.LF).normalize(link));
+		assertTrue(Files.isSymbolicLink(link));
+		assertEquals("a\nb", read(file));
+	}
+	
+	@Test
+	public void utf16() throws Exception {
+		final Path file = this.dir.resolve("a.txt");
+		Files.write(file, "\u00e4\r\n\u20ac\r".getBytes(StandardCharsets.UTF_16LE));
+		
+		assertTrue(new NewlineFileNormalizer(NewlineNormalizer.LF, StandardCharsets.UTF_16LE).normalize(file));
+		assertEquals("\u00e4\n\u20ac\n", new String(Files.readAllBytes(file), StandardCharsets.UTF_16LE));
+	}
+	
+	@Test
+	public void tree() throws Exception {
+		write("a.java", "a\r\n");
+		write("b.java", "b\n");
+		write("sub/c.java", "c\r");
+		write("sub/sub/d.java", "d\n\r");
+		write("sub/e.txt", "e\r\n");
+		
+		final ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			assertEquals(3, new NewlineFileNormalizer(NewlineNormalizer.LF).normalizeTree(this.dir,
+					p -> p.toString().endsWith(".java"), pool));
+		} finally {
+			pool.shutdown();
+		}
+		
+		assertEquals("a\n", read(this.dir.resolve("a.java")));
+		assertEquals("b\n", read(this.dir.resolve("b.java")));
+		assertEquals("c\n", read(this.dir.resolve("sub/c.java")));
+		assertEquals("d\n", read(this.dir.resolve("sub/sub/d.java")));
+		assertEquals("e\r\n", read(this.dir.resolve("sub/e.txt")));
+	}
+	
+	@Test
+	public void treeSkipsSymbolicLinks() throws Exception {
+		final Path outside = Files.createTempFile(getClass().getSimpleName(), ".java");
+		try {
+			Files.write(outside, "outside\r\n".getBytes(StandardCharsets.UTF_8));
+			createSymbolicLink("link.java", outside);
+			write("a.java", "a\r\n");
+			
+			assertEquals(1, new NewlineFileNormalizer(NewlineNormalizer.LF).normalizeTree(this.dir, p -> true));
+			assertEquals("a\n", read(this.dir.resolve("a.java")));
+			assertEquals("outside\r\n", read(outside));
+			assertTrue(Files.isSymbolicLink(this.dir.resolve("link.java")));
+		} finally {
+			Files.delete(outside);
+		}
+	}
+	
+	@Test
+	public void treeFailureDoesNotStopOthers() throws Exception {
+		Files.write(this.dir.resolve("a.txt"), "a\r\n".getBytes(StandardCharsets.UTF_16BE));
+		Files.write(this.dir.resolve("b.txt"), new byte[] { 0, 'b', (byte) 0xD8 });
+		Files.write(this.dir.resolve("c.txt"), "c\r\n".getBytes(StandardCharsets.UTF_16BE));
+		
+		final NewlineFileNormalizer fileNormalizer = new NewlineFileNormalizer(NewlineNormalizer.LF,
+				StandardCharsets.UTF_16BE);
+		assertThrows(IOException.class, () -> fileNormalizer.normalizeTree(this.dir, p -> true));
+		
+		try (Stream<Path> paths = Files.list(this.dir)) {
+			assertEquals(3, paths.count());
+		}
+		assertEquals("a\n", new String(Files.readAllBytes(this.dir.resolve("a.txt")), StandardCharsets.UTF_16BE));
+		assertEquals("c\n", new String(Files.readAllBytes(this.dir.resolve("c.txt")), StandardCharsets.UTF_16BE));
+	}
+	
+	private Path write(final String name, final String content) throws IOException {
+		final Path file = this.dir.resolve(name);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+	
+	private Path createSymbolicLink(final String name, final Path target) throws IOException {
+		try {
+			return Files.createSymbolicLink(this.dir.resolve(name), target);
+		} catch (final UnsupportedOperationException | IOException e) {
+			assumeTrue(false, "Symbolic links not supported: " + e);
+			throw e;
+		}
+	}
+	
+	private static String largeContent(final StringBuilder expected) {
+		final StringBuilder content = new StringBuilder();
+		for (int i = 0; content.length() < 3 << 20; i++) {
+			content.append("line \u00e4\u20ac ").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+			expected.append("line \u00e4\u20ac ").append(i).append("\r\n");
+		}
+		return content.toString();
+	}
+	
+	private static String read(final Path file) throws IOException {
+		return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+	}
+}
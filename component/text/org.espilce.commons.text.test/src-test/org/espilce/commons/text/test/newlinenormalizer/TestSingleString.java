@@ -10,7 +10,9 @@
 package org.espilce.commons.text.test.newlinenormalizer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.espilce.commons.text.NewlineNormalizer;
 import org.junit.jupiter.api.BeforeEach;
@@ -170,4 +172,28 @@ public class TestSingleString {
 				NewlineNormalizer.LF.normalize("Some\r\nlonger\r\nstrange\r\ntext\r\n")
 		);
 	}
+	
+	@Test
+	public void noOpSameInstance() throws Exception {
+		final String str = "Some\nlonger\ntext\n";
+		assertSame(str, NewlineNormalizer.LF.normalize(str));
+	}
+	
+	@Test
+	public void noOpSameInstanceCRLF() throws Exception {
+		final String str = "Some\r\nlonger\r\ntext\r\n";
+		assertSame(str, NewlineNormalizer.CRLF.normalize(str));
+	}
+	
+	@Test
+	public void pairNotSameInstance() throws Exception {
+		final String str = "Some\n\rtext";
+		assertNotSame(str, NewlineNormalizer.LF.normalize(str));
+		assertEquals("Some\ntext", NewlineNormalizer.LF.normalize(str));
+	}
+	
+	@Test
+	public void greedyPairs() throws Exception {
+		assertEquals("a\n\nb\n\nc", NewlineNormalizer.LF.normalize("a\r\n\rb\n\r\nc"));
+	}
 }
@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text.test.newlinenormalizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.espilce.commons.text.NewlineNormalizer;
+import org.espilce.commons.text.NewlineNormalizingInputStream;
+import org.espilce.commons.text.NewlineNormalizingReader;
+import org.espilce.commons.text.NewlineNormalizingTranscoder;
+import org.espilce.commons.text.NewlineNormalizingWriter;
+import org.junit.jupiter.api.Test;
+
+public class TestStreaming {
+	private static final List<String> INPUTS = Arrays.asList(
+			"",
+			"Some text",
+			"\r",
+			"\n",
+			"\r\n",
+			"\n\r",
+			"\r\n\r",
+			"\n\r\n",
+			"\r\r\n\n",
+			"\n\n\r\r",
+			"Some\nlonger\rstrange\r\ntext\n\r",
+			"\u00e4\r\n\u20ac\n\r\ud83d\ude00\r\u0000\n\u00ff"
+	);
+	
+	private static final List<NewlineNormalizer> NORMALIZERS = Arrays.asList(
+			NewlineNormalizer.LF,
+			NewlineNormalizer.CR,
+			NewlineNormalizer.CRLF,
+			NewlineNormalizer.LFCR,
+			new NewlineNormalizer(""),
+			new NewlineNormalizer("<br/>")
+	);
+	
+	@Test
+	public void reader() throws Exception {
+		for (final NewlineNormalizer normalizer : NORMALIZERS) {
+			for (final String input : INPUTS) {
+				for (int chunk = 1; chunk <= input.length() + 1; chunk++) {
+					final Reader reader = new NewlineNormalizingReader(new ChunkedReader(input, chunk), normalizer);
+					assertEquals(normalizer.normalize(input), readFully(reader, chunk), describe(input, chunk));
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void readerSingleChars() throws Exception {
+		final Reader reader = new NewlineNormalizingReader(new StringReader("a\r\nb\n\rc"), NewlineNormalizer.CRLF);
+		final StringBuilder result = new StringBuilder();
+		for (int c = reader.read(); c >= 0; c = reader.read()) {
+			result.append((char) c);
+		}
+		
+		assertEquals("a\r\nb\r\nc", result.toString());
+	}
+	
+	@Test
+	public void readerSkip() throws Exception {
+		final Reader reader = new NewlineNormalizingReader(new StringReader("a\r\nb\r\nc"), NewlineNormalizer.LF);
+		
+		assertEquals(2, reader.skip(2));
+		assertEquals('b', reader.read());
+	}
+	
+	@Test
+	public void writer() throws Exception {
+		for (final NewlineNormalizer normalizer : NORMALIZERS) {
+			for (final String input : INPUTS) {
+				for (int chunk = 1; chunk <= input.length() + 1; chunk++) {
+					final StringWriter target = new StringWriter();
+					try (final Writer writer = new NewlineNormalizingWriter(target, normalizer)) {
+						for (int i = 0; i < input.length(); i += chunk) {
+							final int len = Math.min(chunk, input.length() - i);
+							if (len == 1) {
+								writer.write(input.charAt(i));
+							} else if (chunk % 2 == 0) {
+								writer.write(input, i, len);
+							} else {
+								writer.write(input.toCharArray(), i, len);
+							}
+						}
+					}
+					assertEquals(normalizer.normalize(input), target.toString(), describe(input, chunk));
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void writerLarge() throws Exception {
+		final StringBuilder input = new StringBuilder();
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			input.append("line ").append(i).append(i % 2 == 0 ? "\r\n" : "\n\r");
+			expected.append("line ").append(i).append("\n");
+		}
+		
+		final StringWriter target = new StringWriter();
+		try (final Writer writer = new NewlineNormalizingWriter(target, NewlineNormalizer.LF)) {
+			writer.write(input.toString());
+		}
+		
+		assertEquals(expected.toString(), target.toString());
+	}
+	
+	@Test
+	public void inputStreamUtf8() throws Exception {
+		assertInputStream(StandardCharsets.UTF_8);
+	}
+	
+	@Test
+	public void inputStreamIso88591() throws Exception {
+		assertInputStream(StandardCharsets.ISO_8859_1);
+	}
+	
+	@Test
+	public void inputStreamUtf16() throws Exception {
+		assertInputStream(StandardCharsets.UTF_16BE);
+	}
+	
+	@Test
+	public void inputStreamMalformed() throws Exception {
+		final InputStream stream = new NewlineNormalizingInputStream(
+				new ByteArrayInputStream(new byte[] { 0, 'a', (byte) 0xD8 }), StandardCharsets.UTF_16BE,
+				NewlineNormalizer.LF
+		);
+		
+		assertThrows(CharacterCodingException.class, () -> readFully(stream, 16));
+	}
+	
+	@Test
+	public void transcoderSmallOutput() throws Exception {
+		for (final Charset charset : Arrays.asList(StandardCharsets.UTF_8, StandardCharsets.UTF_16LE)) {
+			for (final NewlineNormalizer normalizer : NORMALIZERS) {
+				for (final String input : INPUTS) {
+					if (!canEncode(input, charset)) {
+						continue;
+					}
+					final NewlineNormalizingTranscoder transcoder = new NewlineNormalizingTranscoder(normalizer, charset);
+					final ByteBuffer in = ByteBuffer.wrap(input.getBytes(charset));
+					final ByteBuffer out = ByteBuffer.allocate(16);
+					final ByteArrayOutputStream result = new ByteArrayOutputStream();
+					
+					CoderResult coderResult;
+					do {
+						out.clear();
+						coderResult = transcoder.transcode(in, out, true);
+						result.write(out.array(), 0, out.position());
+					} while (coderResult.isOverflow());
+					
+					assertTrue(coderResult.isUnderflow());
+					assertEquals(normalizer.normalize(input), new String(result.toByteArray(), charset),
+							describe(input, 0) + " " + charset);
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void transcoderReset() throws Exception {
+		final NewlineNormalizingTranscoder transcoder = new NewlineNormalizingTranscoder(NewlineNormalizer.LF,
+				StandardCharsets.UTF_16LE);
+		assertEquals("a\n", transcode(transcoder, "a\r\n", StandardCharsets.UTF_16LE));
+		
+		transcoder.reset();
+		
+		assertEquals("\nb", transcode(transcoder, "\nb", StandardCharsets.UTF_16LE));
+	}
+	
+	@Test
+	public void transcoderUnencodableReplacement() throws Exception {
+		assertThrows(IllegalArgumentException.class,
+				() -> new NewlineNormalizingTranscoder(new NewlineNormalizer("\u20ac"), StandardCharsets.US_ASCII));
+	}
+	
+	private void assertInputStream(final Charset charset) throws IOException {
+		for (final NewlineNormalizer normalizer : NORMALIZERS) {
+			for (final String input : INPUTS) {
+				if (!canEncode(input, charset) || !canEncode(normalizer.getReplacement(), charset)) {
+					continue;
+				}
+				final byte[] bytes = input.getBytes(charset);
+				for (int chunk = 1; chunk <= bytes.length + 1; chunk++) {
+					final InputStream stream = new NewlineNormalizingInputStream(new ChunkedInputStream(bytes, chunk),
+							charset, normalizer);
+					assertEquals(normalizer.normalize(input), new String(readFully(stream, chunk), charset),
+							describe(input, chunk) + " " + charset);
+				}
+			}
+		}
+	}
+	
+	private static String transcode(final NewlineNormalizingTranscoder transcoder, final String input,
+			final Charset charset) {
+		final ByteBuffer out = ByteBuffer.allocate(64);
+		assertTrue(transcoder.transcode(ByteBuffer.wrap(input.getBytes(charset)), out, true).isUnderflow());
+		return new String(out.array(), 0, out.position(), charset);
+	}
+	
+	private static boolean canEncode(final String str, final Charset charset) {
+		return charset.newEncoder().canEncode(str);
+	}
+	
+	private static String readFully(final Reader reader, final int chunk) throws IOException {
+		final StringBuilder result = new StringBuilder();
+		final char[] buffer = new char[chunk];
+		for (int count = reader.read(buffer); count >= 0; count = reader.read(buffer)) {
+			result.append(buffer, 0, count);
+		}
+		return result.toString();
+	}
+	
+	private static byte[] readFully(final InputStream stream, final int chunk) throws IOException {
+		final ByteArrayOutputStream result = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[chunk];
+		for (int count = stream.read(buffer); count >= 0; count = stream.read(buffer)) {
+			result.write(buffer, 0, count);
+		}
+		return result.toByteArray();
+	}
+	
+	private static String describe(final String input, final int chunk) {
+		return input.replace("\r", "\\r").replace("\n", "\\n") + " / " + chunk;
+	}
+	
+	/**
+	 * Hands out at most <code>chunk</code> characters per read.
+	 */
+	private static final class ChunkedReader extends Reader {
+		private final String str;
+		private final int chunk;
+		private int pos;
+		
+		ChunkedReader(final String str, final int chunk) {
+			this.str = str;
+			this.chunk = chunk;
+		}
+		
+		@Override
+		public int read(final char[] cbuf, final int off, final int len) {
+			if (this.pos >= this.str.length()) {
+				return -1;
+			}
+			final int count = Math.min(Math.min(len, this.chunk), this.str.length() - this.pos);
+			this.str.getChars(this.pos, this.pos + count, cbuf, off);
+			this.pos += count;
+			return count;
+		}
+		
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	}
+	
+	/**
+	 * Hands out at most <code>chunk</code> bytes per read.
+	 */
+	private static final class ChunkedInputStream extends ByteArrayInputStream {
+		private final int chunk;
+		
+		ChunkedInputStream(final byte[] bytes, final int chunk) {
+			super(bytes);
+			this.chunk = chunk;
+		}
+		
+		@Override
+		public synchronized int read(final byte[] b, final int off, final int len) {
+			return super.read(b, off, Math.min(len, this.chunk));
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text.test.stringutils2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.espilce.commons.text.StringUtils2;
+import org.junit.jupiter.api.Test;
+
+public class TestCommonPrefixLength {
+	@Test
+	@SuppressWarnings("all")
+	public void testNull() throws Exception {
+		assertEquals(0, StringUtils2.getCommonPrefixLength((CharSequence[]) null));
+		assertEquals(0, StringUtils2.getCommonSuffixLength((CharSequence[]) null));
+	}
+	
+	@Test
+	public void empty() throws Exception {
+		assertEquals(0, StringUtils2.getCommonPrefixLength());
+		assertEquals(0, StringUtils2.getCommonSuffixLength());
+	}
+	
+	@Test
+	public void single() throws Exception {
+		assertEquals(3, StringUtils2.getCommonPrefixLength("abc"));
+		assertEquals(3, StringUtils2.getCommonSuffixLength("abc"));
+	}
+	
+	@Test
+	public void anyNull() throws Exception {
+		assertEquals(0, StringUtils2.getCommonPrefixLength("abc", null));
+		assertEquals(0, StringUtils2.getCommonSuffixLength(null, "abc"));
+	}
+	
+	@Test
+	public void different() throws Exception {
+		assertEquals(2, StringUtils2.getCommonPrefixLength("abcde", "abxyz"));
+		assertEquals(2, StringUtils2.getCommonSuffixLength("abcde", "xyzde"));
+		assertEquals(0, StringUtils2.getCommonPrefixLength("abc", "xbc"));
+		assertEquals(0, StringUtils2.getCommonSuffixLength("abc", "abx"));
+	}
+	
+	@Test
+	public void shrinkingBound() throws Exception {
+		assertEquals(1, StringUtils2.getCommonPrefixLength("abcd", "abcx", "abxx", "axxx"));
+		assertEquals(1, StringUtils2.getCommonSuffixLength("dcba", "xcba", "xxba", "xxxa"));
+	}
+	
+	@Test
+	public void containedInOther() throws Exception {
+		assertEquals(2, StringUtils2.getCommonPrefixLength("abc", "ab"));
+		assertEquals(2, StringUtils2.getCommonSuffixLength("bc", "abc"));
+	}
+	
+	@Test
+	public void mixedCharSequences() throws Exception {
+		assertEquals(3, StringUtils2.getCommonPrefixLength(new StringBuilder("abcd"), "abcx"));
+		assertEquals(3, StringUtils2.getCommonSuffixLength(new StringBuilder("xbcd"), "abcd"));
+	}
+}
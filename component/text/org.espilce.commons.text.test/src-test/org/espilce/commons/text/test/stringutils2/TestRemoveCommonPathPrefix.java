@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text.test.stringutils2;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.espilce.commons.text.StringUtils2;
+import org.junit.jupiter.api.Test;
+
+public class TestRemoveCommonPathPrefix {
+	@Test
+	@SuppressWarnings("all")
+	public void testNull() throws Exception {
+		assertNull(StringUtils2.removeCommonPathPrefix('/', (String[]) null));
+		assertEquals(0, StringUtils2.getCommonPathPrefixLength('/', (CharSequence[]) null));
+	}
+	
+	@Test
+	public void empty() throws Exception {
+		final String[] input = new String[] {};
+		assertSame(input, StringUtils2.removeCommonPathPrefix('/', input));
+	}
+	
+	@Test
+	public void single() throws Exception {
+		assertArrayEquals(new String[] { "c" }, StringUtils2.removeCommonPathPrefix('/', "a/b/c"));
+		assertArrayEquals(new String[] { "c" }, StringUtils2.removeCommonPathPrefix('/', "c"));
+	}
+	
+	@Test
+	public void anyNull() throws Exception {
+		final String[] input = new String[] { "a/b", null };
+		assertSame(input, StringUtils2.removeCommonPathPrefix('/', input));
+	}
+	
+	@Test
+	public void segmentBoundary() throws Exception {
+		assertArrayEquals(new String[] { "bc/x", "bd/y" }, StringUtils2.removeCommonPathPrefix('/', "a/bc/x", "a/bd/y"));
+		assertArrayEquals(new String[] { "ab/x", "abc/y" },
+				StringUtils2.removeCommonPathPrefix('/', "ab/x", "abc/y"));
+	}
+	
+	@Test
+	public void leadingSeparator() throws Exception {
+		assertArrayEquals(new String[] { "A.java", "B.java" },
+				StringUtils2.removeCommonPathPrefix('/', "/x/A.java", "/x/B.java"));
+	}
+	
+	@Test
+	public void keepsLastSegment() throws Exception {
+		assertArrayEquals(new String[] { "b", "b" }, StringUtils2.removeCommonPathPrefix('/', "a/b", "a/b"));
+		assertArrayEquals(new String[] { "b", "b/c" }, StringUtils2.removeCommonPathPrefix('/', "a/b", "a/b/c"));
+	}
+	
+	@Test
+	public void noCommonPathPrefix() throws Exception {
+		final String[] input = new String[] { "x/a", "y/a" };
+		assertSame(input, StringUtils2.removeCommonPathPrefix('/', input));
+	}
+	
+	@Test
+	public void otherSeparator() throws Exception {
+		assertArrayEquals(new String[] { "A", "B" }, StringUtils2.removeCommonPathPrefix('.', "org.x.A", "org.x.B"));
+	}
+}
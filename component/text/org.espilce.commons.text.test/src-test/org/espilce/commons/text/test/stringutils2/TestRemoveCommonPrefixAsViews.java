@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (C) 2018 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text.test.stringutils2;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.espilce.commons.text.StringUtils2;
+import org.junit.jupiter.api.Test;
+
+public class TestRemoveCommonPrefixAsViews {
+	@Test
+	@SuppressWarnings("all")
+	public void testNull() throws Exception {
+		assertNull(StringUtils2.removeCommonPrefixAsViews((CharSequence[]) null));
+	}
+	
+	@Test
+	public void single() throws Exception {
+		final CharSequence[] input = new CharSequence[] { "abc" };
+		assertSame(input, StringUtils2.removeCommonPrefixAsViews(input));
+	}
+	
+	@Test
+	public void noCommonPrefix() throws Exception {
+		final CharSequence[] input = new CharSequence[] { "abc", "xyz" };
+		assertSame(input, StringUtils2.removeCommonPrefixAsViews(input));
+	}
+	
+	@Test
+	public void anyNull() throws Exception {
+		final CharSequence[] input = new CharSequence[] { "abc", null, "abd" };
+		assertSame(input, StringUtils2.removeCommonPrefixAsViews(input));
+	}
+	
+	@Test
+	public void views() throws Exception {
+		final CharSequence[] result = StringUtils2.removeCommonPrefixAsViews("abcde", "abxyz", "ab");
+		
+		assertArrayEquals(new String[] { "cde", "xyz", "" }, toStrings(result));
+		assertEquals(3, result[0].length());
+		assertEquals('d', result[0].charAt(1));
+		assertEquals("d", result[0].subSequence(1, 2).toString());
+		assertEquals("de", result[0].subSequence(1, 3).subSequence(0, 2).toString());
+	}
+	
+	@Test
+	public void matchesRemoveCommonPrefix() throws Exception {
+		final String[] input = new String[] { "/some/path/A.java", "/some/path/B.java", "/some/other/C.java" };
+		
+		assertArrayEquals(StringUtils2.removeCommonPrefix(input),
+				toStrings(StringUtils2.removeCommonPrefixAsViews((CharSequence[]) input)));
+	}
+	
+	@Test
+	public void charAtOutOfBounds() throws Exception {
+		final CharSequence view = StringUtils2.removeCommonPrefixAsViews("abc", "abd")[0];
+		
+		assertThrows(IndexOutOfBoundsException.class, () -> view.charAt(1));
+	}
+	
+	private static String[] toStrings(final CharSequence[] css) {
+		final String[] result = new String[css.length];
+		for (int i = 0; i < css.length; i++) {
+			result[i] = css[i].toString();
+		}
+		return result;
+	}
+}
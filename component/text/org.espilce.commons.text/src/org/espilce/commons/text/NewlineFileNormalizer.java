@@ -0,0 +1,418 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Replaces all newline variants in files with the <i>replacement</i> of a
+ * {@link NewlineNormalizer}.
+ *
+ * <p>
+ * Files are read and transcoded in one pass. As long as the normalized content
+ * equals the original, nothing is written; files that are already normalized
+ * are never touched. Otherwise, the normalized content is written to a
+ * temporary file next to the target, which then replaces the target. If the
+ * target is a symbolic link, the file it points to is replaced.
+ * </p>
+ *
+ * <p>
+ * Large files are memory mapped, unless they are normalized in place: A
+ * mapping is only released by the garbage collector, and some platforms (e.g.
+ * Windows) do not allow to replace a mapped file.
+ * </p>
+ *
+ * <pre>
+ * new NewlineFileNormalizer(NewlineNormalizer.LF).normalizeTree(generatedDir, p -&gt; p.toString().endsWith(".java"));
+ * </pre>
+ *
+ * <p>
+ * Instances are immutable and thread-safe.
+ * </p>
+ *
+ * @see NewlineNormalizingTranscoder
+ * @since 0.5
+ */
+public class NewlineFileNormalizer {
+	/**
+	 * Files of at least this size are memory mapped instead of read, unless
+	 * they are normalized in place.
+	 */
+	private static final long MAPPING_THRESHOLD = 1L << 20;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+	
+	private final NewlineNormalizer normalizer;
+	private final Charset charset;
+	
+	/**
+	 * Creates a file normalizer for UTF-8 encoded files.
+	 *
+	 * @param normalizer
+	 *            Normalizer providing the <i>replacement</i>, e.g.
+	 *            {@link NewlineNormalizer#LF}.
+	 */
+	public NewlineFileNormalizer(final @NonNull NewlineNormalizer normalizer) {
+		this(normalizer, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Creates a file normalizer for files encoded in <code>charset</code>.
+	 *
+	 * @param normalizer
+	 *            Normalizer providing the <i>replacement</i>, e.g.
+	 *            {@link NewlineNormalizer#LF}.
+	 * @param charset
+	 *            Encoding of the files.
+	 * @throws IllegalArgumentException
+	 *             If the <i>replacement</i> cannot be encoded in
+	 *             <code>charset</code>.
+	 */
+	public NewlineFileNormalizer(final @NonNull NewlineNormalizer normalizer, final @NonNull Charset charset) {
+		this.normalizer = Objects.requireNonNull(normalizer);
+		this.charset = Objects.requireNonNull(charset);
+		
+		// fail early on unencodable replacements
+		new NewlineNormalizingTranscoder(normalizer, charset);
+	}
+	
+	/**
+	 * Normalizes <code>file</code> in place.
+	 *
+	 * @param file
+	 *            File to normalize; must be smaller than 2 GiB.
+	 * @return {@code true} if <code>file</code> has been rewritten;
+	 *         {@code false} if it was already normalized.
+	 * @throws IOException
+	 *             If <code>file</code> cannot be read or written, or is not
+	 *             properly encoded.
+	 */
+	public boolean normalize(final @NonNull Path file) throws IOException {
+		return normalize(file, file);
+	}
+	
+	/**
+	 * Writes the normalized content of <code>source</code> to
+	 * <code>target</code>.
+	 *
+	 * <p>
+	 * If <code>source</code> is already normalized, it is copied to
+	 * <code>target</code>, unless both denote the same file.
+	 * </p>
+	 *
+	 * @param source
+	 *            File to normalize; must be smaller than 2 GiB.
+	 * @param target
+	 *            File to write; replaced if it exists. If it is a symbolic link,
+	 *            the file it points to is written.
+	 * @return {@code true} if <code>target</code> has been written.
+	 * @throws IOException
+	 *             If <code>source</code> cannot be read, <code>target</code>
+	 *             cannot be written, or <code>source</code> is not properly
+	 *             encoded.
+	 */
+	public boolean normalize(final @NonNull Path source, final @NonNull Path target) throws IOException {
+		final Path destination = Files.isSymbolicLink(target) ? target.toRealPath() : target;
+		final boolean inPlace = Files.exists(destination) && Files.isSameFile(source, destination);
+		
+		final ByteBuffer content = readContent(source, !inPlace);
+		final Path temp = transcodeIfChanged(content, destination);
+		if (temp != null) {
+			replace(temp, destination);
+			return true;
+		}
+		
+		if (inPlace) {
+			return false;
+		}
+		Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
+		return true;
+	}
+	
+	/**
+	 * Normalizes all regular files below <code>root</code> matching
+	 * <code>filter</code> in place, using the
+	 * {@linkplain ForkJoinPool#commonPool() common pool}.
+	 *
+	 * @see #normalizeTree(Path, Predicate, ForkJoinPool)
+	 */
+	public int normalizeTree(final @NonNull Path root, final @NonNull Predicate<? super Path> filter)
+			throws IOException {
+		return normalizeTree(root, filter, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Normalizes all regular files below <code>root</code> matching
+	 * <code>filter</code> in place, in parallel on <code>pool</code>.
+	 *
+	 * <p>
+	 * Symbolic links are not followed, so files outside of <code>root</code>
+	 * are never changed. A failing file does not stop the other files from
+	 * being normalized.
+	 * </p>
+	 *
+	 * @param root
+	 *            Directory to normalize recursively.
+	 * @param filter
+	 *            Selects the files to normalize; must be thread-safe.
+	 * @param pool
+	 *            Pool to normalize the files on.
+	 * @return Number of files that have been rewritten.
+	 * @throws IOException
+	 *             If <code>root</code> cannot be traversed, or any file cannot
+	 *             be normalized; further failures are
+	 *             {@linkplain Throwable#getSuppressed() suppressed}.
+	 */
+	public int normalizeTree(final @NonNull Path root, final @NonNull Predicate<? super Path> filter,
+			final @NonNull ForkJoinPool pool) throws IOException {
+		Objects.requireNonNull(filter);
+		Objects.requireNonNull(pool);
+		
+		final Path[] files;
+		try (Stream<Path> paths = Files.walk(root)) {
+			files = paths.filter(p -> Files.isRegularFile(p, LinkOption.NOFOLLOW_LINKS) && filter.test(p)).toArray(Path[]::new);
+		}
+		
+		final IOException[] failures = new IOException[files.length];
+		final int count = pool.invoke(new NormalizeRange(this, files, failures, 0, files.length));
+		
+		IOException failure = null;
+		for (final IOException e : failures) {
+			if (e == null) {
+				continue;
+			}
+			if (failure == null) {
+				failure = e;
+			} else {
+				failure.addSuppressed(e);
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		
+		return count;
+	}
+	
+	private static ByteBuffer readContent(final Path file, final boolean mappingAllowed) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("File too large to normalize: " + file);
+			}
+			
+			if (mappingAllowed && size >= MAPPING_THRESHOLD) {
+				return channel.map(MapMode.READ_ONLY, 0, size);
+			}
+			
+			final ByteBuffer result = ByteBuffer.allocate((int) size);
+			while (result.hasRemaining()) {
+				if (channel.read(result) < 0) {
+					break;
+				}
+			}
+			result.flip();
+			return result;
+		}
+	}
+	
+	/**
+	 * Transcodes <code>content</code>, and writes the result to a temporary
+	 * file as soon as it deviates from <code>content</code>.
+	 *
+	 * @return The temporary file containing the normalized content;
+	 *         {@code null} if <code>content</code> is already normalized.
+	 */
+	private Path transcodeIfChanged(final ByteBuffer content, final Path target) throws IOException {
+		final NewlineNormalizingTranscoder transcoder = new NewlineNormalizingTranscoder(this.normalizer, this.charset);
+		final ByteBuffer in = content.duplicate();
+		final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+		
+		int matched = 0;
+		Path temp = null;
+		FileChannel tempChannel = null;
+		try {
+			CoderResult result;
+			do {
+				out.clear();
+				result = transcoder.transcode(in, out, true);
+				if (result.isError()) {
+					result.throwException();
+				}
+				out.flip();
+				
+				if (tempChannel == null) {
+					if (startsWith(content, matched, out)) {
+						matched += out.remaining();
+						continue;
+					}
+					temp = createTempFile(target);
+					tempChannel = openTempFile(temp, content, matched);
+				}
+				writeFully(tempChannel, out);
+			} while (result.isOverflow());
+			
+			if (tempChannel == null) {
+				if (matched == content.limit()) {
+					return null;
+				}
+				// normalized content is a prefix of the original
+				temp = createTempFile(target);
+				tempChannel = openTempFile(temp, content, matched);
+			}
+			
+			tempChannel.close();
+			final Path finished = temp;
+			temp = null;
+			return finished;
+		} finally {
+			if (tempChannel != null && tempChannel.isOpen()) {
+				tempChannel.close();
+			}
+			if (temp != null) {
+				Files.deleteIfExists(temp);
+			}
+		}
+	}
+	
+	/**
+	 * @return {@code true} if <code>content</code> contains the remaining bytes
+	 *         of <code>part</code> at <code>offset</code>.
+	 */
+	private static boolean startsWith(final ByteBuffer content, final int offset, final ByteBuffer part) {
+		final int length = part.remaining();
+		if (length > content.limit() - offset) {
+			return false;
+		}
+		
+		final ByteBuffer region = content.duplicate();
+		region.position(offset).limit(offset + length);
+		return region.equals(part);
+	}
+	
+	private static Path createTempFile(final Path target) throws IOException {
+		final Path absolute = target.toAbsolutePath();
+		return Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), TEMP_FILE_SUFFIX);
+	}
+	
+	/**
+	 * Opens <code>temp</code> and writes the first <code>length</code> bytes of
+	 * <code>content</code>.
+	 */
+	private static FileChannel openTempFile(final Path temp, final ByteBuffer content, final int length)
+			throws IOException {
+		final FileChannel result = FileChannel.open(temp, StandardOpenOption.WRITE);
+		try {
+			final ByteBuffer prefix = content.duplicate();
+			prefix.position(0).limit(length);
+			writeFully(result, prefix);
+			return result;
+		} catch (final IOException e) {
+			result.close();
+			throw e;
+		}
+	}
+	
+	private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+	
+	/**
+	 * Moves <code>temp</code> over <code>target</code>, keeping the POSIX
+	 * permissions of <code>target</code> (temporary files are only accessible
+	 * by their owner).
+	 */
+	private static void replace(final Path temp, final Path target) throws IOException {
+		try {
+			if (Files.exists(target)) {
+				final PosixFileAttributeView targetView = Files.getFileAttributeView(target,
+						PosixFileAttributeView.class);
+				final PosixFileAttributeView tempView = Files.getFileAttributeView(temp, PosixFileAttributeView.class);
+				if (targetView != null && tempView != null) {
+					tempView.setPermissions(targetView.readAttributes().permissions());
+				}
+			}
+			
+			try {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+	
+	private static final class NormalizeRange extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+		
+		private final NewlineFileNormalizer normalizer;
+		private final Path[] files;
+		private final IOException[] failures;
+		private final int from;
+		private final int to;
+		
+		NormalizeRange(final NewlineFileNormalizer normalizer, final Path[] files, final IOException[] failures,
+				final int from, final int to) {
+			this.normalizer = normalizer;
+			this.files = files;
+			this.failures = failures;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected Integer compute() {
+			if (this.to - this.from <= 1) {
+				int count = 0;
+				for (int i = this.from; i < this.to; i++) {
+					try {
+						if (this.normalizer.normalize(this.files[i])) {
+							count++;
+						}
+					} catch (final IOException e) {
+						this.failures[i] = e;
+					}
+				}
+				return count;
+			}
+			
+			final int middle = (this.from + this.to) >>> 1;
+			final NormalizeRange right = new NormalizeRange(this.normalizer, this.files, this.failures, middle,
+					this.to);
+			right.fork();
+			final int leftCount = new NormalizeRange(this.normalizer, this.files, this.failures, this.from, middle)
+					.compute();
+			return leftCount + right.join();
+		}
+	}
+}
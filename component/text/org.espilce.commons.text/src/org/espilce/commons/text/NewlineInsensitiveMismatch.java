@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Position of the first difference between two texts that are compared
+ * regardless of their newline variants.
+ *
+ * <p>
+ * As the texts may use newline variants of different lengths, the offset of
+ * the difference is reported for both texts. Lines and columns are the same for
+ * both texts, and count from 1. Offsets and columns count {@code char}s.
+ * </p>
+ *
+ * @see NewlineNormalizer#mismatchIgnoringNewlineStyle(CharSequence,
+ *      CharSequence)
+ * @since 0.5
+ */
+public final class NewlineInsensitiveMismatch {
+	private final long firstOffset;
+	private final long secondOffset;
+	private final long line;
+	private final long column;
+	
+	NewlineInsensitiveMismatch(final long firstOffset, final long secondOffset, final long line, final long column) {
+		this.firstOffset = firstOffset;
+		this.secondOffset = secondOffset;
+		this.line = line;
+		this.column = column;
+	}
+	
+	/**
+	 * @return Offset of the difference in the first text; equals the length of
+	 *         the first text if it is a prefix of the second text.
+	 */
+	public long getFirstOffset() {
+		return this.firstOffset;
+	}
+	
+	/**
+	 * @return Offset of the difference in the second text; equals the length
+	 *         of the second text if it is a prefix of the first text.
+	 */
+	public long getSecondOffset() {
+		return this.secondOffset;
+	}
+	
+	/**
+	 * @return Line of the difference, starting at 1.
+	 */
+	public long getLine() {
+		return this.line;
+	}
+	
+	/**
+	 * @return Column of the difference, starting at 1.
+	 */
+	public long getColumn() {
+		return this.column;
+	}
+	
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof NewlineInsensitiveMismatch)) {
+			return false;
+		}
+		final NewlineInsensitiveMismatch other = (NewlineInsensitiveMismatch) obj;
+		return this.firstOffset == other.firstOffset && this.secondOffset == other.secondOffset
+				&& this.line == other.line && this.column == other.column;
+	}
+	
+	@Override
+	public int hashCode() {
+		int result = Long.hashCode(this.firstOffset);
+		result = 31 * result + Long.hashCode(this.secondOffset);
+		result = 31 * result + Long.hashCode(this.line);
+		return 31 * result + Long.hashCode(this.column);
+	}
+	
+	@Override
+	public @NonNull String toString() {
+		return "line " + this.line + ", column " + this.column + " (offsets " + this.firstOffset + " / "
+				+ this.secondOffset + ")";
+	}
+}
@@ -9,9 +9,13 @@
  ******************************************************************************/
 package org.espilce.commons.text;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.Objects;
 
-import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -29,6 +33,13 @@ import org.eclipse.jdt.annotation.Nullable;
  * <li><i>line_feed</i>, i.e. {@code "\n"}</li>
  * </ul>
  *
+ * <p>
+ * For texts too large to keep in memory, use the streaming variants
+ * {@link NewlineNormalizingReader}, {@link NewlineNormalizingWriter},
+ * {@link NewlineNormalizingInputStream}, or
+ * {@link NewlineNormalizingTranscoder}.
+ * </p>
+ *
  * @since 0.4
  */
 public class NewlineNormalizer {
@@ -91,8 +102,6 @@ public class NewlineNormalizer {
 	 */
 	public static final NewlineNormalizer RUNNING_PLATFORM = new NewlineNormalizer(System.lineSeparator());
 	
-	private static final String[] NEWLINE_VARIANTS = { "\r\n", "\n\r", "\r", "\n" };
-	
 	private static NewlineNormalizer defaultNormalizer = LF;
 	
 	/**
@@ -119,7 +128,165 @@ public class NewlineNormalizer {
 		defaultNormalizer = Objects.requireNonNull(newDefaultNormalizer);
 	}
 	
-	private final String[] newlineReplacements;
+	/**
+	 * Compares two texts, treating all newline variants as equal.
+	 *
+	 * <pre>
+	 * equalsIgnoringNewlineStyle(null, null)                 = true
+	 * equalsIgnoringNewlineStyle("a\nb", null)               = false
+	 * equalsIgnoringNewlineStyle("a\nb", "a\r\nb")           = true
+	 * equalsIgnoringNewlineStyle("a\n\rb", "a\r\nb")         = true
+	 * equalsIgnoringNewlineStyle("a\n\nb", "a\r\nb")         = false
+	 * </pre>
+	 *
+	 * <p>
+	 * Does not allocate, and stops at the first difference.
+	 * </p>
+	 *
+	 * @param first
+	 *            First text to compare.
+	 * @param second
+	 *            Second text to compare.
+	 * @return {@code true} if both texts are equal after normalizing their
+	 *         newlines, or both are {@code null}.
+	 * @since 0.5
+	 */
+	public static boolean equalsIgnoringNewlineStyle(final @Nullable CharSequence first,
+			final @Nullable CharSequence second) {
+		if (first == null || second == null) {
+			return first == second;
+		}
+		return indexOfMismatch(first, second, null) < 0;
+	}
+	
+	/**
+	 * Compares two texts, treating all newline variants as equal, and reports
+	 * the first difference.
+	 *
+	 * <p>
+	 * Only allocates if there is a difference.
+	 * </p>
+	 *
+	 * @param first
+	 *            First text to compare.
+	 * @param second
+	 *            Second text to compare.
+	 * @return The first difference; {@code null} if both texts are equal after
+	 *         normalizing their newlines.
+	 * @see #equalsIgnoringNewlineStyle(CharSequence, CharSequence)
+	 * @since 0.5
+	 */
+	public static @Nullable NewlineInsensitiveMismatch mismatchIgnoringNewlineStyle(
+			final @NonNull CharSequence first, final @NonNull CharSequence second) {
+		final long[] position = new long[3];
+		final int firstOffset = indexOfMismatch(first, second, position);
+		if (firstOffset < 0) {
+			return null;
+		}
+		return new NewlineInsensitiveMismatch(firstOffset, position[0], position[1], position[2]);
+	}
+	
+	/**
+	 * Compares the contents of two readers, treating all newline variants as
+	 * equal, and reports the first difference.
+	 *
+	 * <p>
+	 * Uses constant memory, and stops reading at the first difference. Does
+	 * not close the readers.
+	 * </p>
+	 *
+	 * @param first
+	 *            First text to compare.
+	 * @param second
+	 *            Second text to compare.
+	 * @return The first difference; {@code null} if both texts are equal after
+	 *         normalizing their newlines.
+	 * @throws IOException
+	 *             If reading fails.
+	 * @see #equalsIgnoringNewlineStyle(CharSequence, CharSequence)
+	 * @since 0.5
+	 */
+	public static @Nullable NewlineInsensitiveMismatch mismatchIgnoringNewlineStyle(final @NonNull Reader first,
+			final @NonNull Reader second) throws IOException {
+		final ReaderCursor firstCursor = new ReaderCursor(first);
+		final ReaderCursor secondCursor = new ReaderCursor(second);
+		long line = 1;
+		long lineStart = 0;
+		
+		while (true) {
+			final int firstChar = firstCursor.peek(0);
+			final int secondChar = secondCursor.peek(0);
+			if (firstChar < 0 || secondChar < 0) {
+				if (firstChar < 0 && secondChar < 0) {
+					return null;
+				}
+				break;
+			}
+			
+			final int firstNewlineLength = firstCursor.newlineLength();
+			final int secondNewlineLength = secondCursor.newlineLength();
+			if (firstNewlineLength > 0 && secondNewlineLength > 0) {
+				firstCursor.advance(firstNewlineLength);
+				secondCursor.advance(secondNewlineLength);
+				line++;
+				lineStart = firstCursor.offset;
+			} else if (firstNewlineLength == 0 && secondNewlineLength == 0 && firstChar == secondChar) {
+				firstCursor.advance(1);
+				secondCursor.advance(1);
+			} else {
+				break;
+			}
+		}
+		
+		return new NewlineInsensitiveMismatch(firstCursor.offset, secondCursor.offset, line,
+				firstCursor.offset - lineStart + 1);
+	}
+	
+	/**
+	 * Compares the contents of two readers, treating all newline variants as
+	 * equal.
+	 *
+	 * @see #mismatchIgnoringNewlineStyle(Reader, Reader)
+	 * @since 0.5
+	 */
+	public static boolean equalsIgnoringNewlineStyle(final @NonNull Reader first, final @NonNull Reader second)
+			throws IOException {
+		return mismatchIgnoringNewlineStyle(first, second) == null;
+	}
+	
+	/**
+	 * Compares the contents of two streams of text encoded in
+	 * <code>charset</code>, treating all newline variants as equal, and
+	 * reports the first difference.
+	 *
+	 * <p>
+	 * Offsets and columns of the difference count {@code char}s, not bytes.
+	 * Does not close the streams.
+	 * </p>
+	 *
+	 * @see #mismatchIgnoringNewlineStyle(Reader, Reader)
+	 * @since 0.5
+	 */
+	public static @Nullable NewlineInsensitiveMismatch mismatchIgnoringNewlineStyle(final @NonNull InputStream first,
+			final @NonNull InputStream second, final @NonNull Charset charset) throws IOException {
+		return mismatchIgnoringNewlineStyle(new InputStreamReader(first, charset),
+				new InputStreamReader(second, charset));
+	}
+	
+	/**
+	 * Compares the contents of two streams of text encoded in
+	 * <code>charset</code>, treating all newline variants as equal.
+	 *
+	 * @see #mismatchIgnoringNewlineStyle(InputStream, InputStream, Charset)
+	 * @since 0.5
+	 */
+	public static boolean equalsIgnoringNewlineStyle(final @NonNull InputStream first,
+			final @NonNull InputStream second, final @NonNull Charset charset) throws IOException {
+		return mismatchIgnoringNewlineStyle(first, second, charset) == null;
+	}
+	
+	private final String replacement;
+	private final char[] replacementChars;
 	
 	/**
 	 * Creates a new normalizer using <code>replacement</code> as normalized
@@ -129,8 +296,17 @@ public class NewlineNormalizer {
 	 *            String to use as normalized newline.
 	 */
 	public NewlineNormalizer(final @NonNull String replacement) {
-		this.newlineReplacements = new String[] { Objects.requireNonNull(replacement), replacement, replacement,
-				replacement };
+		this.replacement = Objects.requireNonNull(replacement);
+		this.replacementChars = replacement.toCharArray();
+	}
+	
+	/**
+	 * @return String used as normalized newline.
+	 *
+	 * @since 0.5
+	 */
+	public @NonNull String getReplacement() {
+		return this.replacement;
 	}
 	
 	/**
@@ -155,11 +331,23 @@ public class NewlineNormalizer {
 	 * @param str
 	 *            String in witch all newline variants will be replaced.
 	 *
-	 * @return The input with all newline variants replaced; {@code null} if
-	 *         input is {@code null}.
+	 * @return The input with all newline variants replaced; <code>str</code>
+	 *         itself if it does not contain any newline other than the
+	 *         <i>replacement</i>; {@code null} if input is {@code null}.
 	 */
 	public @Nullable String normalize(final @Nullable String str) {
-		return StringUtils.replaceEach(str, NEWLINE_VARIANTS, this.newlineReplacements);
+		if (str == null) {
+			return null;
+		}
+		
+		final int firstForeign = indexOfForeignNewline(str);
+		if (firstForeign < 0) {
+			return str;
+		}
+		
+		final char[] result = new char[normalizedLength(str, firstForeign)];
+		normalizeInto(str, firstForeign, result);
+		return new String(result);
 	}
 	
 	/**
@@ -197,10 +385,225 @@ public class NewlineNormalizer {
 		}
 		
 		final String[] result = new String[strs.length];
+		char[] scratch = null;
 		for (int i = 0; i < strs.length; i++) {
-			result[i] = normalize(strs[i]);
+			final String str = strs[i];
+			if (str == null) {
+				continue;
+			}
+			
+			final int firstForeign = indexOfForeignNewline(str);
+			if (firstForeign < 0) {
+				result[i] = str;
+				continue;
+			}
+			
+			final int length = normalizedLength(str, firstForeign);
+			if (scratch == null || scratch.length < length) {
+				scratch = new char[Math.max(length, scratch == null ? 0 : scratch.length * 2)];
+			}
+			normalizeInto(str, firstForeign, scratch);
+			result[i] = new String(scratch, 0, length);
 		}
 		
 		return result;
 	}
+	
+	/**
+	 * Returns the length of the newline starting at <code>index</code>.
+	 *
+	 * <p>
+	 * Pairs are matched greedily from left to right, i.e. {@code "\r\n\r"}
+	 * consists of the newlines {@code "\r\n"} and {@code "\r"}.
+	 * </p>
+	 *
+	 * @return 2 for a newline pair, 1 for a single newline character, 0 if
+	 *         there is no newline at <code>index</code>.
+	 */
+	private static int newlineLength(final CharSequence str, final int index) {
+		final char c = str.charAt(index);
+		if (c != '\r' && c != '\n') {
+			return 0;
+		}
+		
+		final int next = index + 1;
+		if (next < str.length() && str.charAt(next) == (c == '\r' ? '\n' : '\r')) {
+			return 2;
+		}
+		return 1;
+	}
+	
+	/**
+	 * @return Index of the first newline in <code>str</code> that differs from
+	 *         the <i>replacement</i>; -1 if there is none.
+	 */
+	private int indexOfForeignNewline(final String str) {
+		final int length = str.length();
+		int i = 0;
+		while (i < length) {
+			final int newlineLength = newlineLength(str, i);
+			if (newlineLength == 0) {
+				i++;
+			} else if (newlineLength == this.replacement.length()
+					&& str.regionMatches(i, this.replacement, 0, newlineLength)) {
+				i += newlineLength;
+			} else {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * @return Length of <code>str</code> after normalization; all newlines
+	 *         before <code>from</code> must equal the <i>replacement</i>.
+	 */
+	private int normalizedLength(final String str, final int from) {
+		final int length = str.length();
+		final int replacementLength = this.replacement.length();
+		int result = length;
+		int i = from;
+		while (i < length) {
+			final int newlineLength = newlineLength(str, i);
+			if (newlineLength == 0) {
+				i++;
+			} else {
+				result += replacementLength - newlineLength;
+				i += newlineLength;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Writes <code>str</code> with all newlines from <code>from</code> on
+	 * replaced to the start of <code>dst</code>.
+	 */
+	private void normalizeInto(final String str, final int from, final char[] dst) {
+		final char[] localReplacement = this.replacementChars;
+		final int length = str.length();
+		str.getChars(0, from, dst, 0);
+		int pos = from;
+		int i = from;
+		while (i < length) {
+			final int newlineLength = newlineLength(str, i);
+			if (newlineLength == 0) {
+				dst[pos++] = str.charAt(i++);
+			} else {
+				System.arraycopy(localReplacement, 0, dst, pos, localReplacement.length);
+				pos += localReplacement.length;
+				i += newlineLength;
+			}
+		}
+	}
+	
+	/**
+	 * Walks <code>first</code> and <code>second</code> in parallel.
+	 *
+	 * @param position
+	 *            If not {@code null}, receives the offset of the difference in
+	 *            <code>second</code>, and the line and column of the
+	 *            difference.
+	 * @return Offset of the first difference in <code>first</code>; -1 if
+	 *         there is none.
+	 */
+	private static int indexOfMismatch(final CharSequence first, final CharSequence second,
+			final long @Nullable [] position) {
+		final int firstLength = first.length();
+		final int secondLength = second.length();
+		int i = 0;
+		int j = 0;
+		int line = 1;
+		int lineStart = 0;
+		
+		while (i < firstLength && j < secondLength) {
+			final int firstNewlineLength = newlineLength(first, i);
+			final int secondNewlineLength = newlineLength(second, j);
+			if (firstNewlineLength > 0 && secondNewlineLength > 0) {
+				i += firstNewlineLength;
+				j += secondNewlineLength;
+				line++;
+				lineStart = i;
+			} else if (firstNewlineLength == 0 && secondNewlineLength == 0 && first.charAt(i) == second.charAt(j)) {
+				i++;
+				j++;
+			} else {
+				break;
+			}
+		}
+		
+		if (i == firstLength && j == secondLength) {
+			return -1;
+		}
+		if (position != null) {
+			position[0] = j;
+			position[1] = line;
+			position[2] = i - lineStart + 1;
+		}
+		return i;
+	}
+	
+	/**
+	 * Buffered reading position with one character lookahead.
+	 */
+	private static final class ReaderCursor {
+		private static final int BUFFER_SIZE = 8192;
+		
+		private final Reader in;
+		private final char[] buffer = new char[BUFFER_SIZE];
+		private int pos;
+		private int limit;
+		private boolean endOfInput;
+		long offset;
+		
+		ReaderCursor(final Reader in) {
+			this.in = Objects.requireNonNull(in);
+		}
+		
+		/**
+		 * @return The character <code>ahead</code> positions after the
+		 *         current one; -1 at the end of input.
+		 */
+		int peek(final int ahead) throws IOException {
+			if (this.pos + ahead >= this.limit) {
+				fill(ahead);
+				if (this.pos + ahead >= this.limit) {
+					return -1;
+				}
+			}
+			return this.buffer[this.pos + ahead];
+		}
+		
+		/**
+		 * @see NewlineNormalizer#newlineLength(CharSequence, int)
+		 */
+		int newlineLength() throws IOException {
+			final int c = peek(0);
+			if (c != '\r' && c != '\n') {
+				return 0;
+			}
+			return peek(1) == (c == '\r' ? '\n' : '\r') ? 2 : 1;
+		}
+		
+		void advance(final int count) {
+			this.pos += count;
+			this.offset += count;
+		}
+		
+		private void fill(final int ahead) throws IOException {
+			if (this.pos > 0) {
+				System.arraycopy(this.buffer, this.pos, this.buffer, 0, this.limit - this.pos);
+				this.limit -= this.pos;
+				this.pos = 0;
+			}
+			while (!this.endOfInput && this.limit <= ahead) {
+				final int count = this.in.read(this.buffer, this.limit, this.buffer.length - this.limit);
+				if (count < 0) {
+					this.endOfInput = true;
+				} else {
+					this.limit += count;
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CoderResult;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Input stream that replaces all newline variants in text encoded in a
+ * {@link Charset} with the <i>replacement</i> of a {@link NewlineNormalizer}
+ * while reading.
+ *
+ * <p>
+ * Uses constant memory, regardless of the length of the underlying stream.
+ * Newline pairs and multi-byte characters split across reads are recognized.
+ * </p>
+ *
+ * <p>
+ * Does not support {@linkplain #mark(int) mark} and {@linkplain #reset()
+ * reset}.
+ * </p>
+ *
+ * @see NewlineNormalizingTranscoder
+ * @since 0.5
+ */
+public class NewlineNormalizingInputStream extends FilterInputStream {
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final NewlineNormalizingTranscoder transcoder;
+	/** in read mode */
+	private final ByteBuffer raw = ByteBuffer.allocate(BUFFER_SIZE);
+	/** in read mode */
+	private final ByteBuffer normalized = ByteBuffer.allocate(BUFFER_SIZE);
+	private boolean endOfInput;
+	private boolean finished;
+	
+	/**
+	 * Creates a stream normalizing the newlines of <code>in</code>.
+	 *
+	 * @param in
+	 *            Stream to normalize.
+	 * @param charset
+	 *            Encoding of <code>in</code>; also used for the normalized
+	 *            output.
+	 * @param normalizer
+	 *            Normalizer providing the <i>replacement</i>.
+	 * @throws IllegalArgumentException
+	 *             If the <i>replacement</i> cannot be encoded in
+	 *             <code>charset</code>.
+	 */
+	public NewlineNormalizingInputStream(final @NonNull InputStream in, final @NonNull Charset charset,
+			final @NonNull NewlineNormalizer normalizer) {
+		super(Objects.requireNonNull(in));
+		this.transcoder = new NewlineNormalizingTranscoder(normalizer, charset);
+		this.raw.flip();
+		this.normalized.flip();
+	}
+	
+	@Override
+	public synchronized int read() throws IOException {
+		if (!ensureNormalized()) {
+			return -1;
+		}
+		return this.normalized.get() & 0xFF;
+	}
+	
+	@Override
+	public synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		
+		if (!ensureNormalized()) {
+			return -1;
+		}
+		final int count = Math.min(len, this.normalized.remaining());
+		this.normalized.get(b, off, count);
+		return count;
+	}
+	
+	@Override
+	public synchronized long skip(final long n) throws IOException {
+		long remaining = n;
+		while (remaining > 0 && ensureNormalized()) {
+			final int count = (int) Math.min(remaining, this.normalized.remaining());
+			this.normalized.position(this.normalized.position() + count);
+			remaining -= count;
+		}
+		return Math.max(0L, n - remaining);
+	}
+	
+	@Override
+	public synchronized int available() throws IOException {
+		return this.normalized.remaining();
+	}
+	
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+	
+	@Override
+	public synchronized void mark(final int readlimit) {
+		// not supported
+	}
+	
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("mark/reset not supported");
+	}
+	
+	/**
+	 * Refills the normalized buffer if it is exhausted.
+	 *
+	 * @return {@code false} if the end of the normalized text is reached.
+	 */
+	private boolean ensureNormalized() throws IOException {
+		while (!this.normalized.hasRemaining()) {
+			if (this.finished) {
+				return false;
+			}
+			
+			this.normalized.clear();
+			final CoderResult result = this.transcoder.transcode(this.raw, this.normalized, this.endOfInput);
+			this.normalized.flip();
+			
+			if (result.isError()) {
+				result.throwException();
+			} else if (result.isUnderflow()) {
+				if (this.endOfInput) {
+					this.finished = true;
+				} else {
+					fillRaw();
+				}
+			}
+		}
+		return true;
+	}
+	
+	private void fillRaw() throws IOException {
+		this.raw.compact();
+		final int count = this.in.read(this.raw.array(), this.raw.position(), this.raw.remaining());
+		if (count < 0) {
+			this.endOfInput = true;
+		} else {
+			this.raw.position(this.raw.position() + count);
+		}
+		this.raw.flip();
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Reader that replaces all newline variants with the <i>replacement</i> of a
+ * {@link NewlineNormalizer} while reading.
+ *
+ * <p>
+ * Uses constant memory, regardless of the length of the underlying reader.
+ * Newline pairs split across reads are recognized.
+ * </p>
+ *
+ * <p>
+ * Does not support {@linkplain #mark(int) mark} and {@linkplain #reset()
+ * reset}.
+ * </p>
+ *
+ * @see NewlineNormalizer#normalize(String)
+ * @since 0.5
+ */
+public class NewlineNormalizingReader extends FilterReader {
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final NewlineScanner scanner;
+	private final char[] raw = new char[BUFFER_SIZE];
+	private final char[] normalized;
+	private int normalizedPos;
+	private int normalizedLimit;
+	private boolean endOfInput;
+	
+	/**
+	 * Creates a reader normalizing the newlines of <code>in</code>.
+	 *
+	 * @param in
+	 *            Reader to normalize.
+	 * @param normalizer
+	 *            Normalizer providing the <i>replacement</i>.
+	 */
+	public NewlineNormalizingReader(final @NonNull Reader in, final @NonNull NewlineNormalizer normalizer) {
+		super(Objects.requireNonNull(in));
+		this.scanner = new NewlineScanner(Objects.requireNonNull(normalizer));
+		this.normalized = new char[BUFFER_SIZE * this.scanner.getMaximumExpansion()];
+	}
+	
+	@Override
+	public int read() throws IOException {
+		synchronized (this.lock) {
+			if (!ensureNormalized()) {
+				return -1;
+			}
+			return this.normalized[this.normalizedPos++];
+		}
+	}
+	
+	@Override
+	public int read(final char[] cbuf, final int off, final int len) throws IOException {
+		if (off < 0 || len < 0 || len > cbuf.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		
+		synchronized (this.lock) {
+			if (!ensureNormalized()) {
+				return -1;
+			}
+			final int count = Math.min(len, this.normalizedLimit - this.normalizedPos);
+			System.arraycopy(this.normalized, this.normalizedPos, cbuf, off, count);
+			this.normalizedPos += count;
+			return count;
+		}
+	}
+	
+	@Override
+	public long skip(final long n) throws IOException {
+		if (n < 0L) {
+			throw new IllegalArgumentException("skip value is negative");
+		}
+		
+		synchronized (this.lock) {
+			long remaining = n;
+			while (remaining > 0 && ensureNormalized()) {
+				final int count = (int) Math.min(remaining, this.normalizedLimit - this.normalizedPos);
+				this.normalizedPos += count;
+				remaining -= count;
+			}
+			return n - remaining;
+		}
+	}
+	
+	@Override
+	public boolean ready() throws IOException {
+		synchronized (this.lock) {
+			return this.normalizedPos < this.normalizedLimit || (!this.endOfInput && this.in.ready());
+		}
+	}
+	
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+	
+	@Override
+	public void mark(final int readAheadLimit) throws IOException {
+		throw new IOException("mark() not supported");
+	}
+	
+	@Override
+	public void reset() throws IOException {
+		throw new IOException("reset() not supported");
+	}
+	
+	/**
+	 * Refills the normalized buffer if it is exhausted.
+	 *
+	 * @return {@code false} if the end of the underlying reader is reached.
+	 */
+	private boolean ensureNormalized() throws IOException {
+		while (this.normalizedPos >= this.normalizedLimit) {
+			if (this.endOfInput) {
+				return false;
+			}
+			
+			final int count = this.in.read(this.raw, 0, this.raw.length);
+			if (count < 0) {
+				this.endOfInput = true;
+				return false;
+			}
+			
+			this.normalizedPos = 0;
+			this.normalizedLimit = this.scanner.normalize(this.raw, 0, count, this.normalized, 0);
+		}
+		return true;
+	}
+}
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Replaces all newline variants in encoded text with the <i>replacement</i> of
+ * a {@link NewlineNormalizer}, from one {@link ByteBuffer} to another.
+ *
+ * <p>
+ * Works like {@link CharsetEncoder#encode(CharBuffer, ByteBuffer, boolean)}:
+ * The caller repeatedly passes input and output buffers; the transcoder
+ * consumes as much input as fits into the output and keeps any state, like a
+ * newline pair or a multi-byte character split across input buffers, until the
+ * next invocation.
+ * </p>
+ *
+ * <p>
+ * For ASCII-compatible charsets (e.g. UTF-8, ISO-8859-1), the bytes are
+ * processed directly and all other bytes are passed on unchanged. Other
+ * charsets (e.g. UTF-16) are decoded and re-encoded; malformed or unmappable
+ * input is reported as {@linkplain CoderResult#isError() error result}.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ *
+ * @see NewlineNormalizingInputStream
+ * @since 0.5
+ */
+public final class NewlineNormalizingTranscoder {
+	private static final int CHAR_BUFFER_SIZE = 4096;
+	private static final byte[] ASCII_NEWLINES = { '\r', '\n' };
+	
+	private static final int STATE_CODING = 0;
+	private static final int STATE_DECODER_FLUSHED = 1;
+	private static final int STATE_ENCODER_ENDED = 2;
+	private static final int STATE_FLUSHED = 3;
+	
+	private final Charset charset;
+	private final NewlineScanner scanner;
+	
+	/** Replacement encoded in {@link #charset}; {@code null} if transcoding via chars */
+	private final byte[] encodedReplacement;
+	
+	private final CharsetDecoder decoder;
+	private final CharsetEncoder encoder;
+	/** in write mode */
+	private final CharBuffer decoded;
+	/** in read mode */
+	private final CharBuffer normalized;
+	private int state = STATE_CODING;
+	
+	/**
+	 * Creates a transcoder for text encoded in <code>charset</code>.
+	 *
+	 * @param normalizer
+	 *            Normalizer providing the <i>replacement</i>.
+	 * @param charset
+	 *            Encoding of both input and output.
+	 * @throws IllegalArgumentException
+	 *             If the <i>replacement</i> cannot be encoded in
+	 *             <code>charset</code>.
+	 * @throws UnsupportedOperationException
+	 *             If <code>charset</code> does not support encoding.
+	 */
+	public NewlineNormalizingTranscoder(final @NonNull NewlineNormalizer normalizer, final @NonNull Charset charset) {
+		this.charset = Objects.requireNonNull(charset);
+		this.scanner = new NewlineScanner(Objects.requireNonNull(normalizer));
+		
+		final byte[] replacement = encode(normalizer.getReplacement(), charset);
+		if (isAsciiCompatible(charset)) {
+			this.encodedReplacement = replacement;
+			this.decoder = null;
+			this.encoder = null;
+			this.decoded = null;
+			this.normalized = null;
+		} else {
+			this.encodedReplacement = null;
+			this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPORT)
+					.onUnmappableCharacter(CodingErrorAction.REPORT);
+			this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPORT)
+					.onUnmappableCharacter(CodingErrorAction.REPORT);
+			this.decoded = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+			this.normalized = CharBuffer.allocate(CHAR_BUFFER_SIZE * this.scanner.getMaximumExpansion());
+			this.normalized.flip();
+		}
+	}
+	
+	/**
+	 * @return Encoding of input and output.
+	 */
+	public @NonNull Charset getCharset() {
+		return this.charset;
+	}
+	
+	/**
+	 * Transcodes as many bytes as possible from <code>in</code> into
+	 * <code>out</code>.
+	 *
+	 * @param in
+	 *            Encoded input; its position is advanced past all consumed
+	 *            bytes.
+	 * @param out
+	 *            Receives the normalized output; its position is advanced
+	 *            past all written bytes.
+	 * @param endOfInput
+	 *            {@code true} if <code>in</code> contains the last bytes of the
+	 *            text.
+	 * @return {@link CoderResult#UNDERFLOW} if more input is required (or, with
+	 *         <code>endOfInput</code>, all output has been written),
+	 *         {@link CoderResult#OVERFLOW} if <code>out</code> needs more room,
+	 *         or an error result describing malformed or unmappable input.
+	 * @throws IllegalStateException
+	 *             If invoked again after finishing with
+	 *             <code>endOfInput</code> without {@link #reset()}.
+	 */
+	public @NonNull CoderResult transcode(final @NonNull ByteBuffer in, final @NonNull ByteBuffer out,
+			final boolean endOfInput) {
+		if (this.encodedReplacement != null) {
+			return this.scanner.normalize(in, out, this.encodedReplacement);
+		}
+		return transcodeChars(in, out, endOfInput);
+	}
+	
+	/**
+	 * Resets this transcoder, discarding any internal state.
+	 *
+	 * <p>
+	 * Required before transcoding another text.
+	 * </p>
+	 */
+	public void reset() {
+		this.scanner.reset();
+		if (this.encodedReplacement == null) {
+			this.decoder.reset();
+			this.encoder.reset();
+			this.decoded.clear();
+			this.normalized.clear();
+			this.normalized.flip();
+			this.state = STATE_CODING;
+		}
+	}
+	
+	private CoderResult transcodeChars(final ByteBuffer in, final ByteBuffer out, final boolean endOfInput) {
+		if (this.state == STATE_FLUSHED) {
+			throw new IllegalStateException("Transcoder has finished; reset() required");
+		}
+		
+		while (true) {
+			if (this.normalized.hasRemaining()) {
+				final CoderResult result = this.encoder.encode(this.normalized, out, false);
+				if (result.isError() || this.normalized.hasRemaining()) {
+					return result;
+				}
+			}
+			
+			if (this.decoded.position() > 0) {
+				this.decoded.flip();
+				this.normalized.clear();
+				this.normalized.limit(this.scanner.normalize(this.decoded.array(), 0, this.decoded.limit(),
+						this.normalized.array(), 0));
+				this.decoded.clear();
+				continue;
+			}
+			
+			if (this.state == STATE_CODING) {
+				final CoderResult result = this.decoder.decode(in, this.decoded, endOfInput);
+				if (result.isError()) {
+					return result;
+				}
+				if (this.decoded.position() > 0) {
+					continue;
+				}
+				if (!endOfInput) {
+					return CoderResult.UNDERFLOW;
+				}
+				
+				this.decoder.flush(this.decoded);
+				this.state = STATE_DECODER_FLUSHED;
+				continue;
+			}
+			
+			if (this.state == STATE_DECODER_FLUSHED) {
+				final CoderResult result = this.encoder.encode(this.normalized, out, true);
+				if (!result.isUnderflow()) {
+					return result;
+				}
+				this.state = STATE_ENCODER_ENDED;
+			}
+			
+			final CoderResult result = this.encoder.flush(out);
+			if (result.isUnderflow()) {
+				this.state = STATE_FLUSHED;
+			}
+			return result;
+		}
+	}
+	
+	private static boolean isAsciiCompatible(final Charset charset) {
+		if (StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+				|| StandardCharsets.ISO_8859_1.equals(charset)) {
+			return true;
+		}
+		
+		// In single-byte charsets, every byte is a character on its own
+		return charset.newEncoder().maxBytesPerChar() == 1.0f
+				&& Arrays.equals(ASCII_NEWLINES, "\r\n".getBytes(charset))
+				&& "\r\n".equals(new String(ASCII_NEWLINES, charset));
+	}
+	
+	private static byte[] encode(final String str, final Charset charset) {
+		try {
+			final ByteBuffer buffer = charset.newEncoder().onMalformedInput(CodingErrorAction.REPORT)
+					.onUnmappableCharacter(CodingErrorAction.REPORT).encode(CharBuffer.wrap(str));
+			return Arrays.copyOfRange(buffer.array(), buffer.arrayOffset() + buffer.position(),
+					buffer.arrayOffset() + buffer.limit());
+		} catch (final CharacterCodingException e) {
+			throw new IllegalArgumentException("Cannot encode newline replacement in " + charset, e);
+		}
+	}
+}
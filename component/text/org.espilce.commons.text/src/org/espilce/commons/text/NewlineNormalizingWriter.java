@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Writer that replaces all newline variants with the <i>replacement</i> of a
+ * {@link NewlineNormalizer} before passing the text on.
+ *
+ * <p>
+ * Uses constant memory, regardless of the amount of text written. Newline pairs
+ * split across writes are recognized.
+ * </p>
+ *
+ * @see NewlineNormalizer#normalize(String)
+ * @since 0.5
+ */
+public class NewlineNormalizingWriter extends FilterWriter {
+	private static final int BUFFER_SIZE = 4096;
+	
+	private final NewlineScanner scanner;
+	private final char[] raw = new char[BUFFER_SIZE];
+	private final char[] normalized;
+	
+	/**
+	 * Creates a writer normalizing the newlines of all text written to
+	 * <code>out</code>.
+	 *
+	 * @param out
+	 *            Writer to receive the normalized text.
+	 * @param normalizer
+	 *            Normalizer providing the <i>replacement</i>.
+	 */
+	public NewlineNormalizingWriter(final @NonNull Writer out, final @NonNull NewlineNormalizer normalizer) {
+		super(Objects.requireNonNull(out));
+		this.scanner = new NewlineScanner(Objects.requireNonNull(normalizer));
+		this.normalized = new char[BUFFER_SIZE * this.scanner.getMaximumExpansion()];
+	}
+	
+	@Override
+	public void write(final int c) throws IOException {
+		synchronized (this.lock) {
+			this.raw[0] = (char) c;
+			writeNormalized(this.raw, 0, 1);
+		}
+	}
+	
+	@Override
+	public void write(final char[] cbuf, final int off, final int len) throws IOException {
+		if (off < 0 || len < 0 || len > cbuf.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		
+		synchronized (this.lock) {
+			for (int pos = off, end = off + len; pos < end; pos += BUFFER_SIZE) {
+				writeNormalized(cbuf, pos, Math.min(end, pos + BUFFER_SIZE));
+			}
+		}
+	}
+	
+	@Override
+	public void write(final String str, final int off, final int len) throws IOException {
+		if (off < 0 || len < 0 || len > str.length() - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		
+		synchronized (this.lock) {
+			for (int pos = off, end = off + len; pos < end; pos += BUFFER_SIZE) {
+				final int chunkEnd = Math.min(end, pos + BUFFER_SIZE);
+				str.getChars(pos, chunkEnd, this.raw, 0);
+				writeNormalized(this.raw, 0, chunkEnd - pos);
+			}
+		}
+	}
+	
+	private void writeNormalized(final char[] src, final int from, final int to) throws IOException {
+		final int count = this.scanner.normalize(src, from, to, this.normalized, 0);
+		if (count > 0) {
+			this.out.write(this.normalized, 0, count);
+		}
+	}
+}
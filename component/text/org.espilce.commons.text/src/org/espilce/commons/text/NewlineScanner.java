@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CoderResult;
+
+/**
+ * Incremental newline replacement shared by the streaming variants of
+ * {@link NewlineNormalizer}.
+ *
+ * <p>
+ * Matches the same way as {@link NewlineNormalizer#normalize(String)}: A
+ * <i>carriage_return</i> or <i>line_feed</i> is replaced right away; if it is
+ * directly followed by its counterpart, the counterpart belongs to the same
+ * newline and is dropped. Only the expected counterpart is remembered between
+ * chunks, so pairs split across chunk boundaries never need to be buffered.
+ * </p>
+ */
+final class NewlineScanner {
+	private static final int NONE = Integer.MIN_VALUE;
+	private static final byte CR_BYTE = '\r';
+	private static final byte LF_BYTE = '\n';
+	
+	private final char[] replacement;
+	
+	/** counterpart of the last newline character, or {@link #NONE} */
+	private int pairCompletion = NONE;
+	
+	NewlineScanner(final NewlineNormalizer normalizer) {
+		this.replacement = normalizer.getReplacement().toCharArray();
+	}
+	
+	/**
+	 * @return Maximum number of characters one input character can expand to.
+	 */
+	int getMaximumExpansion() {
+		return Math.max(1, this.replacement.length);
+	}
+	
+	/**
+	 * Normalizes <code>src[from..to)</code> into <code>dst</code>, starting at
+	 * <code>dstPos</code>.
+	 *
+	 * <p>
+	 * <code>dst</code> must have room for
+	 * <code>(to - from) * {@link #getMaximumExpansion()}</code> characters.
+	 * </p>
+	 *
+	 * @return Position in <code>dst</code> after the last written character.
+	 */
+	int normalize(final char[] src, final int from, final int to, final char[] dst, final int dstPos) {
+		final char[] localReplacement = this.replacement;
+		int skip = this.pairCompletion;
+		int pos = dstPos;
+		for (int i = from; i < to; i++) {
+			final char c = src[i];
+			if (c == skip) {
+				skip = NONE;
+			} else if (c == '\r' || c == '\n') {
+				System.arraycopy(localReplacement, 0, dst, pos, localReplacement.length);
+				pos += localReplacement.length;
+				skip = c == '\r' ? '\n' : '\r';
+			} else {
+				dst[pos++] = c;
+				skip = NONE;
+			}
+		}
+		this.pairCompletion = skip;
+		return pos;
+	}
+	
+	/**
+	 * Normalizes bytes of an ASCII-compatible encoding from <code>in</code>
+	 * into <code>out</code>, as far as <code>out</code> has room.
+	 *
+	 * @param encodedReplacement
+	 *            Replacement encoded in the same encoding as <code>in</code>.
+	 * @return {@link CoderResult#UNDERFLOW} if all of <code>in</code> has been
+	 *         consumed, {@link CoderResult#OVERFLOW} otherwise.
+	 */
+	CoderResult normalize(final ByteBuffer in, final ByteBuffer out, final byte[] encodedReplacement) {
+		int skip = this.pairCompletion;
+		try {
+			while (in.hasRemaining()) {
+				final byte b = in.get(in.position());
+				if (b == skip) {
+					skip = NONE;
+				} else if (b == CR_BYTE || b == LF_BYTE) {
+					if (out.remaining() < encodedReplacement.length) {
+						return CoderResult.OVERFLOW;
+					}
+					out.put(encodedReplacement);
+					skip = b == CR_BYTE ? LF_BYTE : CR_BYTE;
+				} else {
+					if (!out.hasRemaining()) {
+						return CoderResult.OVERFLOW;
+					}
+					out.put(b);
+					skip = NONE;
+				}
+				in.position(in.position() + 1);
+			}
+			return CoderResult.UNDERFLOW;
+		} finally {
+			this.pairCompletion = skip;
+		}
+	}
+	
+	/**
+	 * Forgets any partially seen newline.
+	 */
+	void reset() {
+		this.pairCompletion = NONE;
+	}
+}
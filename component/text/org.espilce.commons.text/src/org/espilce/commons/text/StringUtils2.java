@@ -125,13 +125,147 @@ public class StringUtils2 {
 			return null;
 		}
 		
-		final String[] reversed = new String[strs.length];
-		for (int i = 0; i < strs.length; i++) {
-			reversed[i] = StringUtils.reverse(strs[i]);
+		final int commonSuffixLength = getCommonSuffixLength(strs);
+		if (commonSuffixLength == 0) {
+			return "";
 		}
 		
-		final String reversedCommonPrefix = StringUtils.getCommonPrefix(reversed);
-		return StringUtils.reverse(reversedCommonPrefix);
+		final String first = strs[0];
+		return first.substring(first.length() - commonSuffixLength);
+	}
+	
+	/**
+	 * Compares all CharSequences in an array and returns the length of the
+	 * initial sequence of characters that is common to all of them.
+	 *
+	 * <p>
+	 * Consistent with {@link StringUtils#getCommonPrefix(String...)}, but does
+	 * not allocate.
+	 * </p>
+	 *
+	 * <pre>
+	 * 	StringUtils2.getCommonPrefixLength(null)                                 = 0
+	 * 	StringUtils2.getCommonPrefixLength(new String[] {})                      = 0
+	 * 	StringUtils2.getCommonPrefixLength(new String[] {"abc"})                 = 3
+	 * 	StringUtils2.getCommonPrefixLength(new String[] {"abc", null})           = 0
+	 * 	StringUtils2.getCommonPrefixLength(new String[] {"abcde", "abxyz"})      = 2
+	 * 	StringUtils2.getCommonPrefixLength(new String[] {"abc", "abc"})          = 3
+	 * </pre>
+	 *
+	 * @param css
+	 *            Array of CharSequences, entries may be {@code null}.
+	 * @return Length of the common prefix; 0 if the array is {@code null} or
+	 *         empty, or any element is {@code null}.
+	 * @since 0.5
+	 */
+	public static int getCommonPrefixLength(final @Nullable CharSequence... css) {
+		final int candidate = shortestLength(css);
+		if (candidate <= 0 || css.length == 1) {
+			return Math.max(candidate, 0);
+		}
+		
+		final CharSequence first = css[0];
+		int result = candidate;
+		for (int i = 1; i < css.length && result > 0; i++) {
+			final CharSequence cs = css[i];
+			for (int k = 0; k < result; k++) {
+				if (cs.charAt(k) != first.charAt(k)) {
+					result = k;
+					break;
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Compares all CharSequences in an array and returns the length of the
+	 * last sequence of characters that is common to all of them.
+	 *
+	 * <p>
+	 * Compares from the end of each element, without copying.
+	 * </p>
+	 *
+	 * <pre>
+	 * 	StringUtils2.getCommonSuffixLength(null)                                 = 0
+	 * 	StringUtils2.getCommonSuffixLength(new String[] {})                      = 0
+	 * 	StringUtils2.getCommonSuffixLength(new String[] {"abc"})                 = 3
+	 * 	StringUtils2.getCommonSuffixLength(new String[] {"abc", null})           = 0
+	 * 	StringUtils2.getCommonSuffixLength(new String[] {"abcde", "xyzde"})      = 2
+	 * 	StringUtils2.getCommonSuffixLength(new String[] {"abc", "abc"})          = 3
+	 * </pre>
+	 *
+	 * @param css
+	 *            Array of CharSequences, entries may be {@code null}.
+	 * @return Length of the common suffix; 0 if the array is {@code null} or
+	 *         empty, or any element is {@code null}.
+	 * @since 0.5
+	 */
+	public static int getCommonSuffixLength(final @Nullable CharSequence... css) {
+		final int candidate = shortestLength(css);
+		if (candidate <= 0 || css.length == 1) {
+			return Math.max(candidate, 0);
+		}
+		
+		final CharSequence first = css[0];
+		final int firstEnd = first.length() - 1;
+		int result = candidate;
+		for (int i = 1; i < css.length && result > 0; i++) {
+			final CharSequence cs = css[i];
+			final int end = cs.length() - 1;
+			for (int k = 0; k < result; k++) {
+				if (cs.charAt(end - k) != first.charAt(firstEnd - k)) {
+					result = k;
+					break;
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Compares all paths in an array and returns the length of the initial
+	 * sequence of whole segments that is common to all of them, including the
+	 * trailing <code>separator</code>.
+	 *
+	 * <p>
+	 * Unlike {@link #getCommonPrefixLength(CharSequence...)}, never cuts
+	 * through a segment, and always keeps the last segment of every path.
+	 * Runs in time linear to the total length of all paths, as each path is
+	 * only compared up to the common prefix found so far.
+	 * </p>
+	 *
+	 * <pre>
+	 * 	StringUtils2.getCommonPathPrefixLength('/', null)                                 = 0
+	 * 	StringUtils2.getCommonPathPrefixLength('/', new String[] {"a/b/c"})               = 4
+	 * 	StringUtils2.getCommonPathPrefixLength('/', new String[] {"a/bc/x", "a/bd/y"})    = 2
+	 * 	StringUtils2.getCommonPathPrefixLength('/', new String[] {"a/b", "a/b"})          = 2
+	 * 	StringUtils2.getCommonPathPrefixLength('/', new String[] {"a/b", "a/b/c"})        = 2
+	 * 	StringUtils2.getCommonPathPrefixLength('/', new String[] {"/x/a", "/x/b"})        = 3
+	 * 	StringUtils2.getCommonPathPrefixLength('/', new String[] {"x/a", "y/a"})          = 0
+	 * </pre>
+	 *
+	 * @param separator
+	 *            Character separating the path segments.
+	 * @param paths
+	 *            Array of paths, entries may be {@code null}.
+	 * @return Length of the common path prefix; 0 if the array is
+	 *         {@code null} or empty, or any element is {@code null}.
+	 * @since 0.5
+	 */
+	public static int getCommonPathPrefixLength(final char separator, final @Nullable CharSequence... paths) {
+		final int commonPrefixLength = getCommonPrefixLength(paths);
+		if (commonPrefixLength == 0) {
+			return 0;
+		}
+		
+		final CharSequence first = paths[0];
+		for (int i = commonPrefixLength - 1; i >= 0; i--) {
+			if (first.charAt(i) == separator) {
+				return i + 1;
+			}
+		}
+		return 0;
 	}
 	
 	/**
@@ -187,13 +321,12 @@ public class StringUtils2 {
 			return strs;
 		}
 		
-		final String commonPrefix = StringUtils.getCommonPrefix(strs);
-		if (commonPrefix != null && !commonPrefix.isEmpty()) {
-			final int commonPrefixLength = commonPrefix.length();
+		final int commonPrefixLength = getCommonPrefixLength(strs);
+		if (commonPrefixLength > 0) {
 			final String[] result = new String[strs.length];
 			
 			for (int i = 0; i < strs.length; i++) {
-				result[i] = StringUtils.substring(strs[i], commonPrefixLength);
+				result[i] = strs[i].substring(commonPrefixLength);
 			}
 			
 			return result;
@@ -201,4 +334,110 @@ public class StringUtils2 {
 		
 		return strs;
 	}
+	
+	/**
+	 * Removes the common prefix of all CharSequences in an array, returning
+	 * views that share the storage of the original elements.
+	 *
+	 * <p>
+	 * Behaves like {@link #removeCommonPrefix(String...)}, but does not copy
+	 * any characters. Elements are the original instances if nothing is
+	 * removed from them; otherwise, read-only views whose
+	 * {@link CharSequence#toString() toString()} yields the remainder.
+	 * </p>
+	 *
+	 * @param css
+	 *            Array of CharSequences, entries may be {@code null}.
+	 * @return A new array of CharSequences with the same elements as
+	 *         <code>css</code>, each stripped of their common prefix;
+	 *         {@code null} if <code>css</code> is {@code null};
+	 *         <code>css</code> if not more than one element is present, or
+	 *         there is no common prefix.
+	 * @since 0.5
+	 */
+	public static @Nullable CharSequence[] removeCommonPrefixAsViews(final @Nullable CharSequence... css) {
+		if (css == null || css.length <= 1) {
+			return css;
+		}
+		
+		return cutPrefix(css, getCommonPrefixLength(css));
+	}
+	
+	/**
+	 * Removes the common path prefix of all paths in an array.
+	 *
+	 * <p>
+	 * Common path prefix is defined at
+	 * {@link #getCommonPathPrefixLength(char, CharSequence...)}.
+	 * </p>
+	 *
+	 * <p>
+	 * Keeps order and {@code null} entries in the array.
+	 * </p>
+	 *
+	 * <pre>
+	 * 	StringUtils2.removeCommonPathPrefix('/', new String[] {"a/bc/x", "a/bd/y"})    = {"bc/x", "bd/y"}
+	 * 	StringUtils2.removeCommonPathPrefix('/', new String[] {"/x/A.java", "/x/B.java"}) = {"A.java", "B.java"}
+	 * 	StringUtils2.removeCommonPathPrefix('/', new String[] {"a/b/c"})               = {"c"}
+	 * 	StringUtils2.removeCommonPathPrefix('/', new String[] {"x/a", "y/a"})          = {"x/a", "y/a"}
+	 * </pre>
+	 *
+	 * @param separator
+	 *            Character separating the path segments.
+	 * @param paths
+	 *            Array of paths, entries may be {@code null}.
+	 * @return A new array of paths with the same elements as
+	 *         <code>paths</code>, each stripped of their common path prefix;
+	 *         {@code null} if <code>paths</code> is {@code null};
+	 *         <code>paths</code> if there is no common path prefix.
+	 * @since 0.5
+	 */
+	public static @Nullable String[] removeCommonPathPrefix(final char separator, final @Nullable String... paths) {
+		if (paths == null) {
+			return null;
+		}
+		
+		final int commonPathPrefixLength = getCommonPathPrefixLength(separator, paths);
+		if (commonPathPrefixLength == 0) {
+			return paths;
+		}
+		
+		final String[] result = new String[paths.length];
+		for (int i = 0; i < paths.length; i++) {
+			result[i] = paths[i].substring(commonPathPrefixLength);
+		}
+		return result;
+	}
+	
+	/**
+	 * @return Length of the shortest element; -1 if <code>css</code> is
+	 *         {@code null} or empty, or any element is {@code null}.
+	 */
+	private static int shortestLength(final @Nullable CharSequence @Nullable [] css) {
+		if (css == null || css.length == 0) {
+			return -1;
+		}
+		
+		int result = Integer.MAX_VALUE;
+		for (final CharSequence cs : css) {
+			if (cs == null) {
+				return -1;
+			}
+			result = Math.min(result, cs.length());
+		}
+		return result;
+	}
+	
+	private static CharSequence[] cutPrefix(final CharSequence[] css, final int prefixLength) {
+		if (prefixLength == 0) {
+			return css;
+		}
+		
+		final CharSequence[] result = new CharSequence[css.length];
+		for (int i = 0; i < css.length; i++) {
+			final CharSequence cs = css[i];
+			result[i] = SubSequenceView.of(cs, prefixLength, cs.length());
+		}
+		return result;
+	}
 }
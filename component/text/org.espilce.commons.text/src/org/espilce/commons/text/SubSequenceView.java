@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (C) 2020 Altran Netherlands B.V.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.espilce.commons.text;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Read-only view on a range of another CharSequence, sharing its storage.
+ *
+ * <p>
+ * Only {@link #toString()} copies characters.
+ * </p>
+ */
+final class SubSequenceView implements CharSequence {
+	private final CharSequence base;
+	private final int start;
+	private final int end;
+	
+	SubSequenceView(final CharSequence base, final int start, final int end) {
+		this.base = base;
+		this.start = start;
+		this.end = end;
+	}
+	
+	/**
+	 * @return A view on <code>base[start..end)</code>; <code>base</code> itself
+	 *         if the range covers all of it.
+	 */
+	static CharSequence of(final CharSequence base, final int start, final int end) {
+		if (start < 0 || end > base.length() || start > end) {
+			throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + base.length());
+		}
+		if (start == 0 && end == base.length()) {
+			return base;
+		}
+		if (base instanceof SubSequenceView) {
+			final SubSequenceView view = (SubSequenceView) base;
+			return new SubSequenceView(view.base, view.start + start, view.start + end);
+		}
+		return new SubSequenceView(base, start, end);
+	}
+	
+	@Override
+	public int length() {
+		return this.end - this.start;
+	}
+	
+	@Override
+	public char charAt(final int index) {
+		if (index < 0 || index >= length()) {
+			throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+		}
+		return this.base.charAt(this.start + index);
+	}
+	
+	@Override
+	public @NonNull CharSequence subSequence(final int start, final int end) {
+		return of(this, start, end);
+	}
+	
+	@Override
+	public @NonNull String toString() {
+		return this.base.subSequence(this.start, this.end).toString();
+	}
+}